@@ -0,0 +1,60 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the inputs shared by all benchmarks.
+ *
+ * <p>Data is generated from a fixed seed so every run, fork and variant
+ * sees exactly the same numbers and names.
+ */
+final class BenchmarkData {
+
+    /** Same names as {@code StreamExample}, {@code Java16StreamExample} and {@code WithoutLambda}. */
+    static final String[] NAME_POOL = {
+            "Amit", "Rahul", "Sneha", "Priya", "Atharva",
+            "Apple", "Banana", "Avocado", "Mango", "Apricot"
+    };
+
+    private static final long SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param size Number of values
+     * @return Random ints between -1,000,000 and 1,000,000 (sign matters for the digit filters)
+     */
+    static int[] ints(int size) {
+        return new SplittableRandom(SEED).ints(size, -1_000_000, 1_000_001).toArray();
+    }
+
+    /**
+     * @param values Primitive values to box
+     * @return Fixed-size boxed list, the same shape {@code Arrays.asList} gives the examples
+     */
+    static List<Integer> boxed(int[] values) {
+        Integer[] boxed = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return Arrays.asList(boxed);
+    }
+
+    /**
+     * Names are picked from a small pool, so large sizes only cost one
+     * reference per element instead of one String per element.
+     * @param size Number of names
+     * @return Fixed-size list of names
+     */
+    static List<String> names(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = NAME_POOL[random.nextInt(NAME_POOL.length)];
+        }
+        return Arrays.asList(names);
+    }
+}
@@ -0,0 +1,35 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code target/benchmarks.jar}.
+ *
+ * <p>Runs the benchmarks with the GC profiler always attached, so every result
+ * reports {@code gc.alloc.rate} and {@code gc.alloc.rate.norm} (bytes per operation)
+ * next to the throughput. Any normal JMH command line option still works:
+ * <pre>
+ *   mvn -B package
+ *   java -jar target/benchmarks.jar                              # everything
+ *   java -jar target/benchmarks.jar EvenNumbers -p size=10,1000  # subset
+ *   java -jar target/benchmarks.jar -rf json -rff results.json   # machine readable
+ * </pre>
+ *
+ * <p>The 10^8 sizes need the 8 GB heap configured on each benchmark's {@code @Fork}.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,226 @@
+package benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import channelregistry.NotificationChannelRegistry;
+import lambdaExpression.Notification;
+
+/**
+ * Cold-start cost of {@link NotificationChannelRegistry}, eager vs lazy, as the number of
+ * registered channels grows, and the first-call cost of an anonymous class vs a lambda.
+ *
+ * <p>Every fork is a fresh JVM that runs the benchmark method exactly once, so the
+ * score includes class loading, linking and (for lambdas) the LambdaMetafactory
+ * bootstrap, none of which a warmed-up benchmark would see:
+ * <ul>
+ *   <li>{@code *Startup}: building the registry only</li>
+ *   <li>{@code *FirstNotify}: building it and sending the first notification</li>
+ *   <li>{@code anonymousClassFirstCall} / {@code lambdaFirstCall}: creating and
+ *       calling one {@link Notification} of each kind</li>
+ * </ul>
+ * The registry benchmarks do not use the example channels, which print to the console.
+ * They see {@code providers} copies of {@link QuietChannel} instead, each a distinct
+ * class with its own lambda, defined from bytes prepared during setup. Reading the
+ * provider classes from a jar is therefore not part of the score; loading, linking
+ * and instantiating them is.
+ *
+ * <p>JMH itself uses lambdas before the benchmark runs, so the lambda score is the cost of
+ * one more call site, not of initializing the lambda infrastructure from scratch.
+ * Compare averages over the forks; single forks are noisy.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class ChannelStartupBenchmark {
+
+    /**
+     * Class loader that sees only the generated providers.
+     */
+    @State(Scope.Benchmark)
+    public static class Providers {
+
+        @Param({"3", "30", "100"})
+        public int providers;
+
+        private ProviderLoader loader;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            loader = new ProviderLoader(providers);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(loader.servicesFile);
+        }
+    }
+
+    @Benchmark
+    public NotificationChannelRegistry lazyStartup(Providers providers) {
+        return NotificationChannelRegistry.lazy(providers.loader);
+    }
+
+    @Benchmark
+    public NotificationChannelRegistry eagerStartup(Providers providers) {
+        return NotificationChannelRegistry.eager(providers.loader);
+    }
+
+    @Benchmark
+    public NotificationChannelRegistry lazyFirstNotify(Providers providers) {
+        NotificationChannelRegistry registry = NotificationChannelRegistry.lazy(providers.loader);
+        registry.notifyUser("quiet0");
+        return registry;
+    }
+
+    @Benchmark
+    public NotificationChannelRegistry eagerFirstNotify(Providers providers) {
+        NotificationChannelRegistry registry = NotificationChannelRegistry.eager(providers.loader);
+        registry.notifyUser("quiet0");
+        return registry;
+    }
+
+    @Benchmark
+    public Notification anonymousClassFirstCall(Blackhole blackhole) {
+        Notification notification = new Notification() {
+
+            @Override
+            public void notifyUser() {
+                blackhole.consume(1);
+            }
+        };
+        notification.notifyUser();
+        return notification;
+    }
+
+    @Benchmark
+    public Notification lambdaFirstCall(Blackhole blackhole) {
+        Notification notification = () -> blackhole.consume(1);
+        notification.notifyUser();
+        return notification;
+    }
+
+    // =====================================================================
+    // Generated providers
+    // =====================================================================
+
+    /**
+     * Defines {@code Quiet0Channel} ... {@code Quiet<n-1>Channel} and lists them, and only
+     * them, as {@link Notification} providers.
+     */
+    private static final class ProviderLoader extends ClassLoader {
+
+        private static final String SERVICES = "META-INF/services/" + Notification.class.getName();
+        private static final String TEMPLATE = "benchmark/QuietChannel";
+
+        private final Map<String, byte[]> classes = new HashMap<>();
+        final Path servicesFile;
+
+        ProviderLoader(int count) throws IOException {
+            super(ChannelStartupBenchmark.class.getClassLoader());
+            byte[] template;
+            try (InputStream in = ChannelStartupBenchmark.class.getResourceAsStream("QuietChannel.class")) {
+                template = in.readAllBytes();
+            }
+            for (int i = 0; i < count; i++) {
+                String name = "benchmark/Quiet" + i + "Channel";
+                classes.put(name.replace('/', '.'), renamed(template, TEMPLATE, name));
+            }
+            servicesFile = Files.createTempFile("channel-providers", ".txt");
+            Files.writeString(servicesFile, IntStream.range(0, count)
+                    .mapToObj(i -> "benchmark.Quiet" + i + "Channel")
+                    .collect(Collectors.joining("\n", "", "\n")));
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            if (name.equals(SERVICES)) {
+                // Not the parent's list: the example channels print to the console
+                return Collections.enumeration(List.of(servicesFile.toUri().toURL()));
+            }
+            return super.getResources(name);
+        }
+
+        /**
+         * Copy of a class file with its own name replaced. Names live only in UTF-8
+         * constant pool entries, and nothing in a class file refers to byte offsets of the
+         * constant pool, so entries may change length.
+         */
+        private static byte[] renamed(byte[] classFile, String from, String to) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(classFile.length + 16);
+            DataOutputStream out = new DataOutputStream(bytes);
+            // Magic, minor and major version
+            out.writeInt(in.readInt());
+            out.writeInt(in.readInt());
+            int count = in.readUnsignedShort();
+            out.writeShort(count);
+            for (int i = 1; i < count; i++) {
+                int tag = in.readUnsignedByte();
+                out.writeByte(tag);
+                switch (tag) {
+                    // Utf8: class names and descriptors
+                    case 1 -> {
+                        String value = in.readUTF();
+                        out.writeUTF(value.equals(from) ? to : value.replace("L" + from + ";", "L" + to + ";"));
+                    }
+                    // Long and Double take two slots
+                    case 5, 6 -> {
+                        out.writeLong(in.readLong());
+                        i++;
+                    }
+                    case 3, 4, 9, 10, 11, 12, 17, 18 -> out.writeInt(in.readInt());
+                    case 15 -> {
+                        out.writeByte(in.readUnsignedByte());
+                        out.writeShort(in.readUnsignedShort());
+                    }
+                    case 7, 8, 16, 19, 20 -> out.writeShort(in.readUnsignedShort());
+                    default -> throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+            in.transferTo(out);
+            return bytes.toByteArray();
+        }
+    }
+}
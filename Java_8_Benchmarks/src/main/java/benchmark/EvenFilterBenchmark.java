@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.interview.streamcoding.ModernEvenNumbers;
+import com.interview.streamcoding.ParallelEvenFilter;
+
+/**
+ * Current {@code ModernEvenNumbers} pipeline vs {@link ParallelEvenFilter}.
+ *
+ * <p>The vector and scalar variants run the same code; only the JVM flags differ,
+ * because the SIMD kernel is picked by whether {@code jdk.incubator.vector} is resolved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class EvenFilterBenchmark {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    private int[] primitives;
+    private List<Integer> boxed;
+    private int[] out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        primitives = BenchmarkData.ints(size);
+        boxed = BenchmarkData.boxed(primitives);
+        out = new int[size];
+    }
+
+    @Benchmark
+    public List<Integer> streamBoxed() {
+        return boxed.stream()
+                .filter(ModernEvenNumbers::isEven)
+                .toList();
+    }
+
+    @Benchmark
+    public List<Integer> streamBoxedParallel() {
+        return boxed.parallelStream()
+                .filter(ModernEvenNumbers::isEven)
+                .toList();
+    }
+
+    @Benchmark
+    public int parallelScalar() {
+        return ParallelEvenFilter.filter(primitives, out);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g", "--add-modules", "jdk.incubator.vector"})
+    public int parallelVector() {
+        return ParallelEvenFilter.filter(primitives, out);
+    }
+}
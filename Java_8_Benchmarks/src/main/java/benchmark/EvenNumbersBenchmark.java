@@ -0,0 +1,120 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code LegacyEvenNumbers} vs {@code ModernEvenNumbers}.
+ *
+ * <p>Variants:
+ * <ul>
+ *   <li>legacy*: enhanced for-loop into an ArrayList (LegacyEvenNumbers)</li>
+ *   <li>stream*: filter + collect/toList (ModernEvenNumbers approaches 1 and 4)</li>
+ *   <li>*Boxed: input is a {@code List<Integer>}, *Primitive: input is an {@code int[]}</li>
+ *   <li>*Parallel: same pipeline with {@code .parallel()}</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class EvenNumbersBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    private int[] primitives;
+    private List<Integer> boxed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        primitives = BenchmarkData.ints(size);
+        boxed = BenchmarkData.boxed(primitives);
+    }
+
+    // =====================================================================
+    // Boxed input (List<Integer>)
+    // =====================================================================
+
+    @Benchmark
+    public List<Integer> legacyLoopBoxed() {
+        List<Integer> evenNumbers = new ArrayList<>();
+        for (Integer num : boxed) {
+            if (num % 2 == 0) {
+                evenNumbers.add(num);
+            }
+        }
+        return evenNumbers;
+    }
+
+    @Benchmark
+    public List<Integer> streamCollectBoxed() {
+        return boxed.stream()
+                .filter(num -> num % 2 == 0)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> streamToListBoxed() {
+        return boxed.stream()
+                .filter(num -> num % 2 == 0)
+                .toList();
+    }
+
+    @Benchmark
+    public List<Integer> streamToListBoxedParallel() {
+        return boxed.parallelStream()
+                .filter(num -> num % 2 == 0)
+                .toList();
+    }
+
+    // =====================================================================
+    // Primitive input (int[])
+    // =====================================================================
+
+    @Benchmark
+    public int[] legacyLoopPrimitive() {
+        int[] buffer = new int[primitives.length];
+        int count = 0;
+        for (int num : primitives) {
+            if (num % 2 == 0) {
+                buffer[count++] = num;
+            }
+        }
+        return Arrays.copyOf(buffer, count);
+    }
+
+    @Benchmark
+    public int[] streamPrimitive() {
+        return IntStream.of(primitives)
+                .filter(num -> num % 2 == 0)
+                .toArray();
+    }
+
+    @Benchmark
+    public int[] streamPrimitiveParallel() {
+        return IntStream.of(primitives)
+                .parallel()
+                .filter(num -> num % 2 == 0)
+                .toArray();
+    }
+}
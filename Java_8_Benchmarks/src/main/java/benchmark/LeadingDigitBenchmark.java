@@ -0,0 +1,105 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.interview.streamcoding.LeadingDigitFilter;
+import com.interview.streamcoding.StreamApproachMethodCalling;
+
+/**
+ * {@code LegacyApproachFindNumbersStartingWithOne} vs {@code StreamApproach} /
+ * {@code StreamApproachMethodCalling} vs the arithmetic {@link LeadingDigitFilter}.
+ *
+ * <p>The string variants reproduce the original String based checks so their
+ * allocation rate can be compared with the arithmetic ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class LeadingDigitBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    private int[] primitives;
+    private List<Integer> boxed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        primitives = BenchmarkData.ints(size);
+        boxed = BenchmarkData.boxed(primitives);
+    }
+
+    // =====================================================================
+    // String based checks (original implementations)
+    // =====================================================================
+
+    @Benchmark
+    public List<Integer> legacyLoopString() {
+        List<Integer> result = new ArrayList<>();
+        for (Integer num : boxed) {
+            String numStr = Math.abs(num) + "";
+            if (numStr.charAt(0) == '1') {
+                result.add(num);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Integer> streamString() {
+        return boxed.stream()
+                .filter(num -> String.valueOf(Math.abs(num)).startsWith("1"))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> streamStringParallel() {
+        return boxed.parallelStream()
+                .filter(num -> String.valueOf(Math.abs(num)).startsWith("1"))
+                .collect(Collectors.toList());
+    }
+
+    // =====================================================================
+    // Arithmetic checks
+    // =====================================================================
+
+    @Benchmark
+    public List<Integer> streamMethodCalling() {
+        return StreamApproachMethodCalling.findNumbersStartingWithOne(boxed);
+    }
+
+    @Benchmark
+    public int[] filterPrimitive() {
+        return LeadingDigitFilter.ONE.filter(primitives);
+    }
+
+    @Benchmark
+    public int[] streamPrimitive() {
+        return LeadingDigitFilter.ONE.filter(IntStream.of(primitives)).toArray();
+    }
+
+    @Benchmark
+    public int[] streamPrimitiveParallel() {
+        return LeadingDigitFilter.ONE.filter(IntStream.of(primitives).parallel()).toArray();
+    }
+}
@@ -0,0 +1,101 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import legacycode.MultiPatternMatcher;
+
+/**
+ * One {@code contains()} per pattern ({@code WithoutLambda} style) vs
+ * {@link MultiPatternMatcher}, as the number of patterns grows.
+ *
+ * <p>The contains loop should slow down linearly with {@code patterns};
+ * the matcher should stay roughly flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiPatternBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int patterns;
+
+    @Param({"100000"})
+    public int size;
+
+    private List<String> names;
+    private List<String> patternList;
+    private MultiPatternMatcher matcher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(randomWord(random, 6 + random.nextInt(10)));
+        }
+        patternList = new ArrayList<>(patterns);
+        for (int i = 0; i < patterns; i++) {
+            patternList.add(randomWord(random, 3 + random.nextInt(3)));
+        }
+        matcher = MultiPatternMatcher.of(patternList);
+    }
+
+    private static String randomWord(SplittableRandom random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    @Benchmark
+    public List<String> legacyContainsLoop() {
+        List<String> elements = new ArrayList<>();
+        for (String name : names) {
+            for (String pattern : patternList) {
+                if (name.contains(pattern)) {
+                    elements.add(name);
+                    break;
+                }
+            }
+        }
+        return elements;
+    }
+
+    @Benchmark
+    public List<String> matcherLoop() {
+        List<String> elements = new ArrayList<>();
+        for (String name : names) {
+            if (matcher.containsAny(name)) {
+                elements.add(name);
+            }
+        }
+        return elements;
+    }
+
+    @Benchmark
+    public List<String> matcherStream() {
+        return names.stream()
+                .filter(matcher::containsAny)
+                .toList();
+    }
+}
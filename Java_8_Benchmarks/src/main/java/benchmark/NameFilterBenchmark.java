@@ -0,0 +1,110 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code WithoutLambda} (loop + contains) vs {@code StreamExample} /
+ * {@code Java16StreamExample} (stream + startsWith).
+ *
+ * <p>Both predicates are measured in loop, stream and parallel stream form,
+ * so the cost of the pipeline can be separated from the cost of the predicate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class NameFilterBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    private List<String> names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        names = BenchmarkData.names(size);
+    }
+
+    // =====================================================================
+    // contains("A") - WithoutLambda
+    // =====================================================================
+
+    @Benchmark
+    public List<String> legacyLoopContains() {
+        List<String> elements = new ArrayList<>();
+        for (String name : names) {
+            if (name.contains("A")) {
+                elements.add(name);
+            }
+        }
+        return elements;
+    }
+
+    @Benchmark
+    public List<String> streamContains() {
+        return names.stream()
+                .filter(name -> name.contains("A"))
+                .toList();
+    }
+
+    @Benchmark
+    public List<String> streamContainsParallel() {
+        return names.parallelStream()
+                .filter(name -> name.contains("A"))
+                .toList();
+    }
+
+    // =====================================================================
+    // startsWith("A") - StreamExample / Java16StreamExample
+    // =====================================================================
+
+    @Benchmark
+    public List<String> legacyLoopStartsWith() {
+        List<String> filteredNamesLegacy = new ArrayList<>();
+        for (String name : names) {
+            if (name.startsWith("A")) {
+                filteredNamesLegacy.add(name);
+            }
+        }
+        return filteredNamesLegacy;
+    }
+
+    @Benchmark
+    public List<String> streamCollectStartsWith() {
+        return names.stream()
+                .filter(name -> name.startsWith("A"))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> streamToListStartsWith() {
+        return names.stream()
+                .filter(name -> name.startsWith("A"))
+                .toList();
+    }
+
+    @Benchmark
+    public List<String> streamToListStartsWithParallel() {
+        return names.parallelStream()
+                .filter(name -> name.startsWith("A"))
+                .toList();
+    }
+}
@@ -0,0 +1,109 @@
+package benchmark;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import asyncnotification.Channel;
+import lambdaExpression.Notification;
+import ringbuffer.EventHandler;
+import ringbuffer.NotificationRingBuffer;
+import ringbuffer.WaitStrategy;
+
+/**
+ * Publish cost of {@link NotificationRingBuffer} vs {@link ArrayBlockingQueue}
+ * and {@link LinkedBlockingQueue}, with 4 producers and 1 consumer.
+ *
+ * <p>Throughput mode gives events/sec; SampleTime mode gives the publish latency
+ * distribution (p50/p90/p99/p99.9 per benchmark). The gc profiler added by
+ * {@link BenchmarkRunner} shows the ring buffer allocating 0 bytes per publish, while
+ * LinkedBlockingQueue allocates a node per element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class NotificationHandOffBenchmark {
+
+    private static final int CAPACITY = 1 << 16;
+
+    private static final Notification NOOP = () -> {
+    };
+
+    @Param({"RING_BUSY_SPIN", "RING_YIELDING", "RING_PARKING", "ARRAY_BLOCKING_QUEUE", "LINKED_BLOCKING_QUEUE"})
+    public String handOff;
+
+    private NotificationRingBuffer ring;
+    private BlockingQueue<Notification> queue;
+    private Thread queueConsumer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (handOff) {
+            case "RING_BUSY_SPIN" -> startRing(WaitStrategy.BUSY_SPIN);
+            case "RING_YIELDING" -> startRing(WaitStrategy.YIELDING);
+            case "RING_PARKING" -> startRing(WaitStrategy.PARKING);
+            case "ARRAY_BLOCKING_QUEUE" -> startQueue(new ArrayBlockingQueue<>(CAPACITY));
+            case "LINKED_BLOCKING_QUEUE" -> startQueue(new LinkedBlockingQueue<>(CAPACITY));
+            default -> throw new IllegalArgumentException(handOff);
+        }
+    }
+
+    private void startRing(WaitStrategy waitStrategy) {
+        ring = new NotificationRingBuffer(CAPACITY, waitStrategy);
+        ring.start(EventHandler.direct());
+    }
+
+    private void startQueue(BlockingQueue<Notification> blockingQueue) {
+        queue = blockingQueue;
+        queueConsumer = new Thread(() -> {
+            try {
+                while (true) {
+                    queue.take().notifyUser();
+                }
+            } catch (InterruptedException e) {
+                // Benchmark finished
+            }
+        }, "queue-consumer");
+        queueConsumer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (ring != null) {
+            ring.close();
+        }
+        if (queueConsumer != null) {
+            queueConsumer.interrupt();
+            queueConsumer.join();
+        }
+    }
+
+    @Benchmark
+    public void publish() throws InterruptedException {
+        if (ring != null) {
+            ring.publish(Channel.PUSH, NOOP);
+        } else {
+            queue.put(NOOP);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package benchmark;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.interview.streamcoding.LeadingDigitFilter;
+import com.interview.streamcoding.ModernEvenNumbers;
+import com.interview.streamcoding.NumberSpliterators;
+
+/**
+ * Parallel scaling of the even and leading-digit filters from 1 to N cores,
+ * by stream source.
+ *
+ * <p>A parallel stream runs in the fork/join pool of the thread that starts it, so
+ * each benchmark starts its stream inside a pool of {@code threads} workers. Sources:
+ * <ul>
+ *   <li>{@code asList}: the boxed {@code Arrays.asList} input of the examples</li>
+ *   <li>{@code iterator}: an iterator-backed source of unknown size</li>
+ *   <li>{@code spliterator}: {@link NumberSpliterators} over the {@code int[]},
+ *       split down to {@code minChunk} elements</li>
+ *   <li>{@code spliteratorBoxed}: {@link NumberSpliterators} over the boxed list, so
+ *       against {@code asList} only the splitting differs and against
+ *       {@code spliterator} only the boxing</li>
+ * </ul>
+ * Every filter drops the SIZED characteristic, so the {@code copy*} cases run the same
+ * sources without a filter: there the exact size lets {@code toArray()} and
+ * {@code toList()} write each chunk straight into one preallocated array.
+ * Throughput divided by the {@code threads=1} result gives the speed-up.
+ * Values above the machine's core count show the cost of oversubscription.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ParallelScalingBenchmark {
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    @Param({"10000000"})
+    public int size;
+
+    @Param({"16384"})
+    public int minChunk;
+
+    private int[] primitives;
+    private List<Integer> boxed;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        primitives = BenchmarkData.ints(size);
+        boxed = BenchmarkData.boxed(primitives);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private IntStream iteratorBacked() {
+        return StreamSupport.intStream(
+                Spliterators.spliteratorUnknownSize(IntStream.of(primitives).iterator(), Spliterator.ORDERED), true);
+    }
+
+    // =====================================================================
+    // Even filter
+    // =====================================================================
+
+    @Benchmark
+    public List<Integer> evenAsList() {
+        return pool.submit(() -> boxed.parallelStream()
+                .filter(ModernEvenNumbers::isEven)
+                .toList()).join();
+    }
+
+    @Benchmark
+    public int[] evenIterator() {
+        return pool.submit(() -> iteratorBacked()
+                .filter(ModernEvenNumbers::isEven)
+                .toArray()).join();
+    }
+
+    @Benchmark
+    public int[] evenSpliterator() {
+        return pool.submit(() -> NumberSpliterators.stream(primitives, minChunk).parallel()
+                .filter(ModernEvenNumbers::isEven)
+                .toArray()).join();
+    }
+
+    @Benchmark
+    public List<Integer> evenSpliteratorBoxed() {
+        return pool.submit(() -> NumberSpliterators.stream(boxed, minChunk).parallel()
+                .filter(ModernEvenNumbers::isEven)
+                .toList()).join();
+    }
+
+    // =====================================================================
+    // Leading-digit filter
+    // =====================================================================
+
+    @Benchmark
+    public List<Integer> leadingDigitAsList() {
+        return pool.submit(() -> boxed.parallelStream()
+                .filter(num -> LeadingDigitFilter.ONE.test(num.intValue()))
+                .toList()).join();
+    }
+
+    @Benchmark
+    public int[] leadingDigitIterator() {
+        return pool.submit(() -> iteratorBacked()
+                .filter(LeadingDigitFilter.ONE::test)
+                .toArray()).join();
+    }
+
+    @Benchmark
+    public int[] leadingDigitSpliterator() {
+        return pool.submit(() -> NumberSpliterators.stream(primitives, minChunk).parallel()
+                .filter(LeadingDigitFilter.ONE::test)
+                .toArray()).join();
+    }
+
+    @Benchmark
+    public List<Integer> leadingDigitSpliteratorBoxed() {
+        return pool.submit(() -> NumberSpliterators.stream(boxed, minChunk).parallel()
+                .filter(num -> LeadingDigitFilter.ONE.test(num.intValue()))
+                .toList()).join();
+    }
+
+    // =====================================================================
+    // Copy without filtering: SIZED is kept up to the terminal operation
+    // =====================================================================
+
+    @Benchmark
+    public List<Integer> copyAsList() {
+        return pool.submit(() -> boxed.parallelStream().toList()).join();
+    }
+
+    @Benchmark
+    public int[] copyIterator() {
+        return pool.submit(() -> iteratorBacked().toArray()).join();
+    }
+
+    @Benchmark
+    public int[] copySpliterator() {
+        return pool.submit(() -> NumberSpliterators.stream(primitives, minChunk).parallel().toArray()).join();
+    }
+
+    @Benchmark
+    public List<Integer> copySpliteratorBoxed() {
+        return pool.submit(() -> NumberSpliterators.stream(boxed, minChunk).parallel().toList()).join();
+    }
+
+    /** Sized source without an array behind it: the values are computed. */
+    @Benchmark
+    public long leadingDigitRange() {
+        return pool.submit(() -> NumberSpliterators.range(0, size).parallel()
+                .filter(LeadingDigitFilter.ONE::test)
+                .count()).join();
+    }
+}
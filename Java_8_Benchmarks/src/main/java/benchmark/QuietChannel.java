@@ -0,0 +1,22 @@
+package benchmark;
+
+import lambdaExpression.Notification;
+
+/**
+ * Template for the providers of {@link ChannelStartupBenchmark}: built around a lambda
+ * like {@code PushChannel}, but sends nothing, so console encoding and I/O stay out of
+ * the score. The benchmark defines renamed copies ({@code Quiet0Channel},
+ * {@code Quiet1Channel}, ...); this class itself is never registered.
+ */
+public class QuietChannel implements Notification {
+
+    // One counter per copy; read by nobody, but keeps the call from being a no-op
+    static int sent;
+
+    private final Notification delegate = () -> sent++;
+
+    @Override
+    public void notifyUser() {
+        delegate.notifyUser();
+    }
+}
@@ -0,0 +1,158 @@
+package com.interview.streamcoding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cached versions of the filters in this package, backed by a {@link FilterResultCache}.
+ *
+ * <p>{@code StreamApproachMethodCalling.findNumbersStartingWithOne} and the
+ * {@code ModernEvenNumbers.isEven} filter recompute their result on every call. Here
+ * the result is computed once per dataset version and reused:
+ * <pre>
+ * CachedFilters filters = new CachedFilters(64 * 1024 * 1024);
+ * DatasetFingerprint orders = DatasetFingerprint.version("orders", ordersVersion);
+ * List&lt;Integer&gt; result = filters.findNumbersStartingWithOne(orders, numbers);
+ * </pre>
+ * Results are unmodifiable lists, since every caller gets the same instance.
+ *
+ * <p>The overloads without a fingerprint hash the list with {@link DatasetFingerprint#of(List)}:
+ * a 64-bit hash collision between two datasets returns the first one's result for the
+ * second. That is unlikely but not impossible; pass a version fingerprint when the
+ * caller tracks one.
+ */
+public final class CachedFilters {
+
+    // Rough heap cost of one result element: a reference plus a boxed Integer
+    private static final long BYTES_PER_ELEMENT = 4 + 16;
+    private static final long BYTES_PER_RESULT = 64;
+
+    private final FilterResultCache<List<Integer>> cache;
+
+    /**
+     * @param maxBytes Approximate heap budget for cached results
+     */
+    public CachedFilters(long maxBytes) {
+        this(maxBytes, 1024);
+    }
+
+    /**
+     * @param maxBytes Approximate heap budget for cached results
+     * @param expectedEntries Typical number of cached results
+     */
+    public CachedFilters(long maxBytes, int expectedEntries) {
+        this.cache = new FilterResultCache<>(maxBytes,
+                result -> BYTES_PER_RESULT + BYTES_PER_ELEMENT * result.size(), expectedEntries);
+    }
+
+    /**
+     * @param dataset Version of {@code numbers}
+     * @param numbers Numbers to filter
+     * @return Unmodifiable list of the numbers starting with digit 1 (sign ignored)
+     */
+    public List<Integer> findNumbersStartingWithOne(DatasetFingerprint dataset, List<Integer> numbers) {
+        return cache.get(dataset, "startsWithOne",
+                () -> List.copyOf(StreamApproachMethodCalling.findNumbersStartingWithOne(numbers)));
+    }
+
+    /**
+     * Hashes {@code numbers} to find the cached result, so a hash collision returns
+     * another dataset's result (probabilistic); prefer the overload taking a version
+     * when the caller tracks one.
+     * @param numbers Numbers to filter
+     * @return Unmodifiable list of the numbers starting with digit 1 (sign ignored)
+     */
+    public List<Integer> findNumbersStartingWithOne(List<Integer> numbers) {
+        return findNumbersStartingWithOne(DatasetFingerprint.of(numbers), numbers);
+    }
+
+    /**
+     * @param dataset Version of {@code numbers}
+     * @param numbers Numbers to filter
+     * @return Unmodifiable list of the even numbers
+     */
+    public List<Integer> evenNumbers(DatasetFingerprint dataset, List<Integer> numbers) {
+        return cache.get(dataset, "isEven",
+                () -> numbers.stream().filter(ModernEvenNumbers::isEven).toList());
+    }
+
+    /**
+     * Hashes {@code numbers} like {@link #findNumbersStartingWithOne(List)}, with the same
+     * (small) risk of returning another dataset's result on a collision.
+     * @param numbers Numbers to filter
+     * @return Unmodifiable list of the even numbers
+     */
+    public List<Integer> evenNumbers(List<Integer> numbers) {
+        return evenNumbers(DatasetFingerprint.of(numbers), numbers);
+    }
+
+    /**
+     * @param dataset Dataset version whose results should be dropped
+     */
+    public void invalidate(DatasetFingerprint dataset) {
+        cache.invalidate(dataset);
+    }
+
+    /**
+     * @return Hit, miss, load and eviction counters
+     */
+    public FilterResultCache.Stats stats() {
+        return cache.stats();
+    }
+
+    public static void main(String[] args) {
+        CachedFilters filters = new CachedFilters(256L * 1024 * 1024);
+
+        List<Integer> small = List.of(15, 3, 100, 2, 19, 21, -123, -100, 0);
+        System.out.println("Numbers starting with 1: " + filters.findNumbersStartingWithOne(small));
+        System.out.println("Again (cached):          " + filters.findNumbersStartingWithOne(small));
+        System.out.println("Even numbers:            " + filters.evenNumbers(small));
+
+        // Stampede: 32 threads ask for the same large result at the same time
+        List<Integer> large = new SplittableRandom(42).ints(2_000_000, -1_000_000, 1_000_000).boxed().toList();
+        DatasetFingerprint version = DatasetFingerprint.version("large", 1);
+        AtomicInteger computed = new AtomicInteger();
+        FilterResultCache<List<Integer>> counting = new FilterResultCache<>(Long.MAX_VALUE, List::size, 16);
+        try (ExecutorService pool = Executors.newFixedThreadPool(32)) {
+            for (int i = 0; i < 32; i++) {
+                pool.execute(() -> counting.get(version, "startsWithOne", () -> {
+                    computed.incrementAndGet();
+                    return List.copyOf(StreamApproachMethodCalling.findNumbersStartingWithOne(large));
+                }));
+            }
+        }
+        System.out.println("32 concurrent requests, loader ran " + computed.get() + " time(s): " + counting.stats());
+
+        // Repeated calls with a version key: one computation, then hits
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            filters.findNumbersStartingWithOne(version, large);
+        }
+        long cachedMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            StreamApproachMethodCalling.findNumbersStartingWithOne(large);
+        }
+        long uncachedMillis = (System.nanoTime() - start) / 1_000_000 * 10;
+        System.out.printf("100 calls: cached %d ms, uncached ~%d ms%n", cachedMillis, uncachedMillis);
+
+        // A small budget: many distinct datasets compete for space
+        CachedFilters tiny = new CachedFilters(1024 * 1024, 64);
+        List<List<Integer>> datasets = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int d = 0; d < 200; d++) {
+            datasets.add(random.ints(2_000, -1_000, 1_000).boxed().toList());
+        }
+        for (int i = 0; i < 20_000; i++) {
+            // Skewed access: a few datasets are hot, most are cold
+            int d = (int) Math.min(199, Math.abs(random.nextGaussian()) * 30);
+            tiny.evenNumbers(DatasetFingerprint.version("dataset-" + d, 1), datasets.get(d));
+        }
+        FilterResultCache.Stats stats = tiny.stats();
+        System.out.printf("Skewed workload in 1 MB: hit rate %.1f%%, %s%n", 100 * stats.hitRate(), stats);
+    }
+}
@@ -0,0 +1,72 @@
+package com.interview.streamcoding;
+
+import java.util.List;
+
+/**
+ * Identifies one version of a dataset, as part of a {@link FilterResultCache} key.
+ *
+ * <p>Two ways to get one:
+ * <ul>
+ *   <li>{@link #version(String, long)}: free, for data that already carries a version
+ *       number (bumped by whoever modifies it)</li>
+ *   <li>{@link #of(int[])} / {@link #of(List)}: a 64-bit hash of the contents, one
+ *       cheap pass with no allocation, for data without a version</li>
+ * </ul>
+ * Hashed fingerprints are probabilistic: two different datasets of the same length get
+ * the same fingerprint with probability about 2^-64, and a cache keyed by them then
+ * returns the other dataset's result. Every element goes through a full avalanche, so
+ * structured inputs (a list and its complement, Thue-Morse sequences) do not collide
+ * the way they do under a plain polynomial hash, but the hash is not meant to withstand
+ * inputs crafted to collide. Use {@link #version} where a wrong answer is unacceptable.
+ *
+ * @param name Dataset name, or the kind of contents for hashed fingerprints
+ * @param value Version number or content hash
+ */
+public record DatasetFingerprint(String name, long value) {
+
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * @param dataset Dataset name
+     * @param version Current version of the dataset
+     * @return Fingerprint that changes exactly when the version does
+     */
+    public static DatasetFingerprint version(String dataset, long version) {
+        return new DatasetFingerprint(dataset, version);
+    }
+
+    /**
+     * @param values Dataset contents
+     * @return Fingerprint of the contents (length and order matter)
+     */
+    public static DatasetFingerprint of(int[] values) {
+        long hash = values.length;
+        for (int value : values) {
+            hash = mix(hash ^ value) * MULTIPLIER;
+        }
+        return new DatasetFingerprint("int[" + values.length + "]", mix(hash));
+    }
+
+    /**
+     * @param values Dataset contents (no nulls)
+     * @return Fingerprint of the contents; equal to {@link #of(int[])} for the same numbers
+     */
+    public static DatasetFingerprint of(List<Integer> values) {
+        long hash = values.size();
+        for (Integer value : values) {
+            hash = mix(hash ^ value) * MULTIPLIER;
+        }
+        return new DatasetFingerprint("int[" + values.size() + "]", mix(hash));
+    }
+
+    // Avalanche (MurmurHash3's fmix64); applied per element, since a polynomial hash
+    // mod 2^64 collides on Thue-Morse sequences
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ hash >>> 33;
+    }
+
+}
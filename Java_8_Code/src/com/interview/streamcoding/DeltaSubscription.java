@@ -0,0 +1,208 @@
+package com.interview.streamcoding;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connection between one {@link LiveFilteredView} and one subscriber.
+ *
+ * <p>The view's current contents (captured when subscribing) are delivered first as
+ * {@code ADDED} deltas, then every later change in order. Deltas wait in a bounded
+ * buffer until the subscriber requests them. The source adds deltas under its lock
+ * without waiting ({@link #offer}); once it has released the lock, the changing thread
+ * waits in {@link #awaitCapacity()} while the buffer is over capacity, until the
+ * subscriber catches up, cancels or the source is closed. That is the backpressure.
+ * Since nobody waits under the source lock, a slow subscriber only slows the threads
+ * changing the source, never readers of the views, other changes' locking or
+ * {@link LiveNumbers#close()}. The buffer may go over capacity by one delta per
+ * concurrently changing thread (by a whole batch for {@link LiveNumbers#appendAll}).
+ *
+ * <p>Signals are delivered on the executor, never concurrently: a work-in-progress
+ * counter makes sure only one drain loop runs at a time.
+ */
+final class DeltaSubscription implements Flow.Subscription, Runnable {
+
+    private final Flow.Subscriber<? super NumberDelta> subscriber;
+    private final Executor executor;
+    private final int capacity;
+
+    // Initial contents, delivered before the buffer
+    private final long[] initialIds;
+    private final int[] initialValues;
+    private int initialPosition;
+
+    // Guarded by this
+    private final ArrayDeque<NumberDelta> buffer = new ArrayDeque<>();
+    private boolean completed;
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger workInProgress = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile Throwable failure;
+    private boolean subscribed;
+    private boolean terminated;
+
+    DeltaSubscription(Flow.Subscriber<? super NumberDelta> subscriber, Executor executor, int capacity,
+            long[] initialIds, int[] initialValues) {
+        this.subscriber = subscriber;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.initialIds = initialIds;
+        this.initialValues = initialValues;
+    }
+
+    /** Starts delivery; onSubscribe is the first signal, sent on the executor. */
+    void start() {
+        schedule();
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Called by the source while it holds its lock; never waits. */
+    void offer(NumberDelta delta) {
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            buffer.add(delta);
+        }
+        schedule();
+    }
+
+    /**
+     * Called by the source after releasing its lock: waits while the buffer is over
+     * capacity. Returns once the subscriber catches up, cancels or the source is closed.
+     * If the thread is interrupted while it waits, the subscription fails instead; an
+     * interrupt flag set before the call only matters if the thread actually has to wait.
+     */
+    void awaitCapacity() {
+        boolean interrupted = false;
+        synchronized (this) {
+            while (buffer.size() > capacity && !cancelled && !completed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                    break;
+                }
+            }
+        }
+        if (interrupted && !cancelled) {
+            fail(new CancellationException("Interrupted while waiting for the subscriber to catch up"));
+        }
+    }
+
+    void complete() {
+        synchronized (this) {
+            completed = true;
+            // Release producers waiting for capacity; the buffered deltas are still delivered
+            notifyAll();
+        }
+        schedule();
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            fail(new IllegalArgumentException("Request must be positive: " + n));
+            return;
+        }
+        // Add, capping at Long.MAX_VALUE (= unbounded)
+        requested.accumulateAndGet(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+        schedule();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        synchronized (this) {
+            buffer.clear();
+            notifyAll();
+        }
+    }
+
+    /** Stops delivery and signals {@code error} (from the drain loop, so signals stay serial). */
+    private void fail(Throwable error) {
+        failure = error;
+        cancel();
+        schedule();
+    }
+
+    private void schedule() {
+        if (workInProgress.getAndIncrement() == 0) {
+            executor.execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        int missed = 1;
+        while (true) {
+            drain();
+            missed = workInProgress.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        if (!subscribed) {
+            subscribed = true;
+            subscriber.onSubscribe(this);
+        }
+        if (failure != null && !terminated) {
+            terminated = true;
+            subscriber.onError(failure);
+            return;
+        }
+        while (!cancelled && !terminated) {
+            boolean done;
+            NumberDelta delta = null;
+            if (initialPosition < initialIds.length) {
+                if (requested.get() == 0) {
+                    return;
+                }
+                delta = new NumberDelta(NumberDelta.Type.ADDED, initialIds[initialPosition],
+                        initialValues[initialPosition]);
+                initialPosition++;
+                done = false;
+            } else {
+                synchronized (this) {
+                    done = completed && buffer.isEmpty();
+                    if (!done && requested.get() > 0) {
+                        delta = buffer.poll();
+                        if (delta != null) {
+                            notifyAll();
+                        }
+                    }
+                }
+            }
+            if (done) {
+                terminated = true;
+                subscriber.onComplete();
+                return;
+            }
+            if (delta == null) {
+                return;
+            }
+            if (requested.get() != Long.MAX_VALUE) {
+                requested.decrementAndGet();
+            }
+            try {
+                subscriber.onNext(delta);
+            } catch (RuntimeException e) {
+                // A subscriber that throws is treated as cancelled
+                cancel();
+            }
+        }
+    }
+
+}
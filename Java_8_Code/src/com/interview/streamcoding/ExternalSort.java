@@ -0,0 +1,750 @@
+package com.interview.streamcoding;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Filters and sorts inputs larger than the heap, within a fixed memory budget.
+ *
+ * <p>The in-memory filters of this package collect everything and then sort it. Here:
+ * <ol>
+ *   <li><b>Chunk</b>: the input is read once; values that pass the filter go into a
+ *       buffer of at most the memory budget.</li>
+ *   <li><b>Spill</b>: a full buffer is sorted and written to a temporary run file in a
+ *       compact binary format: raw 4-byte ints, or length-prefixed UTF-8 names.</li>
+ *   <li><b>Merge</b>: the runs are merged k at a time, each with a read buffer of
+ *       {@code budget / (k + 1)} bytes. With more runs than k, intermediate passes
+ *       merge them into longer runs first. The last pass feeds the output.</li>
+ * </ol>
+ * If everything that passes the filter fits in one buffer, nothing is spilled.
+ * Temporary files are deleted when the run ends, also on failure.
+ * <pre>
+ * ExternalSort sort = ExternalSort.withMemoryBudget(256L * 1024 * 1024);
+ * try (IntStream numbers = MappedNumberSource.binaryInts(input, ByteOrder.LITTLE_ENDIAN);
+ *         ResultSink sink = ResultSink.to(output)) {
+ *     ExternalSort.Report report = sort.sortInts(numbers, ModernEvenNumbers::isEven, sink);
+ *     System.out.println(report);
+ * }
+ * </pre>
+ *
+ * <p>Every run returns a {@link Report} with throughput and the memory this run used:
+ * the high-water mark of its chunk and merge buffers, which the budget caps, and the heap
+ * allocated by the calling thread, which includes what the input and output pipelines
+ * allocate. Both are measured per run, so concurrent sorts do not skew each other.
+ */
+public final class ExternalSort {
+
+    /**
+     * Summary of one run.
+     * @param read Elements read from the input
+     * @param written Elements passed to the output (those that passed the filter)
+     * @param runs Sorted run files spilled from the input (0 if it fit in memory)
+     * @param mergePasses Merge passes, including the final one
+     * @param spilledBytes Bytes written to temporary files, over all passes
+     * @param elapsedNanos Wall-clock time of the run
+     * @param peakBufferBytes Most bytes held at once in chunk and merge buffers; up to 1.5x
+     *        the budget while the int chunk grows and the old array is still live
+     * @param allocatedBytes Heap allocated by the calling thread during the run, or -1 if
+     *        the JVM does not measure per-thread allocation
+     */
+    public record Report(long read, long written, int runs, int mergePasses, long spilledBytes,
+            long elapsedNanos, long peakBufferBytes, long allocatedBytes) {
+
+        /**
+         * @return Input elements per second
+         */
+        public double throughput() {
+            return elapsedNanos == 0 ? 0 : read * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%,d read, %,d written, %d runs, %d merge passes, %.1f MB spilled, %d ms, "
+                            + "%.1f M elements/s, buffers %.1f MB peak, %.1f MB allocated",
+                    read, written, runs, mergePasses, spilledBytes / 1e6, elapsedNanos / 1_000_000,
+                    throughput() / 1e6, peakBufferBytes / 1e6, allocatedBytes / 1e6);
+        }
+    }
+
+    /** 64 MB, unless configured. */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    // Smallest useful read buffer per run during a merge, and the most runs merged at once
+    private static final int MIN_MERGE_BUFFER = 64 * 1024;
+    private static final int MAX_FAN_IN = 512;
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+    // Approximate heap cost of a String beyond its chars: header, array header, list slot
+    private static final int STRING_OVERHEAD = 56;
+
+    private final long memoryBudget;
+    private final Path tempDirectory;
+
+    private ExternalSort(long memoryBudget, Path tempDirectory) {
+        if (memoryBudget < 2L * MIN_MERGE_BUFFER) {
+            throw new IllegalArgumentException("Memory budget too small: " + memoryBudget);
+        }
+        this.memoryBudget = memoryBudget;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * @param bytes Memory for chunk and merge buffers, at least 128 KB
+     * @return Sorter spilling to the default temporary directory
+     */
+    public static ExternalSort withMemoryBudget(long bytes) {
+        return new ExternalSort(bytes, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @param directory Where run files are created, ideally a fast local disk
+     * @return Sorter with the same budget spilling to {@code directory}
+     */
+    public ExternalSort inDirectory(Path directory) {
+        return new ExternalSort(memoryBudget, directory);
+    }
+
+    // =====================================================================
+    // Ints
+    // =====================================================================
+
+    /**
+     * @param input Values to read (consumed sequentially)
+     * @param filter Values to keep
+     * @param output Receives the kept values in ascending order, e.g. a {@link ResultSink}
+     * @return Counters, throughput and memory use of this run
+     */
+    public Report sortInts(IntStream input, IntPredicate filter, IntConsumer output) {
+        Run run = new Run();
+        try {
+            IntChunker chunker = new IntChunker(filter, run,
+                    (int) Math.min(MAX_ARRAY_LENGTH, memoryBudget / Integer.BYTES));
+            input.sequential().forEach(chunker);
+            if (run.files.isEmpty()) {
+                // Everything fit in memory: no spill, no merge
+                Arrays.sort(chunker.chunk, 0, chunker.size);
+                for (int i = 0; i < chunker.size; i++) {
+                    output.accept(chunker.chunk[i]);
+                }
+                run.written = chunker.size;
+                return run.report();
+            }
+            chunker.spill();
+            // Let the chunk go before the merge buffers are allocated
+            chunker.chunk = null;
+            IntConsumer counting = value -> {
+                run.written++;
+                output.accept(value);
+            };
+            run.merge((group, target) -> {
+                try (IntRunWriter writer = new IntRunWriter(target, run.bufferSize)) {
+                    mergeInts(group, value -> {
+                        try {
+                            writer.write(value);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, run.bufferSize);
+                }
+            }, group -> mergeInts(group, counting, run.bufferSize));
+            return run.report();
+        } finally {
+            run.deleteFiles();
+        }
+    }
+
+    /**
+     * Buffers the values that pass the filter and spills full buffers as sorted runs.
+     */
+    private final class IntChunker implements IntConsumer {
+
+        private final IntPredicate filter;
+        private final Run run;
+        private final int capacity;
+        int[] chunk;
+        int size;
+
+        IntChunker(IntPredicate filter, Run run, int capacity) {
+            this.filter = filter;
+            this.run = run;
+            this.capacity = capacity;
+            // Start small so inputs that fit in memory do not pay for the whole budget
+            this.chunk = new int[Math.min(capacity, 1 << 16)];
+            run.buffered((long) chunk.length * Integer.BYTES);
+        }
+
+        @Override
+        public void accept(int value) {
+            run.read++;
+            if (filter.test(value)) {
+                if (size == chunk.length) {
+                    if (chunk.length < capacity) {
+                        int grown = (int) Math.min(capacity, 2L * chunk.length);
+                        // Old and new array are both live during the copy
+                        run.buffered((long) (chunk.length + grown) * Integer.BYTES);
+                        chunk = Arrays.copyOf(chunk, grown);
+                    } else {
+                        spill();
+                    }
+                }
+                chunk[size++] = value;
+            }
+        }
+
+        void spill() {
+            if (size == 0) {
+                return;
+            }
+            Arrays.sort(chunk, 0, size);
+            run.buffered((long) chunk.length * Integer.BYTES + MIN_MERGE_BUFFER);
+            Path file = run.newFile();
+            try (IntRunWriter writer = new IntRunWriter(file, MIN_MERGE_BUFFER)) {
+                writer.write(chunk, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            run.spilled(file);
+            size = 0;
+        }
+    }
+
+    private static void mergeInts(List<Path> runs, IntConsumer output, int bufferSize) throws IOException {
+        IntRunReader[] readers = new IntRunReader[runs.size()];
+        try {
+            // Min-heap of reader indexes, ordered by each reader's current value
+            int[] heap = new int[readers.length];
+            int size = 0;
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new IntRunReader(runs.get(i), bufferSize);
+                if (readers[i].next()) {
+                    heap[size++] = i;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(heap, size, i, readers);
+            }
+            while (size > 0) {
+                IntRunReader smallest = readers[heap[0]];
+                output.accept(smallest.value);
+                if (!smallest.next()) {
+                    heap[0] = heap[--size];
+                }
+                siftDown(heap, size, 0, readers);
+            }
+        } finally {
+            for (IntRunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, int index, IntRunReader[] readers) {
+        int item = heap[index];
+        int value = readers[item].value;
+        while (2 * index + 1 < size) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && readers[heap[child + 1]].value < readers[heap[child]].value) {
+                child++;
+            }
+            if (value <= readers[heap[child]].value) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = item;
+    }
+
+    /**
+     * Writes raw native-order ints through a direct buffer.
+     */
+    private static final class IntRunWriter implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        IntRunWriter(Path file, int bufferSize) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(bufferSize & -Integer.BYTES).order(ByteOrder.nativeOrder());
+        }
+
+        void write(int value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.putInt(value);
+        }
+
+        void write(int[] values, int size) throws IOException {
+            for (int offset = 0; offset < size; ) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int count = Math.min(size - offset, buffer.remaining() / Integer.BYTES);
+                // Bulk copy through an int view, then advance the byte position to match
+                buffer.asIntBuffer().put(values, offset, count);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+                offset += count;
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Reads a run written by {@link IntRunWriter}; {@link #value} is valid after
+     * {@link #next()} returned true.
+     */
+    private static final class IntRunReader implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private boolean endOfFile;
+        int value;
+
+        IntRunReader(Path file, int bufferSize) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(bufferSize & -Integer.BYTES).order(ByteOrder.nativeOrder());
+            buffer.flip();
+        }
+
+        boolean next() throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                if (endOfFile || !fill()) {
+                    return false;
+                }
+            }
+            value = buffer.getInt();
+            return true;
+        }
+
+        private boolean fill() throws IOException {
+            buffer.compact();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    endOfFile = true;
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer.remaining() >= Integer.BYTES;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // =====================================================================
+    // Names (Strings)
+    // =====================================================================
+
+    /**
+     * Names are ordered by {@link String#compareTo}, as {@code sorted()} would order them.
+     * They must be valid UTF-16: unpaired surrogates do not survive the UTF-8 run files.
+     * @param input Names to read (consumed sequentially)
+     * @param filter Names to keep, e.g. {@code name -> name.startsWith("A")}
+     * @param output Receives the kept names in ascending order, e.g. a {@link ResultSink}
+     * @return Counters, throughput and memory use of this run
+     */
+    public Report sortNames(Stream<String> input, Predicate<? super String> filter, Consumer<? super String> output) {
+        Run run = new Run();
+        try {
+            NameChunker chunker = new NameChunker(filter, run);
+            input.sequential().forEach(chunker);
+            if (run.files.isEmpty()) {
+                run.buffered(chunker.chunkBytes);
+                chunker.chunk.sort(null);
+                chunker.chunk.forEach(output);
+                run.written = chunker.chunk.size();
+                return run.report();
+            }
+            chunker.spill();
+            chunker.chunk = null;
+            Consumer<String> counting = name -> {
+                run.written++;
+                output.accept(name);
+            };
+            run.merge((group, target) -> {
+                try (DataOutputStream writer = nameWriter(target, run.bufferSize)) {
+                    mergeNames(group, name -> writeName(writer, name), run.bufferSize);
+                }
+            }, group -> mergeNames(group, counting, run.bufferSize));
+            return run.report();
+        } finally {
+            run.deleteFiles();
+        }
+    }
+
+    private final class NameChunker implements Consumer<String> {
+
+        private final Predicate<? super String> filter;
+        private final Run run;
+        List<String> chunk = new ArrayList<>();
+        long chunkBytes;
+
+        NameChunker(Predicate<? super String> filter, Run run) {
+            this.filter = filter;
+            this.run = run;
+        }
+
+        @Override
+        public void accept(String name) {
+            run.read++;
+            if (filter.test(name)) {
+                chunk.add(name);
+                // Budget the chars at 2 bytes, the worst case of compact strings
+                chunkBytes += STRING_OVERHEAD + 2L * name.length();
+                if (chunkBytes >= memoryBudget) {
+                    spill();
+                }
+            }
+        }
+
+        void spill() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            chunk.sort(null);
+            run.buffered(chunkBytes + MIN_MERGE_BUFFER);
+            Path file = run.newFile();
+            try (DataOutputStream writer = nameWriter(file, MIN_MERGE_BUFFER)) {
+                for (String name : chunk) {
+                    writeName(writer, name);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            run.spilled(file);
+            // A new list: clear() would keep the large backing array alive
+            chunk = new ArrayList<>();
+            chunkBytes = 0;
+        }
+    }
+
+    private static DataOutputStream nameWriter(Path file, int bufferSize) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), bufferSize));
+    }
+
+    /** Run format: unsigned LEB128 byte length, then the UTF-8 bytes. */
+    private static void writeName(DataOutputStream writer, String name) {
+        try {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            int length = bytes.length;
+            while ((length & ~0x7F) != 0) {
+                writer.write((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            writer.write(length);
+            writer.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a run of names; {@link #name} is valid after {@link #next()} returned true.
+     */
+    private static final class NameRunReader implements AutoCloseable {
+
+        private final DataInputStream input;
+        String name;
+
+        NameRunReader(Path file, int bufferSize) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), bufferSize));
+        }
+
+        boolean next() throws IOException {
+            int first = input.read();
+            if (first < 0) {
+                return false;
+            }
+            int length = 0;
+            int shift = 0;
+            for (int b = first; ; b = input.readUnsignedByte(), shift += 7) {
+                length |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+                if (shift > 28) {
+                    throw new EOFException("Corrupt name length in run file");
+                }
+            }
+            byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    private static void mergeNames(List<Path> runs, Consumer<String> output, int bufferSize) throws IOException {
+        PriorityQueue<NameRunReader> heap = new PriorityQueue<>(runs.size(),
+                (left, right) -> left.name.compareTo(right.name));
+        List<NameRunReader> readers = new ArrayList<>(runs.size());
+        try {
+            for (Path run : runs) {
+                NameRunReader reader = new NameRunReader(run, bufferSize);
+                readers.add(reader);
+                if (reader.next()) {
+                    heap.add(reader);
+                }
+            }
+            while (!heap.isEmpty()) {
+                NameRunReader smallest = heap.poll();
+                output.accept(smallest.name);
+                if (smallest.next()) {
+                    heap.add(smallest);
+                }
+            }
+        } finally {
+            for (NameRunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    // =====================================================================
+    // Run bookkeeping and multi-pass merging (shared by ints and names)
+    // =====================================================================
+
+    @FunctionalInterface
+    private interface MergeToFile {
+        void merge(List<Path> group, Path target) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface MergeToOutput {
+        void merge(List<Path> runs) throws IOException;
+    }
+
+    /**
+     * State of one sortInts/sortNames call.
+     */
+    private final class Run {
+
+        final long startNanos = System.nanoTime();
+        final long startAllocated = allocatedBytes();
+        final List<Path> files = new ArrayList<>();
+        // Temporary files not yet deleted, including merge outputs
+        final List<Path> undeleted = new ArrayList<>();
+        final int fanIn = (int) Math.max(2, Math.min(MAX_FAN_IN, memoryBudget / MIN_MERGE_BUFFER - 1));
+        final int bufferSize = (int) Math.min(Integer.MAX_VALUE - 8, memoryBudget / (fanIn + 1));
+        long read;
+        long written;
+        int runs;
+        int mergePasses;
+        long spilledBytes;
+        long peakBufferBytes;
+
+        /** Records that {@code bytes} of chunk or merge buffers are held right now. */
+        void buffered(long bytes) {
+            peakBufferBytes = Math.max(peakBufferBytes, bytes);
+        }
+
+        Path newFile() {
+            try {
+                Path file = Files.createTempFile(tempDirectory, "external-sort-", ".run");
+                undeleted.add(file);
+                return file;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void spilled(Path file) {
+            files.add(file);
+            runs++;
+            spilledBytes += sizeOf(file);
+        }
+
+        /**
+         * Merges groups of {@link #fanIn} runs into longer runs until one pass can
+         * merge the rest into the output.
+         */
+        void merge(MergeToFile toFile, MergeToOutput toOutput) {
+            try {
+                List<Path> current = new ArrayList<>(files);
+                while (current.size() > fanIn) {
+                    List<Path> next = new ArrayList<>();
+                    for (int from = 0; from < current.size(); from += fanIn) {
+                        List<Path> group = current.subList(from, Math.min(current.size(), from + fanIn));
+                        if (group.size() == 1) {
+                            next.add(group.get(0));
+                            continue;
+                        }
+                        Path target = newFile();
+                        // A read buffer per input run and one write buffer
+                        buffered((group.size() + 1L) * bufferSize);
+                        toFile.merge(group, target);
+                        spilledBytes += sizeOf(target);
+                        for (Path merged : group) {
+                            delete(merged);
+                        }
+                        next.add(target);
+                    }
+                    current = next;
+                    mergePasses++;
+                }
+                buffered((long) current.size() * bufferSize);
+                toOutput.merge(current);
+                mergePasses++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        Report report() {
+            long allocated = startAllocated < 0 ? -1 : allocatedBytes() - startAllocated;
+            return new Report(read, written, runs, mergePasses, spilledBytes, System.nanoTime() - startNanos,
+                    peakBufferBytes, allocated);
+        }
+
+        void delete(Path file) {
+            try {
+                Files.deleteIfExists(file);
+                undeleted.remove(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void deleteFiles() {
+            for (Path file : List.copyOf(undeleted)) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // Best effort: keep deleting the others
+                }
+            }
+            undeleted.clear();
+        }
+
+        private long sizeOf(Path file) {
+            try {
+                return Files.size(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * The input is consumed and the output fed on the calling thread, so its allocation
+     * counter covers the whole run and nothing from other threads.
+     * @return Bytes allocated by the current thread so far, or -1 if not measured
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) throws IOException {
+        // 50M ints (200 MB) through a 16 MB budget
+        Path input = Files.createTempFile("numbers", ".bin");
+        Path output = Files.createTempFile("sorted", ".txt");
+        SplittableRandom random = new SplittableRandom(42);
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < 50_000_000; i++) {
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    channel.write(buffer);
+                    buffer.clear();
+                }
+                buffer.putInt(random.nextInt());
+            }
+            buffer.flip();
+            channel.write(buffer);
+        }
+
+        ExternalSort sort = withMemoryBudget(16L << 20);
+        Report report;
+        try (IntStream numbers = MappedNumberSource.binaryInts(input, ByteOrder.LITTLE_ENDIAN);
+                ResultSink sink = ResultSink.to(output)) {
+            report = sort.sortInts(numbers, ModernEvenNumbers::isEven, sink);
+        }
+        System.out.println("Even ints:  " + report);
+        try (Stream<String> lines = Files.lines(output)) {
+            int[] previous = {Integer.MIN_VALUE};
+            boolean sorted = lines.mapToInt(Integer::parseInt).allMatch(value -> {
+                boolean ordered = previous[0] <= value;
+                previous[0] = value;
+                return ordered;
+            });
+            System.out.println("  output sorted: " + sorted);
+        }
+
+        // 10M names, keeping those that start with "A" as StreamExample does
+        String[] pool = {"Amit", "Rahul", "Sneha", "Priya", "Atharva", "Pooja", "Ananya", "Vikram", "Arjun", "Riya"};
+        Stream<String> names = Stream.generate(() -> pool[random.nextInt(pool.length)] + random.nextInt(1_000_000))
+                .limit(10_000_000);
+        List<String> first = new ArrayList<>();
+        report = sort.sortNames(names, name -> name.startsWith("A"), name -> {
+            if (first.size() < 3) {
+                first.add(name);
+            }
+        });
+        System.out.println("Names:      " + report);
+        System.out.println("  first names in order: " + first);
+
+        // Small input: fits in the budget, nothing spilled
+        IntList small = new IntList();
+        report = sort.sortInts(IntStream.of(15, 3, 100, 2, 19, 21, -123, -100, 0), LeadingDigitFilter.ONE::test,
+                small::add);
+        System.out.println("In memory:  " + report + " -> " + small);
+
+        Files.delete(input);
+        Files.delete(output);
+    }
+}
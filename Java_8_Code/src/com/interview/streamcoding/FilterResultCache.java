@@ -0,0 +1,286 @@
+package com.interview.streamcoding;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Memoizes filter results per (dataset fingerprint, predicate), within a weight budget.
+ *
+ * <p>Design:
+ * <ul>
+ *   <li><b>No global lock</b>: entries are spread over independent stripes, each an
+ *       access-ordered LRU map with its own lock. Threads only contend when they touch
+ *       the same stripe.</li>
+ *   <li><b>One weight budget</b>: the budget is shared by all stripes, so any result that
+ *       fits the whole budget can be cached, however many stripes there are. A put that
+ *       overflows it evicts from its own stripe first, then from the others, holding one
+ *       stripe lock at a time. Eviction order is LRU per stripe, approximate overall.</li>
+ *   <li><b>TinyLFU admission</b>: every access is counted in a {@link FrequencySketch}.
+ *       When the cache is full, a new result only displaces the first LRU victim if it
+ *       has been asked for at least as often; a one-off query cannot flush popular results.</li>
+ *   <li><b>No stampedes</b>: concurrent misses on the same key share one
+ *       {@link CompletableFuture}; the loader runs once and the others wait for it.</li>
+ *   <li><b>Counters</b>: hits, misses, loads, evictions and admission rejections are
+ *       {@link LongAdder}s, readable through {@link #stats()}.</li>
+ * </ul>
+ *
+ * <p>Cached values are shared between callers and must not be modified; use
+ * immutable results such as {@code List.copyOf(...)}.
+ *
+ * @param <V> Result type
+ */
+public final class FilterResultCache<V> {
+
+    /**
+     * Snapshot of the counters.
+     * @param rejections New results not cached: larger than the whole budget, or less
+     *        popular than the eviction victim
+     */
+    public record Stats(long hits, long misses, long loads, long evictions, long rejections,
+            long weight, int size) {
+
+        /**
+         * @return Fraction of lookups answered from the cache
+         */
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private record Key(DatasetFingerprint dataset, String predicate) {
+    }
+
+    private record Entry<V>(V value, long weight) {
+    }
+
+    private final List<Stripe> stripes;
+    private final int stripeMask;
+    private final long maxWeight;
+    private final AtomicLong totalWeight = new AtomicLong();
+    private final ToLongFunction<? super V> weigher;
+    private final FrequencySketch sketch;
+    private final Map<Key, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * @param maxWeight Total weight budget, in the unit returned by {@code weigher}
+     * @param weigher Weight of a result, e.g. its approximate size in bytes
+     * @param expectedEntries Typical number of cached results (sizes the frequency sketch)
+     */
+    public FilterResultCache(long maxWeight, ToLongFunction<? super V> weigher, int expectedEntries) {
+        if (maxWeight <= 0 || expectedEntries <= 0) {
+            throw new IllegalArgumentException("Weight budget and expected entries must be positive");
+        }
+        // Enough stripes to spread the threads, few enough that each holds several entries
+        int processors = Runtime.getRuntime().availableProcessors();
+        int wanted = Math.min(Math.min(64, processors * 4), expectedEntries / 8);
+        int stripeCount = Integer.highestOneBit(Math.max(1, wanted));
+        List<Stripe> created = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            created.add(new Stripe());
+        }
+        this.stripes = List.copyOf(created);
+        this.stripeMask = stripeCount - 1;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    /**
+     * Returns the cached result, or runs {@code loader} once and caches its result.
+     * @param dataset Dataset version the result belongs to
+     * @param predicate Stable id of the filter, e.g. "startsWithOne"
+     * @param loader Computes the result on a miss (must not return null)
+     * @return Cached or freshly computed result
+     */
+    public V get(DatasetFingerprint dataset, String predicate, Supplier<? extends V> loader) {
+        Key key = new Key(dataset, predicate);
+        int hash = spread(key.hashCode());
+        sketch.increment(hash);
+        Stripe stripe = stripes.get(hash & stripeMask);
+        V cached = stripe.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // Another load may have finished between the lookup and putIfAbsent
+            V value = stripe.get(key);
+            if (value == null) {
+                value = loader.get();
+                if (value == null) {
+                    throw new NullPointerException("Loader returned null for " + key);
+                }
+                loads.increment();
+                put(key, hash, value, weigher.applyAsLong(value));
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    /**
+     * Drops every cached result of a dataset version, e.g. after it was modified in place.
+     * @param dataset Dataset version to forget
+     */
+    public void invalidate(DatasetFingerprint dataset) {
+        for (Stripe stripe : stripes) {
+            stripe.removeIf(dataset);
+        }
+    }
+
+    /**
+     * @return Current counters
+     */
+    public Stats stats() {
+        long weight = 0;
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                weight += stripe.weight;
+                size += stripe.entries.size();
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), loads.sum(), evictions.sum(), rejections.sum(), weight, size);
+    }
+
+    private void put(Key key, int hash, V value, long valueWeight) {
+        if (valueWeight > maxWeight) {
+            rejections.increment();
+            return;
+        }
+        int home = hash & stripeMask;
+        Entry<V> entry = new Entry<>(value, valueWeight);
+        stripes.get(home).put(key, entry);
+        // Make room, own stripe first; the admission check runs against the first victim only
+        boolean[] admitted = new boolean[1];
+        for (int i = 0; i < stripes.size() && totalWeight.get() > maxWeight; i++) {
+            if (!stripes.get((home + i) & stripeMask).evict(key, hash, admitted)) {
+                if (stripes.get(home).remove(key, entry)) {
+                    rejections.increment();
+                }
+                return;
+            }
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ hash >>> 16) * 0x45D9F3B;
+    }
+
+    /**
+     * One LRU segment of the cache, guarded by its own monitor. The weight budget is
+     * global ({@link #totalWeight}); {@code weight} is only this stripe's part of it.
+     */
+    private final class Stripe {
+
+        final Map<Key, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        long weight;
+
+        synchronized V get(Key key) {
+            Entry<V> entry = entries.get(key);
+            return entry == null ? null : entry.value();
+        }
+
+        synchronized void put(Key key, Entry<V> entry) {
+            Entry<V> previous = entries.put(key, entry);
+            long delta = entry.weight() - (previous == null ? 0 : previous.weight());
+            weight += delta;
+            totalWeight.addAndGet(delta);
+        }
+
+        synchronized boolean remove(Key key, Entry<V> entry) {
+            if (!entries.remove(key, entry)) {
+                return false;
+            }
+            weight -= entry.weight();
+            totalWeight.addAndGet(-entry.weight());
+            return true;
+        }
+
+        /**
+         * Evicts LRU entries until the cache fits its budget or this stripe has nothing
+         * left to evict. The newcomer itself is never a victim.
+         * @param admitted Whether the newcomer already passed the admission check; set here when it does
+         * @return false if the newcomer lost the admission check against this stripe's victim
+         */
+        synchronized boolean evict(Key newcomer, int hash, boolean[] admitted) {
+            Iterator<Map.Entry<Key, Entry<V>>> eldest = entries.entrySet().iterator();
+            while (totalWeight.get() > maxWeight && eldest.hasNext()) {
+                Map.Entry<Key, Entry<V>> victim = eldest.next();
+                if (victim.getKey().equals(newcomer)) {
+                    continue;
+                }
+                if (!admitted[0]) {
+                    // TinyLFU: keep the victim if it is more popular than the newcomer
+                    int victimHash = spread(victim.getKey().hashCode());
+                    if (sketch.frequency(victimHash) > sketch.frequency(hash)) {
+                        return false;
+                    }
+                    admitted[0] = true;
+                }
+                long victimWeight = victim.getValue().weight();
+                eldest.remove();
+                weight -= victimWeight;
+                totalWeight.addAndGet(-victimWeight);
+                evictions.increment();
+            }
+            return true;
+        }
+
+        synchronized void removeIf(DatasetFingerprint dataset) {
+            Iterator<Map.Entry<Key, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Key, Entry<V>> entry = iterator.next();
+                if (entry.getKey().dataset().equals(dataset)) {
+                    weight -= entry.getValue().weight();
+                    totalWeight.addAndGet(-entry.getValue().weight());
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+}
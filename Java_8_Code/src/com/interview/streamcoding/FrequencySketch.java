@@ -0,0 +1,97 @@
+package com.interview.streamcoding;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Approximate access counts for the TinyLFU admission check of {@link FilterResultCache}.
+ *
+ * <p>Count-min sketch with four 4-bit counters per key, packed 16 to a long. Once
+ * the number of recorded accesses reaches ten times the table size, every counter is
+ * halved, so old popularity fades away.
+ *
+ * <p>Lock-free: counters are updated with a compare-and-set on their 64-bit word, so
+ * a counter at 15 is never incremented into its neighbour. The sample counter that
+ * triggers the halving is a plain field; under contention a halving may come a little
+ * early or late (or twice), which only ages the estimates differently.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final VarHandle TABLE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param expectedEntries Roughly how many entries the cache holds
+     */
+    FrequencySketch(int expectedEntries) {
+        int size = Integer.highestOneBit(Math.max(16, expectedEntries) * 2 - 1);
+        this.table = new long[size];
+        this.mask = size - 1;
+        this.sampleSize = 10 * size;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(indexOf(hash, i), counterShift(hash, i));
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int shift) {
+        long current = (long) TABLE.getOpaque(table, index);
+        while ((current >>> shift & 15) < 15) {
+            long witness = (long) TABLE.compareAndExchange(table, index, current, current + (1L << shift));
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+        return false;
+    }
+
+    /**
+     * @return Estimated number of recent accesses, at most 15
+     */
+    int frequency(int hash) {
+        int frequency = 15;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long word = (long) TABLE.getOpaque(table, indexOf(hash, i));
+            frequency = Math.min(frequency, (int) (word >>> counterShift(hash, i) & 15));
+        }
+        return frequency;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            long current = (long) TABLE.getOpaque(table, i);
+            long witness;
+            // Halving every nibble at once cannot carry; retry only if an increment raced in
+            while ((witness = (long) TABLE.compareAndExchange(table, i, current, current >>> 1 & RESET_MASK)) != current) {
+                current = witness;
+            }
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    private static int counterShift(int hash, int row) {
+        // Each row uses a different nibble of the 64-bit word
+        return ((hash >>> (row << 3)) & 15) << 2;
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.interview.streamcoding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Object version of {@link FusedIntFilter}, e.g. for the name filters of
+ * {@code StreamExample} ({@code startsWith}) and {@code WithoutLambda} ({@code contains}):
+ * <pre>
+ * FusedFilter.Plan&lt;String&gt; plan = FusedFilter
+ *         .&lt;String&gt;where("contains 'a'", name -&gt; name.contains("a"))
+ *         .and("startsWith 'A'", name -&gt; name.startsWith("A"))
+ *         .plan(names);
+ * List&lt;String&gt; result = plan.filter(names);
+ * </pre>
+ *
+ * @param <T> Element type
+ */
+public final class FusedFilter<T> {
+
+    private final List<String> names;
+    private final List<Predicate<? super T>> predicates;
+
+    private FusedFilter(List<String> names, List<Predicate<? super T>> predicates) {
+        this.names = names;
+        this.predicates = predicates;
+    }
+
+    /**
+     * @param name Name shown in {@link Plan#explain()}
+     * @param predicate First predicate of the conjunction
+     * @return Filter with one predicate
+     */
+    public static <T> FusedFilter<T> where(String name, Predicate<? super T> predicate) {
+        return new FusedFilter<>(List.of(name), List.of(predicate));
+    }
+
+    /**
+     * @param name Name shown in {@link Plan#explain()}
+     * @param predicate Predicate that must also hold
+     * @return New filter with {@code predicate} added (this one is unchanged)
+     */
+    public FusedFilter<T> and(String name, Predicate<? super T> predicate) {
+        List<String> newNames = new ArrayList<>(names);
+        List<Predicate<? super T>> newPredicates = new ArrayList<>(predicates);
+        newNames.add(name);
+        newPredicates.add(predicate);
+        return new FusedFilter<T>(List.copyOf(newNames), List.<Predicate<? super T>>copyOf(newPredicates));
+    }
+
+    /**
+     * @param sample Data (or a representative part of it) to estimate costs and pass rates on;
+     *        a random-access list is expected
+     * @return Plan with the predicates in the cheapest order
+     */
+    public Plan<T> plan(List<? extends T> sample) {
+        return plan(sample, PlanStatistics.DEFAULT_SAMPLE_SIZE);
+    }
+
+    /**
+     * @param sample Data to estimate costs and pass rates on
+     * @param sampleSize Maximum number of elements probed
+     * @return Plan with the predicates in the cheapest order
+     */
+    public Plan<T> plan(List<? extends T> sample, int sampleSize) {
+        if (sampleSize <= 0) {
+            throw new IllegalArgumentException("Sample size must be positive: " + sampleSize);
+        }
+        PlanStatistics statistics = PlanStatistics.sample(names.toArray(new String[0]), sample.size(), sampleSize,
+                (predicate, row) -> predicates.get(predicate).test(sample.get(row)));
+        List<Predicate<? super T>> ordered = new ArrayList<>();
+        for (int index : statistics.order()) {
+            ordered.add(predicates.get(index));
+        }
+        return new Plan<T>(List.<Predicate<? super T>>copyOf(ordered), statistics);
+    }
+
+    /**
+     * Predicates in execution order, with estimated and actual pass rates. Thread-safe.
+     *
+     * @param <T> Element type
+     */
+    public static final class Plan<T> {
+
+        private final List<Predicate<? super T>> steps;
+        private final PlanStatistics statistics;
+
+        private Plan(List<Predicate<? super T>> steps, PlanStatistics statistics) {
+            this.steps = steps;
+            this.statistics = statistics;
+        }
+
+        /**
+         * @param elements Elements to filter
+         * @return Unmodifiable list of the elements passing every predicate, in their original order
+         */
+        public List<T> filter(Iterable<? extends T> elements) {
+            List<T> out = new ArrayList<>();
+            run(elements, out);
+            return List.copyOf(out);
+        }
+
+        /**
+         * @param elements Elements to filter
+         * @return Number of elements passing every predicate
+         */
+        public long count(Iterable<? extends T> elements) {
+            return run(elements, null);
+        }
+
+        /**
+         * For use in an existing pipeline: {@code stream.filter(plan.asPredicate())}.
+         * Runs in plan order but does not update the actual pass rates.
+         * @return The fused predicate
+         */
+        public Predicate<T> asPredicate() {
+            List<Predicate<? super T>> local = steps;
+            return element -> {
+                for (Predicate<? super T> step : local) {
+                    if (!step.test(element)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+
+        /**
+         * @return Chosen order with estimated and actual pass rates
+         */
+        public String explain() {
+            return statistics.explain();
+        }
+
+        @Override
+        public String toString() {
+            return explain();
+        }
+
+        private long run(Iterable<? extends T> elements, List<T> out) {
+            List<Predicate<? super T>> local = steps;
+            int stepCount = local.size();
+            long[] reached = new long[stepCount + 1];
+            long count = 0;
+            next:
+            for (T element : elements) {
+                for (int step = 0; step < stepCount; step++) {
+                    reached[step]++;
+                    if (!local.get(step).test(element)) {
+                        continue next;
+                    }
+                }
+                if (out != null) {
+                    out.add(element);
+                }
+                count++;
+            }
+            reached[stepCount] = count;
+            statistics.record(reached);
+            return count;
+        }
+    }
+
+    public static void main(String[] args) {
+        List<String> pool = List.of("Amit", "Rahul", "Sneha", "Priya", "Atharva", "Pooja", "Ananya", "Vikram");
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            names.add(pool.get(i % pool.size()) + i);
+        }
+
+        // Written as in WithoutLambda (contains) then StreamExample (startsWith)
+        Plan<String> plan = FusedFilter
+                .<String>where("contains \"ya\"", name -> name.contains("ya"))
+                .and("startsWith \"A\"", name -> name.startsWith("A"))
+                .and("length <= 9", name -> name.length() <= 9)
+                .plan(names);
+        List<String> result = plan.filter(names);
+        System.out.println("Matches: " + result.size() + ", first: " + result.subList(0, 3));
+        System.out.println(plan.explain());
+    }
+}
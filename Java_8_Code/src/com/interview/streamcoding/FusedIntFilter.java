@@ -0,0 +1,213 @@
+package com.interview.streamcoding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * Conjunction of int predicates, evaluated in one pass in the cheapest order.
+ *
+ * <p>Jobs usually chain the predicates of this package as separate filters, in the
+ * order they were written:
+ * <pre>
+ * Arrays.stream(data).filter(ModernEvenNumbers::isEven).filter(LeadingDigitFilter.ONE::test)
+ * </pre>
+ * Here the predicates are declared once and {@link #plan(int[])} samples the data to
+ * measure the cost and pass rate of each, then orders them so that cheap predicates
+ * that reject many values run first (see {@link PlanStatistics}):
+ * <pre>
+ * FusedIntFilter.Plan plan = FusedIntFilter
+ *         .where("isEven", ModernEvenNumbers::isEven)
+ *         .and("startsWithOne", LeadingDigitFilter.ONE::test)
+ *         .plan(data);
+ * int[] result = plan.filter(data);
+ * System.out.println(plan.explain());
+ * </pre>
+ */
+public final class FusedIntFilter {
+
+    private final List<String> names;
+    private final List<IntPredicate> predicates;
+
+    private FusedIntFilter(List<String> names, List<IntPredicate> predicates) {
+        this.names = names;
+        this.predicates = predicates;
+    }
+
+    /**
+     * @param name Name shown in {@link Plan#explain()}
+     * @param predicate First predicate of the conjunction
+     * @return Filter with one predicate
+     */
+    public static FusedIntFilter where(String name, IntPredicate predicate) {
+        return new FusedIntFilter(List.of(name), List.of(predicate));
+    }
+
+    /**
+     * @param name Name shown in {@link Plan#explain()}
+     * @param predicate Predicate that must also hold
+     * @return New filter with {@code predicate} added (this one is unchanged)
+     */
+    public FusedIntFilter and(String name, IntPredicate predicate) {
+        List<String> newNames = new ArrayList<>(names);
+        List<IntPredicate> newPredicates = new ArrayList<>(predicates);
+        newNames.add(name);
+        newPredicates.add(predicate);
+        return new FusedIntFilter(List.copyOf(newNames), List.copyOf(newPredicates));
+    }
+
+    /**
+     * @param sample Data (or a representative part of it) to estimate costs and pass rates on
+     * @return Plan with the predicates in the cheapest order
+     */
+    public Plan plan(int[] sample) {
+        return plan(sample, PlanStatistics.DEFAULT_SAMPLE_SIZE);
+    }
+
+    /**
+     * @param sample Data to estimate costs and pass rates on
+     * @param sampleSize Maximum number of values probed
+     * @return Plan with the predicates in the cheapest order
+     */
+    public Plan plan(int[] sample, int sampleSize) {
+        if (sampleSize <= 0) {
+            throw new IllegalArgumentException("Sample size must be positive: " + sampleSize);
+        }
+        IntPredicate[] declared = predicates.toArray(new IntPredicate[0]);
+        PlanStatistics statistics = PlanStatistics.sample(names.toArray(new String[0]), sample.length, sampleSize,
+                (predicate, row) -> declared[predicate].test(sample[row]));
+        int[] order = statistics.order();
+        IntPredicate[] ordered = new IntPredicate[order.length];
+        for (int step = 0; step < order.length; step++) {
+            ordered[step] = declared[order[step]];
+        }
+        return new Plan(ordered, statistics);
+    }
+
+    /**
+     * Predicates in execution order, with the estimates they were chosen by and the
+     * pass rates observed while running. Thread-safe.
+     */
+    public static final class Plan {
+
+        private final IntPredicate[] steps;
+        private final PlanStatistics statistics;
+
+        private Plan(IntPredicate[] steps, PlanStatistics statistics) {
+            this.steps = steps;
+            this.statistics = statistics;
+        }
+
+        /**
+         * @param values Values to filter
+         * @return Values passing every predicate, in their original order
+         */
+        public int[] filter(int[] values) {
+            int[] out = new int[values.length];
+            return Arrays.copyOf(out, run(values, out));
+        }
+
+        /**
+         * @param values Values to filter
+         * @return Number of values passing every predicate
+         */
+        public int count(int[] values) {
+            return run(values, null);
+        }
+
+        /**
+         * For use in an existing pipeline: {@code stream.filter(plan.asPredicate())}.
+         * Runs in plan order but does not update the actual pass rates.
+         * @return The fused predicate
+         */
+        public IntPredicate asPredicate() {
+            IntPredicate[] local = steps;
+            return value -> {
+                for (IntPredicate step : local) {
+                    if (!step.test(value)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+
+        /**
+         * @return Chosen order with estimated and actual pass rates
+         */
+        public String explain() {
+            return statistics.explain();
+        }
+
+        @Override
+        public String toString() {
+            return explain();
+        }
+
+        private int run(int[] values, int[] out) {
+            IntPredicate[] local = steps;
+            // reached[i]: values that got to step i; reached[steps] = output
+            long[] reached = new long[local.length + 1];
+            int count = 0;
+            next:
+            for (int value : values) {
+                for (int step = 0; step < local.length; step++) {
+                    reached[step]++;
+                    if (!local[step].test(value)) {
+                        continue next;
+                    }
+                }
+                if (out != null) {
+                    out[count] = value;
+                }
+                count++;
+            }
+            reached[local.length] = count;
+            statistics.record(reached);
+            return count;
+        }
+    }
+
+    /** Deliberately slow predicate, standing in for a costly business rule. */
+    private static boolean isPrimeLike(int value) {
+        int n = Math.abs(value % 100_000);
+        for (int d = 2; (long) d * d <= n; d++) {
+            if (n % d == 0) {
+                return false;
+            }
+        }
+        return n > 1;
+    }
+
+    public static void main(String[] args) {
+        int[] data = new SplittableRandom(42).ints(5_000_000, -1_000_000, 1_000_000).toArray();
+
+        // Declared in the "natural" order: the expensive check first
+        FusedIntFilter filter = FusedIntFilter
+                .where("primeLike", FusedIntFilter::isPrimeLike)
+                .and("isEven", ModernEvenNumbers::isEven)
+                .and("startsWithOne", LeadingDigitFilter.ONE::test);
+
+        long start = System.nanoTime();
+        long chained = Arrays.stream(data)
+                .filter(FusedIntFilter::isPrimeLike)
+                .filter(ModernEvenNumbers::isEven)
+                .filter(LeadingDigitFilter.ONE::test)
+                .count();
+        long chainedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        FusedIntFilter.Plan plan = filter.plan(data);
+        int fused = plan.count(data);
+        long fusedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Chained filters: %d matches in %d ms; fused plan: %d matches in %d ms%n",
+                chained, chainedMillis, fused, fusedMillis);
+        System.out.println(plan.explain());
+
+        // The plan can also be dropped into an existing pipeline
+        System.out.println("Via asPredicate(): " + Arrays.stream(data).filter(plan.asPredicate()).count());
+    }
+}
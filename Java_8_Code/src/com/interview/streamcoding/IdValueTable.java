@@ -0,0 +1,187 @@
+package com.interview.streamcoding;
+
+import java.util.Arrays;
+
+/**
+ * Elements of a {@link LiveNumbers} source or view: (id, value) pairs in append
+ * order, with O(1) append, lookup and removal by id.
+ *
+ * <p>Slots are kept in append order; removal marks the slot dead and deletes the id
+ * from an open-addressing index (linear probing, backward-shift deletion, so no
+ * tombstones). Once more than half of the slots are dead they are compacted, which is
+ * O(1) amortized per removal. Not thread-safe; {@link LiveNumbers} holds the lock.
+ */
+final class IdValueTable {
+
+    private static final long DEAD = -1;
+
+    // Slots in append order; ids[slot] == DEAD for removed elements
+    private long[] ids = new long[16];
+    private int[] values = new int[16];
+    private int end;
+    private int live;
+
+    // Index: keys hold id + 1 (0 = empty), slotOf holds the slot of that id
+    private long[] keys = new long[32];
+    private int[] slotOf = new int[32];
+
+    int size() {
+        return live;
+    }
+
+    boolean contains(long id) {
+        return find(id) >= 0;
+    }
+
+    void add(long id, int value) {
+        if (end == ids.length) {
+            if (live < end / 2) {
+                compact();
+            } else {
+                ids = Arrays.copyOf(ids, end * 2);
+                values = Arrays.copyOf(values, end * 2);
+            }
+        }
+        ids[end] = id;
+        values[end] = value;
+        insert(id, end++);
+        live++;
+    }
+
+    /**
+     * @return true if the id was present
+     */
+    boolean remove(long id) {
+        int position = find(id);
+        if (position < 0) {
+            return false;
+        }
+        int slot = slotOf[position];
+        ids[slot] = DEAD;
+        deleteAt(position);
+        live--;
+        if (live < end / 2 && end > 64) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * @param id Element id
+     * @return The element's value; only valid if {@link #contains} is true
+     */
+    int valueOf(long id) {
+        int position = find(id);
+        return position < 0 ? 0 : values[slotOf[position]];
+    }
+
+    long[] ids() {
+        long[] result = new long[live];
+        int count = 0;
+        for (int slot = 0; slot < end; slot++) {
+            if (ids[slot] != DEAD) {
+                result[count++] = ids[slot];
+            }
+        }
+        return result;
+    }
+
+    int[] values() {
+        int[] result = new int[live];
+        int count = 0;
+        for (int slot = 0; slot < end; slot++) {
+            if (ids[slot] != DEAD) {
+                result[count++] = values[slot];
+            }
+        }
+        return result;
+    }
+
+    // =====================================================================
+    // Slots
+    // =====================================================================
+
+    private void compact() {
+        int write = 0;
+        for (int slot = 0; slot < end; slot++) {
+            if (ids[slot] != DEAD) {
+                ids[write] = ids[slot];
+                values[write] = values[slot];
+                write++;
+            }
+        }
+        end = write;
+        Arrays.fill(keys, 0);
+        for (int slot = 0; slot < end; slot++) {
+            insert(ids[slot], slot);
+        }
+    }
+
+    // =====================================================================
+    // Index (linear probing)
+    // =====================================================================
+
+    private int home(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32) & (keys.length - 1);
+    }
+
+    private int find(long id) {
+        long key = id + 1;
+        int mask = keys.length - 1;
+        for (int position = home(id); keys[position] != 0; position = position + 1 & mask) {
+            if (keys[position] == key) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long id, int slot) {
+        if (2 * (live + 1) > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int position = home(id);
+        while (keys[position] != 0) {
+            position = position + 1 & mask;
+        }
+        keys[position] = id + 1;
+        slotOf[position] = slot;
+    }
+
+    /** Backward-shift deletion: moves later entries of the probe chain into the gap. */
+    private void deleteAt(int position) {
+        int mask = keys.length - 1;
+        int gap = position;
+        for (int next = gap + 1 & mask; keys[next] != 0; next = next + 1 & mask) {
+            int home = home(keys[next] - 1);
+            // The entry may move into the gap only if its home is not between gap and next
+            if ((next - home & mask) >= (next - gap & mask)) {
+                keys[gap] = keys[next];
+                slotOf[gap] = slotOf[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldSlots = slotOf;
+        keys = new long[oldKeys.length * 2];
+        slotOf = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int position = home(oldKeys[i] - 1);
+                while (keys[position] != 0) {
+                    position = position + 1 & mask;
+                }
+                keys[position] = oldKeys[i];
+                slotOf[position] = oldSlots[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,348 @@
+package com.interview.streamcoding;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Growable list of primitive ints, the unboxed counterpart of {@code ArrayList<Integer>}.
+ *
+ * <p>A {@code List<Integer>} result costs a 4-8 byte reference plus a 16 byte
+ * {@code Integer} per element (values outside the -128..127 cache are separate
+ * objects); an {@code IntList} stores 4 bytes per element in one array.
+ *
+ * <p>Collecting from an {@code IntStream} stays primitive:
+ * <pre>
+ * IntList evens = IntList.collect(Arrays.stream(data).filter(ModernEvenNumbers::isEven));
+ * // or, inside a pipeline
+ * IntList evens = stream.collect(IntList::new, IntList::add, IntList::addAll);
+ * </pre>
+ * Callers that need the boxed interface can use {@link #asList()}, a read-only view
+ * that boxes on access instead of up front.
+ *
+ * <p>Not thread-safe.
+ */
+public final class IntList {
+
+    private static final int[] EMPTY = {};
+    private static final int DEFAULT_CAPACITY = 10;
+    // Some VMs reserve header words in arrays
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] elements;
+    private int size;
+
+    public IntList() {
+        this.elements = EMPTY;
+    }
+
+    /**
+     * @param capacity Number of elements that fit before the first resize
+     */
+    public IntList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.elements = capacity == 0 ? EMPTY : new int[capacity];
+    }
+
+    // Adopts the first size elements of the array without copying
+    private IntList(int[] elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    /**
+     * @param values Initial elements (copied)
+     * @return New list holding {@code values}
+     */
+    public static IntList of(int... values) {
+        return new IntList(values.clone(), values.length);
+    }
+
+    /**
+     * Takes ownership of a buffer filled by one of the {@code filter(int[], int[])}
+     * methods of this package, e.g. {@link ParallelEvenFilter#filter(int[], int[])}.
+     * The caller must not use the array afterwards.
+     * @param buffer Array whose first {@code size} entries become the list
+     * @param size Number of valid entries
+     * @return List backed by {@code buffer}
+     */
+    public static IntList wrap(int[] buffer, int size) {
+        if (size < 0 || size > buffer.length) {
+            throw new IllegalArgumentException("Size " + size + " outside 0.." + buffer.length);
+        }
+        return new IntList(buffer, size);
+    }
+
+    /**
+     * @param values Stream to drain; parallel streams are merged in encounter order
+     * @return New list with the stream's elements
+     */
+    public static IntList collect(IntStream values) {
+        return values.collect(IntList::new, IntList::add, IntList::addAll);
+    }
+
+    /**
+     * @return Number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index Position, 0 to {@code size() - 1}
+     * @return Element at {@code index}
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * @param index Position, 0 to {@code size() - 1}
+     * @param value New element
+     * @return Previous element at {@code index}
+     */
+    public int set(int index, int value) {
+        checkIndex(index);
+        int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    /**
+     * @param value Element to append
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * @param values Elements to append, with a single resize and copy
+     */
+    public void addAll(int[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    /**
+     * @param values Source array
+     * @param from First index to append (inclusive)
+     * @param to Last index to append (exclusive)
+     */
+    public void addAll(int[] values, int from, int to) {
+        if (from < 0 || to > values.length || from > to) {
+            throw new IndexOutOfBoundsException("Range " + from + ".." + to + " outside 0.." + values.length);
+        }
+        int count = to - from;
+        if (size + count > elements.length) {
+            grow(size + count);
+        }
+        System.arraycopy(values, from, elements, size, count);
+        size += count;
+    }
+
+    /**
+     * @param other List whose elements are appended (may be this list)
+     */
+    public void addAll(IntList other) {
+        addAll(other.elements, 0, other.size);
+    }
+
+    /**
+     * Removes every element; the capacity is kept for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sorts the elements in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    /**
+     * Sorts large lists with {@link Arrays#parallelSort(int[], int, int)}.
+     */
+    public void parallelSort() {
+        Arrays.parallelSort(elements, 0, size);
+    }
+
+    /**
+     * The list must be sorted (see {@link #sort()}).
+     * @param value Element to find
+     * @return Index of {@code value}, or {@code -(insertion point) - 1} if absent,
+     *         as in {@link Arrays#binarySearch(int[], int)}
+     */
+    public int binarySearch(int value) {
+        return Arrays.binarySearch(elements, 0, size, value);
+    }
+
+    /**
+     * Linear search, for unsorted lists.
+     * @param value Element to find
+     * @return Index of the first occurrence, or -1
+     */
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * @return Copy of the elements
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * @return Stream over the elements; the list must not change while it runs
+     */
+    public IntStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    /**
+     * Shrinks the backing array to the current size, e.g. before keeping a large
+     * result for a long time.
+     */
+    public void trimToSize() {
+        if (elements.length > size) {
+            elements = size == 0 ? EMPTY : Arrays.copyOf(elements, size);
+        }
+    }
+
+    /**
+     * Live, read-only {@code List<Integer>} view: it reflects later changes to this
+     * list, boxes each element when it is read, and throws
+     * {@code UnsupportedOperationException} on modification.
+     * @return Boxed view for APIs that need a {@code List<Integer>}
+     */
+    public List<Integer> asList() {
+        return new BoxedView();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IntList other) || other.size != size) {
+            return false;
+        }
+        return Arrays.equals(elements, 0, size, other.elements, 0, size);
+    }
+
+    /**
+     * Same value as {@code asList().hashCode()}.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + elements[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(elements[i]);
+        }
+        return text.append(']').toString();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " outside 0.." + (size - 1));
+        }
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("IntList cannot hold " + Integer.toUnsignedString(minCapacity) + " elements");
+        }
+        // Grow by half, as ArrayList does
+        long wanted = Math.max((long) elements.length + (elements.length >> 1), DEFAULT_CAPACITY);
+        elements = Arrays.copyOf(elements, (int) Math.min(MAX_CAPACITY, Math.max(wanted, minCapacity)));
+    }
+
+    private final class BoxedView extends AbstractList<Integer> implements RandomAccess {
+
+        @Override
+        public Integer get(int index) {
+            return IntList.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer value && IntList.this.contains(value);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return o instanceof Integer value ? IntList.this.indexOf(value) : -1;
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) {
+        int[] data = new SplittableRandom(42).ints(20_000_000, -1_000_000, 1_000_000).toArray();
+
+        // Same filter, boxed and primitive; heap retained by each result after a GC
+        long before = usedHeapAfterGc();
+        List<Integer> boxed = Arrays.stream(data).boxed().filter(ModernEvenNumbers::isEven).toList();
+        long boxedBytes = usedHeapAfterGc() - before;
+        before = usedHeapAfterGc();
+        IntList primitive = ModernEvenNumbers.evenNumbers(data);
+        primitive.trimToSize();
+        long primitiveBytes = usedHeapAfterGc() - before;
+        System.out.printf("%d even values retain: List<Integer> ~%d MB, IntList ~%d MB%n",
+                primitive.size(), boxedBytes >> 20, primitiveBytes >> 20);
+        System.out.println("Same elements: " + primitive.asList().equals(boxed));
+
+        IntList ones = StreamApproachMethodCalling.findNumbersStartingWithOne(data);
+        ones.sort();
+        System.out.println("Numbers starting with 1: " + ones.size() + ", index of 100000 after sort: "
+                + ones.binarySearch(100_000));
+
+        IntList small = IntList.of(15, 3, 100, 2, 19, 21, -123, -100, 0);
+        small.addAll(new int[] {1, 10});
+        System.out.println("Small list: " + small + ", as List<Integer>: " + small.asList());
+    }
+}
@@ -0,0 +1,279 @@
+package com.interview.streamcoding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Allocation-free engine for "does this number start with digit(s) X?" checks.
+ *
+ * <p>The string based versions ({@code String.valueOf(Math.abs(num)).startsWith("1")})
+ * create a new String for every element, and {@code Math.abs(Integer.MIN_VALUE)} is
+ * still negative, so the minimum value is classified by its '-' sign instead of its
+ * first digit. This class does the same check with plain arithmetic.
+ *
+ * <p>Key characteristics:
+ * <ul>
+ *   <li>Works on int and long values, arrays and primitive streams</li>
+ *   <li>Accepts a single digit (1-9) or a multi-digit prefix such as "12"</li>
+ *   <li>Sign is ignored: -123 starts with "1" just like 123</li>
+ *   <li>No objects are created per element (the value is reduced in negative
+ *       space, so {@code Long.MIN_VALUE} never overflows)</li>
+ * </ul>
+ */
+public final class LeadingDigitFilter {
+
+    /** Shared filter for the most common question: "starts with 1". */
+    public static final LeadingDigitFilter ONE = of(1);
+
+    /** Longest supported prefix; 10^18 is the largest power of ten that fits in a long. */
+    private static final int MAX_PREFIX_DIGITS = 18;
+
+    // Prefix kept as a negative number so it can be compared in negative space
+    private final long negativePrefix;
+    // -(10^prefixDigits): values at or below this still have too many digits
+    private final long negativeLimit;
+    private final String prefix;
+
+    private LeadingDigitFilter(long prefix, int prefixDigits, String text) {
+        long limit = 1;
+        for (int i = 0; i < prefixDigits; i++) {
+            limit *= 10;
+        }
+        this.negativePrefix = -prefix;
+        this.negativeLimit = -limit;
+        this.prefix = text;
+    }
+
+    /**
+     * Creates a filter for a single leading digit.
+     * @param digit Digit between 0 and 9 (0 only matches the number 0)
+     * @return Filter matching numbers whose absolute value starts with {@code digit}
+     */
+    public static LeadingDigitFilter of(int digit) {
+        if (digit < 0 || digit > 9) {
+            throw new IllegalArgumentException("Digit must be between 0 and 9: " + digit);
+        }
+        return new LeadingDigitFilter(digit, 1, String.valueOf(digit));
+    }
+
+    /**
+     * Creates a filter for a digit prefix such as "1" or "12".
+     * @param prefix Decimal digits without sign or leading zeros (up to 18 digits)
+     * @return Filter matching numbers whose absolute value starts with {@code prefix}
+     */
+    public static LeadingDigitFilter of(String prefix) {
+        if (prefix == null || prefix.isEmpty() || prefix.length() > MAX_PREFIX_DIGITS) {
+            throw new IllegalArgumentException("Prefix must have 1 to " + MAX_PREFIX_DIGITS + " digits: " + prefix);
+        }
+        if (prefix.length() > 1 && prefix.charAt(0) == '0') {
+            throw new IllegalArgumentException("Prefix must not have leading zeros: " + prefix);
+        }
+        long value = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Prefix must only contain digits: " + prefix);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return new LeadingDigitFilter(value, prefix.length(), prefix);
+    }
+
+    // =====================================================================
+    // Single value checks
+    // =====================================================================
+
+    /**
+     * Checks whether the absolute value of {@code value} starts with this prefix.
+     * @param value Number to check (sign is ignored)
+     * @return true if the decimal digits of |value| start with the prefix
+     */
+    public boolean test(int value) {
+        return test((long) value);
+    }
+
+    /**
+     * Checks whether the absolute value of {@code value} starts with this prefix.
+     * @param value Number to check (sign is ignored)
+     * @return true if the decimal digits of |value| start with the prefix
+     */
+    public boolean test(long value) {
+        /*
+         * Work with the negative magnitude: -Long.MIN_VALUE overflows,
+         * but every positive long has a negative counterpart.
+         * Drop trailing digits until only as many digits as the prefix remain,
+         * then the number matches if what is left equals the prefix.
+         */
+        long n = value > 0 ? -value : value;
+        while (n <= negativeLimit) {
+            n /= 10;
+        }
+        return n == negativePrefix;
+    }
+
+    // =====================================================================
+    // Bulk operations on primitive arrays
+    // =====================================================================
+
+    /**
+     * Counts matching values without materializing a result.
+     * @param values Values to check
+     * @return Number of values starting with the prefix
+     */
+    public int count(int[] values) {
+        int count = 0;
+        for (int value : values) {
+            if (test(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts matching values without materializing a result.
+     * @param values Values to check
+     * @return Number of values starting with the prefix
+     */
+    public int count(long[] values) {
+        int count = 0;
+        for (long value : values) {
+            if (test(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copies matching values into a caller supplied buffer, so repeated calls
+     * can reuse the same output array.
+     * @param values Values to check
+     * @param out Output buffer, must be at least as long as {@code values}
+     * @return Number of matches written to the start of {@code out}
+     */
+    public int filterInto(int[] values, int[] out) {
+        if (out.length < values.length) {
+            throw new IllegalArgumentException("Output buffer is smaller than the input");
+        }
+        int size = 0;
+        for (int value : values) {
+            if (test(value)) {
+                out[size++] = value;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Copies matching values into a caller supplied buffer, so repeated calls
+     * can reuse the same output array.
+     * @param values Values to check
+     * @param out Output buffer, must be at least as long as {@code values}
+     * @return Number of matches written to the start of {@code out}
+     */
+    public int filterInto(long[] values, long[] out) {
+        if (out.length < values.length) {
+            throw new IllegalArgumentException("Output buffer is smaller than the input");
+        }
+        int size = 0;
+        for (long value : values) {
+            if (test(value)) {
+                out[size++] = value;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the matching values in their original order.
+     * Counts first, so exactly one result array of the right size is created.
+     * @param values Values to check
+     * @return New array with the matching values
+     */
+    public int[] filter(int[] values) {
+        int[] result = new int[count(values)];
+        int size = 0;
+        for (int value : values) {
+            if (test(value)) {
+                result[size++] = value;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the matching values in their original order.
+     * Counts first, so exactly one result array of the right size is created.
+     * @param values Values to check
+     * @return New array with the matching values
+     */
+    public long[] filter(long[] values) {
+        long[] result = new long[count(values)];
+        int size = 0;
+        for (long value : values) {
+            if (test(value)) {
+                result[size++] = value;
+            }
+        }
+        return result;
+    }
+
+    // =====================================================================
+    // Stream adapters
+    // =====================================================================
+
+    /**
+     * @param numbers Primitive stream to filter (stays unboxed)
+     * @return Stream with only the matching values
+     */
+    public IntStream filter(IntStream numbers) {
+        return numbers.filter(this::test);
+    }
+
+    /**
+     * @param numbers Primitive stream to filter (stays unboxed)
+     * @return Stream with only the matching values
+     */
+    public LongStream filter(LongStream numbers) {
+        return numbers.filter(this::test);
+    }
+
+    /**
+     * Boxed variant kept for callers that already hold a {@code List<Integer>}.
+     * @param numbers List of integers to process
+     * @return Mutable list of the matching integers
+     */
+    public List<Integer> filter(List<Integer> numbers) {
+        List<Integer> result = new ArrayList<>();
+        for (Integer num : numbers) {
+            if (test(num.intValue())) {
+                result.add(num);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "LeadingDigitFilter[" + prefix + "]";
+    }
+
+    public static void main(String[] args) {
+        int[] numbers = {15, 3, 100, 2, 19, 21, -123, -100, 0, Integer.MIN_VALUE, 1234, -12};
+
+        System.out.println("Starts with 1: " + Arrays.toString(ONE.filter(numbers)));
+        System.out.println("Starts with 12: " + Arrays.toString(of("12").filter(numbers)));
+        // Integer.MIN_VALUE = -2147483648, so it starts with 2
+        System.out.println("Starts with 2: " + Arrays.toString(of(2).filter(numbers)));
+        System.out.println("Count starting with 1: " + ONE.count(numbers));
+
+        long[] big = {Long.MIN_VALUE, Long.MAX_VALUE, 1_000_000_000_000L};
+        // Long.MIN_VALUE = -9223372036854775808, so it starts with 9
+        System.out.println("Long values starting with 9: " + Arrays.toString(of(9).filter(big)));
+        System.out.println("Stream starting with 1: " + ONE.filter(IntStream.rangeClosed(1, 20)).boxed().toList());
+    }
+}
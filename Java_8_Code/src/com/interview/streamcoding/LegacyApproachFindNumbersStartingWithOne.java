@@ -47,8 +47,12 @@ public class LegacyApproachFindNumbersStartingWithOne {
 			 */
         	// OR
         	// Convert number to string and check first character
-            String numStr = Math.abs(num) + ""; // Handle negative numbers
-            if (numStr.charAt(0) == '1') {
+			/*
+			 * String numStr = Math.abs(num) + ""; // Handle negative numbers
+			 * if (numStr.charAt(0) == '1') { result.add(num); }
+			 */
+        	// OR (no String per element, and Integer.MIN_VALUE is handled)
+            if (LeadingDigitFilter.ONE.test(num.intValue())) {
                 result.add(num);
             }
         }
@@ -0,0 +1,171 @@
+package com.interview.streamcoding;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.function.IntPredicate;
+
+/**
+ * Elements of a {@link LiveNumbers} source that pass a predicate, kept up to date
+ * incrementally.
+ *
+ * <p>{@code LegacyEvenNumbers} and {@code ModernEvenNumbers} rebuild the whole result
+ * when the input changes: O(n) per change. A view instead tests each appended value once
+ * and removes elements by id through a hash index, so every change costs O(1) per view.
+ *
+ * <p>The view is a {@link Flow.Publisher}: a new subscriber first receives the current
+ * contents as {@code ADDED} deltas, then every change, under backpressure (see
+ * {@link DeltaSubscription}). Subscribers may read any view from {@code onNext}, but
+ * must not modify the source there: with a full buffer that change would wait for the
+ * delivery it is running in.
+ */
+public final class LiveFilteredView implements Flow.Publisher<NumberDelta> {
+
+    private final LiveNumbers source;
+    private final String name;
+    private final IntPredicate predicate;
+    // Guarded by the source's lock
+    private final IdValueTable members = new IdValueTable();
+    private final List<DeltaSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private boolean closed;
+
+    LiveFilteredView(LiveNumbers source, String name, IntPredicate predicate, long[] ids, int[] values) {
+        this.source = source;
+        this.name = name;
+        this.predicate = predicate;
+        for (int i = 0; i < ids.length; i++) {
+            if (predicate.test(values[i])) {
+                members.add(ids[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return Name given when the view was created
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return Number of elements currently in the view
+     */
+    public int size() {
+        synchronized (source) {
+            return members.size();
+        }
+    }
+
+    /**
+     * @param id Element id from {@link LiveNumbers#append(int)}
+     * @return true if that element is currently in the view
+     */
+    public boolean contains(long id) {
+        synchronized (source) {
+            return members.contains(id);
+        }
+    }
+
+    /**
+     * @return Current values, in append order
+     */
+    public int[] values() {
+        synchronized (source) {
+            return members.values();
+        }
+    }
+
+    /**
+     * Subscribes with the default buffer size ({@link Flow#defaultBufferSize()}).
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super NumberDelta> subscriber) {
+        subscribe(subscriber, Flow.defaultBufferSize());
+    }
+
+    /**
+     * @param subscriber Receives the current contents, then every change
+     * @param bufferSize Deltas buffered for this subscriber before changes to the source block
+     */
+    public void subscribe(Flow.Subscriber<? super NumberDelta> subscriber, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        DeltaSubscription subscription;
+        synchronized (source) {
+            subscription = new DeltaSubscription(subscriber, source.executor(), bufferSize,
+                    members.ids(), members.values());
+            if (closed) {
+                subscription.complete();
+            } else {
+                subscriptions.add(subscription);
+            }
+        }
+        subscription.start();
+    }
+
+    /**
+     * Detaches the view from the source and completes every subscription.
+     */
+    public void close() {
+        source.detach(this);
+    }
+
+    // =====================================================================
+    // Called by LiveNumbers while it holds its lock
+    // =====================================================================
+
+    void onAppend(long id, int value) {
+        if (predicate.test(value)) {
+            members.add(id, value);
+            publish(new NumberDelta(NumberDelta.Type.ADDED, id, value));
+        }
+    }
+
+    void onRemove(long id) {
+        if (members.contains(id)) {
+            int value = members.valueOf(id);
+            members.remove(id);
+            publish(new NumberDelta(NumberDelta.Type.REMOVED, id, value));
+        }
+    }
+
+    void onClose() {
+        closed = true;
+        for (DeltaSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+        subscriptions.clear();
+    }
+
+    // =====================================================================
+    // Called by LiveNumbers after it released its lock
+    // =====================================================================
+
+    /** Waits until no subscriber of this view has more deltas buffered than its capacity. */
+    void awaitCapacity() {
+        for (DeltaSubscription subscription : subscriptions) {
+            subscription.awaitCapacity();
+        }
+    }
+
+    private void publish(NumberDelta delta) {
+        boolean sawCancelled = false;
+        for (DeltaSubscription subscription : subscriptions) {
+            if (subscription.isCancelled()) {
+                sawCancelled = true;
+            } else {
+                subscription.offer(delta);
+            }
+        }
+        if (sawCancelled) {
+            subscriptions.removeIf(DeltaSubscription::isCancelled);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LiveFilteredView[" + name + ", size=" + size() + "]";
+    }
+
+}
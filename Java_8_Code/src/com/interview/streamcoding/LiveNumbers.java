@@ -0,0 +1,277 @@
+package com.interview.streamcoding;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+/**
+ * Append-heavy collection of ints with live, incrementally maintained filtered views.
+ *
+ * <p>Every element gets a unique id on {@link #append(int)}; {@link #remove(long)} takes
+ * that id. Each change is pushed to every {@link LiveFilteredView}, which updates itself
+ * in O(1) and forwards a {@link NumberDelta} to its subscribers:
+ * <pre>
+ * LiveNumbers numbers = new LiveNumbers();
+ * LiveFilteredView evens = numbers.evens();
+ * evens.subscribe(subscriber);           // current evens, then every change
+ * long id = numbers.append(42);          // subscriber receives ADDED 42
+ * numbers.remove(id);                    // subscriber receives REMOVED 42
+ * </pre>
+ *
+ * <p>All methods are thread-safe; changes are applied one at a time under this
+ * object's lock, so every subscriber sees them in the same order. When a subscriber
+ * falls behind, {@link #append}, {@link #appendAll} and {@link #remove} wait for it
+ * after the change has been applied and the lock released (see {@link DeltaSubscription}).
+ */
+public final class LiveNumbers implements AutoCloseable {
+
+    private final Executor executor;
+    private final IdValueTable elements = new IdValueTable();
+    private final List<LiveFilteredView> views = new CopyOnWriteArrayList<>();
+    private long nextId;
+    private boolean closed;
+
+    /**
+     * Delivers deltas on the common fork/join pool.
+     */
+    public LiveNumbers() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor Runs subscriber callbacks
+     */
+    public LiveNumbers(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param value Value to add
+     * @return Id of the new element, for {@link #remove(long)}
+     */
+    public long append(int value) {
+        long id;
+        synchronized (this) {
+            id = appendLocked(value);
+        }
+        awaitSubscribers();
+        return id;
+    }
+
+    /**
+     * Adds all values as one change: no other change is applied in between.
+     * @param values Values to add, in order
+     * @return Ids of the new elements
+     */
+    public long[] appendAll(int... values) {
+        long[] ids = new long[values.length];
+        synchronized (this) {
+            for (int i = 0; i < values.length; i++) {
+                ids[i] = appendLocked(values[i]);
+            }
+        }
+        awaitSubscribers();
+        return ids;
+    }
+
+    /**
+     * @param id Id returned by {@link #append(int)}
+     * @return false if there is no such element (never added, or already removed)
+     */
+    public boolean remove(long id) {
+        synchronized (this) {
+            if (!elements.remove(id)) {
+                return false;
+            }
+            for (LiveFilteredView view : views) {
+                view.onRemove(id);
+            }
+        }
+        awaitSubscribers();
+        return true;
+    }
+
+    // Called with the lock held
+    private long appendLocked(int value) {
+        if (closed) {
+            throw new IllegalStateException("Closed");
+        }
+        long id = nextId++;
+        elements.add(id, value);
+        for (LiveFilteredView view : views) {
+            view.onAppend(id, value);
+        }
+        return id;
+    }
+
+    /** Backpressure, applied without the lock so a slow subscriber blocks nobody else. */
+    private void awaitSubscribers() {
+        for (LiveFilteredView view : views) {
+            view.awaitCapacity();
+        }
+    }
+
+    /**
+     * @return Number of elements
+     */
+    public synchronized int size() {
+        return elements.size();
+    }
+
+    /**
+     * Creates a view; this scans the current elements once, later changes are incremental.
+     * @param name Name for diagnostics
+     * @param predicate Condition for being in the view
+     * @return Live view of the matching elements
+     */
+    public synchronized LiveFilteredView filter(String name, IntPredicate predicate) {
+        LiveFilteredView view = new LiveFilteredView(this, name, predicate, elements.ids(), elements.values());
+        if (closed) {
+            view.onClose();
+        } else {
+            views.add(view);
+        }
+        return view;
+    }
+
+    /**
+     * @return Live view of the even values ({@link ModernEvenNumbers#isEven})
+     */
+    public LiveFilteredView evens() {
+        return filter("even", ModernEvenNumbers::isEven);
+    }
+
+    /**
+     * @return Live view of the values starting with digit 1 ({@link LeadingDigitFilter#ONE})
+     */
+    public LiveFilteredView startingWithOne() {
+        return filter("startsWithOne", LeadingDigitFilter.ONE::test);
+    }
+
+    /**
+     * Rejects further appends and completes every subscription once its buffered
+     * deltas are delivered.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (LiveFilteredView view : views) {
+            view.onClose();
+        }
+        views.clear();
+    }
+
+    Executor executor() {
+        return executor;
+    }
+
+    synchronized void detach(LiveFilteredView view) {
+        if (views.remove(view)) {
+            view.onClose();
+        }
+    }
+
+    /** Prints each delta and asks for one more at a time. */
+    private static Flow.Subscriber<NumberDelta> printer(String label, CountDownLatch done) {
+        return new Flow.Subscriber<>() {
+
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(NumberDelta delta) {
+                System.out.println(label + ": " + delta.type() + " " + delta.value());
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throwable.printStackTrace();
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                System.out.println(label + ": complete");
+                done.countDown();
+            }
+        };
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // Single delivery thread keeps the printed output in a readable order
+        ExecutorService delivery = Executors.newSingleThreadExecutor();
+        CountDownLatch done = new CountDownLatch(2);
+        try (LiveNumbers numbers = new LiveNumbers(delivery)) {
+            numbers.appendAll(15, 3, 100, 2);
+            LiveFilteredView evens = numbers.evens();
+            LiveFilteredView ones = numbers.startingWithOne();
+            evens.subscribe(printer("even", done));
+            ones.subscribe(printer("ones", done));
+
+            long id = numbers.append(12);
+            numbers.append(7);
+            numbers.remove(id);
+            System.out.println("Current evens: " + java.util.Arrays.toString(evens.values()));
+        }
+        done.await();
+
+        // One million appends and removals: each costs O(1) per view
+        AtomicLong received = new AtomicLong();
+        CountDownLatch finished = new CountDownLatch(1);
+        try (LiveNumbers numbers = new LiveNumbers(delivery)) {
+            LiveFilteredView evens = numbers.evens();
+            evens.subscribe(new Flow.Subscriber<>() {
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(NumberDelta delta) {
+                    received.incrementAndGet();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    finished.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    finished.countDown();
+                }
+            }, 4096);
+            LiveFilteredView ones = numbers.startingWithOne();
+
+            long start = System.nanoTime();
+            java.util.SplittableRandom random = new java.util.SplittableRandom(42);
+            for (int i = 0; i < 1_000_000; i++) {
+                long id = numbers.append(random.nextInt(-1_000_000, 1_000_000));
+                if (i % 4 == 3) {
+                    numbers.remove(id - 2);
+                }
+            }
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            System.out.printf("1,000,000 appends + 250,000 removes in %d ms; evens=%d, startsWithOne=%d%n",
+                    millis, evens.size(), ones.size());
+        }
+        finished.await();
+        System.out.println("Deltas delivered to the evens subscriber: " + received.get());
+        delivery.shutdown();
+    }
+
+}
@@ -0,0 +1,550 @@
+package com.interview.streamcoding;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams numbers straight out of (possibly multi-GB) files using memory mapping.
+ *
+ * <p>The other examples hard-code their input with {@code Arrays.asList}/{@code List.of}.
+ * Here the input is a file that may be larger than the heap:
+ * <ul>
+ *   <li>Binary files: raw 4-byte ints or 8-byte longs, in a chosen byte order</li>
+ *   <li>Text files: one decimal number per line ('\n' or "\r\n", blank lines ignored)</li>
+ * </ul>
+ *
+ * <p>The file is mapped with {@link FileChannel#map} in windows of
+ * {@value #WINDOW_BYTES} bytes, so only the pages currently being read are resident
+ * and heap usage stays flat. Text is parsed byte by byte without creating Strings.
+ * The returned streams are splittable, so {@code .parallel()} spreads the file across cores.
+ *
+ * <p>Close the returned stream (try-with-resources) to release the file channel.
+ */
+public final class MappedNumberSource {
+
+    /** Size of one mapped window (64 MB, a multiple of 8 so windows never cut a long in half). */
+    static final long WINDOW_BYTES = 1L << 26;
+
+    /** Binary ranges smaller than this many elements are not split further (unless configured). */
+    private static final int MIN_SPLIT_ELEMENTS = 1 << 12;
+
+    /** Binary split points fall on page boundaries, so no page is mapped by two ranges. */
+    private static final int PAGE_BYTES = 4096;
+
+    /** Text ranges smaller than this many bytes are not split further. */
+    private static final long MIN_SPLIT_BYTES = 1 << 16;
+
+    private MappedNumberSource() {
+    }
+
+    // =====================================================================
+    // Public factory methods
+    // =====================================================================
+
+    /**
+     * @param file File of raw 4-byte ints
+     * @param order Byte order the file was written in
+     * @return Sized, splittable stream over all ints in the file
+     */
+    public static IntStream binaryInts(Path file, ByteOrder order) throws IOException {
+        return binaryInts(file, order, MIN_SPLIT_ELEMENTS);
+    }
+
+    /**
+     * @param file File of raw 4-byte ints
+     * @param order Byte order the file was written in
+     * @param minChunk Ranges are not split below this many elements
+     *        (see {@link NumberSpliterators#DEFAULT_MIN_CHUNK})
+     * @return Sized, splittable stream over all ints in the file
+     */
+    public static IntStream binaryInts(Path file, ByteOrder order, int minChunk) throws IOException {
+        checkChunk(minChunk);
+        FileChannel channel = open(file);
+        long count = elementCount(channel, Integer.BYTES, file);
+        return StreamSupport.intStream(new BinaryIntSpliterator(channel, order, 0, count, minChunk), false)
+                .onClose(() -> closeUnchecked(channel));
+    }
+
+    /**
+     * @param file File of raw 8-byte longs
+     * @param order Byte order the file was written in
+     * @return Sized, splittable stream over all longs in the file
+     */
+    public static LongStream binaryLongs(Path file, ByteOrder order) throws IOException {
+        return binaryLongs(file, order, MIN_SPLIT_ELEMENTS);
+    }
+
+    /**
+     * @param file File of raw 8-byte longs
+     * @param order Byte order the file was written in
+     * @param minChunk Ranges are not split below this many elements
+     * @return Sized, splittable stream over all longs in the file
+     */
+    public static LongStream binaryLongs(Path file, ByteOrder order, int minChunk) throws IOException {
+        checkChunk(minChunk);
+        FileChannel channel = open(file);
+        long count = elementCount(channel, Long.BYTES, file);
+        return StreamSupport.longStream(new BinaryLongSpliterator(channel, order, 0, count, minChunk), false)
+                .onClose(() -> closeUnchecked(channel));
+    }
+
+    /**
+     * @param file Newline-delimited text file with one int per line
+     * @return Splittable stream over the parsed values, in file order
+     */
+    public static IntStream textInts(Path file) throws IOException {
+        FileChannel channel = open(file);
+        return StreamSupport.intStream(new TextIntSpliterator(channel, 0, channel.size()), false)
+                .onClose(() -> closeUnchecked(channel));
+    }
+
+    /**
+     * @param file Newline-delimited text file with one long per line
+     * @return Splittable stream over the parsed values, in file order
+     */
+    public static LongStream textLongs(Path file) throws IOException {
+        FileChannel channel = open(file);
+        return StreamSupport.longStream(new TextLongSpliterator(channel, 0, channel.size()), false)
+                .onClose(() -> closeUnchecked(channel));
+    }
+
+    /**
+     * Writes ints as raw binary, the format read by {@link #binaryInts}.
+     * @param file Target file (created or truncated)
+     * @param order Byte order to write
+     * @param values Values to write
+     */
+    public static void writeBinaryInts(Path file, ByteOrder order, int[] values) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(order);
+            for (int value : values) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    drain(channel, buffer);
+                }
+                buffer.putInt(value);
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    private static void checkChunk(int minChunk) {
+        if (minChunk <= 0) {
+            throw new IllegalArgumentException("Minimum chunk must be positive: " + minChunk);
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    private static long elementCount(FileChannel channel, int elementSize, Path file) throws IOException {
+        long size = channel.size();
+        if (size % elementSize != 0) {
+            IOException error = new IOException(file + " is " + size + " bytes, not a multiple of " + elementSize);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                error.addSuppressed(e);
+            }
+            throw error;
+        }
+        return size / elementSize;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** Stream close handler: onClose actions cannot throw checked exceptions. */
+    private static void closeUnchecked(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long size) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // =====================================================================
+    // Binary files: fixed-size elements, exact sizes, split at a page-aligned midpoint
+    // =====================================================================
+
+    private static final int ORDERED_SIZED = Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+            | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+    /**
+     * Element range [index, end) of a binary file, mapped one window at a time.
+     */
+    private abstract static class BinaryRange {
+
+        final FileChannel channel;
+        final ByteOrder order;
+        final int elementSize;
+        final int minChunk;
+        long index;
+        final long end;
+
+        // Current window covers elements [windowFirst, windowLast)
+        ByteBuffer window;
+        long windowFirst;
+        long windowLast;
+
+        BinaryRange(FileChannel channel, ByteOrder order, int elementSize, long index, long end, int minChunk) {
+            this.channel = channel;
+            this.order = order;
+            this.elementSize = elementSize;
+            this.minChunk = minChunk;
+            this.index = index;
+            this.end = end;
+        }
+
+        /** Makes sure {@code element} is inside the current window and returns its byte offset there. */
+        final int offsetOf(long element) {
+            if (window == null || element < windowFirst || element >= windowLast) {
+                long last = Math.min(end, element + WINDOW_BYTES / elementSize);
+                window = map(channel, element * elementSize, (last - element) * elementSize).order(order);
+                windowFirst = element;
+                windowLast = last;
+            }
+            return (int) ((element - windowFirst) * elementSize);
+        }
+
+        /** @return Midpoint to split at, or -1 if the range is too small */
+        final long splitPoint() {
+            return NumberSpliterators.splitPoint(index, end, minChunk, PAGE_BYTES / elementSize);
+        }
+
+        public long estimateSize() {
+            return end - index;
+        }
+
+        public int characteristics() {
+            return ORDERED_SIZED;
+        }
+    }
+
+    private static final class BinaryIntSpliterator extends BinaryRange implements Spliterator.OfInt {
+
+        BinaryIntSpliterator(FileChannel channel, ByteOrder order, long index, long end, int minChunk) {
+            super(channel, order, Integer.BYTES, index, end, minChunk);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(read(index));
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (; index < end; index++) {
+                action.accept(read(index));
+            }
+        }
+
+        private int read(long element) {
+            int offset = offsetOf(element);
+            return window.getInt(offset);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            long middle = splitPoint();
+            if (middle < 0) {
+                return null;
+            }
+            Spliterator.OfInt prefix = new BinaryIntSpliterator(channel, order, index, middle, minChunk);
+            index = middle;
+            return prefix;
+        }
+    }
+
+    private static final class BinaryLongSpliterator extends BinaryRange implements Spliterator.OfLong {
+
+        BinaryLongSpliterator(FileChannel channel, ByteOrder order, long index, long end, int minChunk) {
+            super(channel, order, Long.BYTES, index, end, minChunk);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(read(index));
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            for (; index < end; index++) {
+                action.accept(read(index));
+            }
+        }
+
+        private long read(long element) {
+            int offset = offsetOf(element);
+            return window.getLong(offset);
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            long middle = splitPoint();
+            if (middle < 0) {
+                return null;
+            }
+            Spliterator.OfLong prefix = new BinaryLongSpliterator(channel, order, index, middle, minChunk);
+            index = middle;
+            return prefix;
+        }
+    }
+
+    // =====================================================================
+    // Text files: one number per line, split at the next line start
+    // =====================================================================
+
+    /**
+     * Owns every line that starts inside the byte range [position, end).
+     * The last owned line may run past {@code end}; the next range starts after it.
+     */
+    private abstract static class TextRange {
+
+        final FileChannel channel;
+        final long fileSize;
+        long position;
+        long end;
+
+        // Last parsed value, read by the subclasses right after parseNext() returns true
+        long value;
+
+        // Current window covers bytes [windowStart, windowStart + window.limit())
+        MappedByteBuffer window;
+        long windowStart;
+
+        TextRange(FileChannel channel, long position, long end) {
+            this.channel = channel;
+            this.position = position;
+            this.end = end;
+            try {
+                this.fileSize = channel.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private byte byteAt(long offset) {
+            if (window == null || offset < windowStart || offset >= windowStart + window.limit()) {
+                long size = Math.min(WINDOW_BYTES, fileSize - offset);
+                window = map(channel, offset, size);
+                windowStart = offset;
+            }
+            return window.get((int) (offset - windowStart));
+        }
+
+        /**
+         * Parses the next non-blank line owned by this range into {@link #value}.
+         * @return false when no more lines start inside the range
+         */
+        final boolean parseNext() {
+            while (position < end && position < fileSize) {
+                long lineStart = position;
+                boolean negative = false;
+                boolean digits = false;
+                long result = 0;
+                while (position < fileSize) {
+                    byte b = byteAt(position++);
+                    if (b == '\n') {
+                        break;
+                    }
+                    if (b >= '0' && b <= '9') {
+                        digits = true;
+                        try {
+                            // Accumulate negatively so Long.MIN_VALUE can be parsed
+                            result = Math.subtractExact(Math.multiplyExact(result, 10), b - '0');
+                        } catch (ArithmeticException e) {
+                            throw badLine(lineStart, "value out of range");
+                        }
+                    } else if (b == '-' && position - 1 == lineStart) {
+                        negative = true;
+                    } else if (b != '\r') {
+                        throw badLine(lineStart, "unexpected byte " + b);
+                    }
+                }
+                if (digits) {
+                    if (!negative && result == Long.MIN_VALUE) {
+                        throw badLine(lineStart, "value out of range");
+                    }
+                    value = negative ? result : -result;
+                    return true;
+                }
+                if (negative) {
+                    throw badLine(lineStart, "'-' without digits");
+                }
+                // Blank line: keep going
+            }
+            return false;
+        }
+
+        final NumberFormatException badLine(long lineStart, String reason) {
+            return new NumberFormatException("Line starting at byte " + lineStart + ": " + reason);
+        }
+
+        /**
+         * Moves {@link #position} forward to the first line start at or after the midpoint.
+         * @return Old position (start of the prefix range), or -1 if the range is too small
+         */
+        final long split() {
+            if (end - position < 2 * MIN_SPLIT_BYTES) {
+                return -1;
+            }
+            long middle = position + (end - position) / 2;
+            while (middle < end && byteAt(middle - 1) != '\n') {
+                middle++;
+            }
+            if (middle >= end) {
+                return -1;
+            }
+            long prefixStart = position;
+            position = middle;
+            return prefixStart;
+        }
+
+        public long estimateSize() {
+            // Rough guess of 8 bytes per line; only used for split decisions
+            return Math.max(0, end - position) / 8;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        }
+    }
+
+    private static final class TextIntSpliterator extends TextRange implements Spliterator.OfInt {
+
+        TextIntSpliterator(FileChannel channel, long position, long end) {
+            super(channel, position, end);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (!parseNext()) {
+                return false;
+            }
+            action.accept(toInt());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            while (parseNext()) {
+                action.accept(toInt());
+            }
+        }
+
+        private int toInt() {
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Value out of int range: " + value);
+            }
+            return (int) value;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            long prefixStart = split();
+            return prefixStart < 0 ? null : new TextIntSpliterator(channel, prefixStart, position);
+        }
+    }
+
+    private static final class TextLongSpliterator extends TextRange implements Spliterator.OfLong {
+
+        TextLongSpliterator(FileChannel channel, long position, long end) {
+            super(channel, position, end);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (!parseNext()) {
+                return false;
+            }
+            action.accept(value);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            while (parseNext()) {
+                action.accept(value);
+            }
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            long prefixStart = split();
+            return prefixStart < 0 ? null : new TextLongSpliterator(channel, prefixStart, position);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] numbers = {10, 15, 8, 49, 25, 98, 32, -123, -100, 0, Integer.MIN_VALUE};
+
+        // Binary file: stream it through the even and leading-digit filters
+        Path binary = Files.createTempFile("numbers", ".bin");
+        writeBinaryInts(binary, ByteOrder.LITTLE_ENDIAN, numbers);
+        try (IntStream stream = binaryInts(binary, ByteOrder.LITTLE_ENDIAN)) {
+            System.out.println("Even numbers (binary file): "
+                    + stream.filter(ModernEvenNumbers::isEven).boxed().toList());
+        }
+        try (IntStream stream = binaryInts(binary, ByteOrder.LITTLE_ENDIAN)) {
+            System.out.println("Numbers starting with 1 (binary file): "
+                    + LeadingDigitFilter.ONE.filter(stream).boxed().toList());
+        }
+
+        // Text file with Windows line endings and a blank line
+        Path text = Files.createTempFile("numbers", ".txt");
+        Files.writeString(text, "15\r\n3\r\n\r\n100\r\n-123\r\n9223372036854775807\r\n");
+        try (LongStream stream = textLongs(text)) {
+            System.out.println("Numbers starting with 1 (text file): "
+                    + LeadingDigitFilter.ONE.filter(stream).boxed().toList());
+        }
+
+        // Larger file processed in parallel: memory use stays flat regardless of file size
+        int[] large = IntStream.range(0, 5_000_000).toArray();
+        writeBinaryInts(binary, ByteOrder.LITTLE_ENDIAN, large);
+        try (IntStream stream = binaryInts(binary, ByteOrder.LITTLE_ENDIAN)) {
+            System.out.println("Even count (parallel, 5M ints): "
+                    + stream.parallel().filter(ModernEvenNumbers::isEven).count());
+        }
+
+        Files.delete(binary);
+        Files.delete(text);
+    }
+}
@@ -3,6 +3,7 @@ package com.interview.streamcoding;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * This class demonstrates progressive improvements in filtering even numbers
@@ -117,7 +118,26 @@ public class ModernEvenNumbers {
      * @param num The number to evaluate
      * @return true if the number is even (divisible by 2), false otherwise
      */
-    private static boolean isEven(int num) {
+    public static boolean isEven(int num) {
         return num % 2 == 0;
     }
+
+    /**
+     * Primitive version of APPROACH 5: no {@code Integer} is created for the input or
+     * the result. For very large arrays see {@link ParallelEvenFilter#filterToList(int[])}.
+     *
+     * @param numbers The numbers to filter
+     * @return The even numbers, in their original order
+     */
+    public static IntList evenNumbers(int[] numbers) {
+        return evenNumbers(Arrays.stream(numbers));
+    }
+
+    /**
+     * @param numbers The numbers to filter
+     * @return The even numbers, in encounter order
+     */
+    public static IntList evenNumbers(IntStream numbers) {
+        return IntList.collect(numbers.filter(ModernEvenNumbers::isEven));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+package com.interview.streamcoding;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Precomputed row sets for the predicates used across this package, so repeated
+ * queries over a large, mostly static int dataset do not rescan the data.
+ *
+ * <p>While building, every value is classified once:
+ * <ul>
+ *   <li>parity, as in {@code ModernEvenNumbers.isEven}</li>
+ *   <li>leading digit 0-9, as in {@code findNumbersStartingWithOne} (sign is ignored,
+ *       like {@link LeadingDigitFilter}; only the value 0 has leading digit 0)</li>
+ * </ul>
+ * Each class is kept as a compressed {@link RowBitmap}. A query is then a combination of
+ * bitmaps, for example "even and starting with 1":
+ * <pre>
+ * RowBitmap rows = index.even().and(index.leadingDigit(1));
+ * long count = rows.cardinality();
+ * int[] numbers = index.values(rows);
+ * </pre>
+ *
+ * <p>{@link #append(int)} adds rows in place: only the last chunk of each bitmap
+ * changes. Bitmaps returned by the accessors are snapshots (cached until the next
+ * append), so they stay valid while the index keeps growing. All methods are
+ * thread-safe.
+ */
+public final class NumberBitmapIndex {
+
+    private static final int EVEN = 10;
+    private static final int ODD = 11;
+
+    private int[] values;
+    private int size;
+    // 0-9: leading digit, EVEN, ODD
+    private final RowBitmap[] bitmaps = new RowBitmap[12];
+    private final RowBitmap[] snapshots = new RowBitmap[12];
+
+    public NumberBitmapIndex() {
+        this.values = new int[1024];
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = new RowBitmap();
+        }
+    }
+
+    /**
+     * @param values Dataset to index (copied)
+     * @return Index over {@code values}
+     */
+    public static NumberBitmapIndex of(int[] values) {
+        NumberBitmapIndex index = new NumberBitmapIndex();
+        index.appendAll(values);
+        return index;
+    }
+
+    /**
+     * Adds a value as the next row.
+     * @param value Value to add
+     * @return Row number of the value
+     */
+    public synchronized int append(int value) {
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Index is full");
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, (int) Math.min(Integer.MAX_VALUE, 2L * size));
+        }
+        int row = size++;
+        values[row] = value;
+        bitmaps[leadingDigitOf(value)].append(row);
+        bitmaps[(value & 1) == 0 ? EVEN : ODD].append(row);
+        Arrays.fill(snapshots, null);
+        return row;
+    }
+
+    /**
+     * @param newValues Values to add as the next rows
+     */
+    public synchronized void appendAll(int[] newValues) {
+        if (size + newValues.length > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + newValues.length, 2 * values.length));
+        }
+        for (int value : newValues) {
+            append(value);
+        }
+    }
+
+    /**
+     * @return Number of rows
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @param row Row number
+     * @return Value stored in that row
+     */
+    public synchronized int value(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return values[row];
+    }
+
+    /**
+     * @param rows Row set, e.g. the result of a query
+     * @return Values of those rows, in row order
+     */
+    public synchronized int[] values(RowBitmap rows) {
+        int[] result = new int[(int) rows.cardinality()];
+        int[] position = new int[1];
+        rows.forEach(row -> result[position[0]++] = values[row]);
+        return result;
+    }
+
+    // =====================================================================
+    // Precomputed row sets
+    // =====================================================================
+
+    /**
+     * @return Rows holding an even value
+     */
+    public RowBitmap even() {
+        return snapshot(EVEN);
+    }
+
+    /**
+     * @return Rows holding an odd value
+     */
+    public RowBitmap odd() {
+        return snapshot(ODD);
+    }
+
+    /**
+     * @param digit Digit between 0 and 9
+     * @return Rows whose value (sign ignored) starts with {@code digit}
+     */
+    public RowBitmap leadingDigit(int digit) {
+        if (digit < 0 || digit > 9) {
+            throw new IllegalArgumentException("Digit must be between 0 and 9: " + digit);
+        }
+        return snapshot(digit);
+    }
+
+    /**
+     * @return Every row, for use with {@link RowBitmap#andNot}
+     */
+    public synchronized RowBitmap all() {
+        return RowBitmap.range(0, size);
+    }
+
+    private synchronized RowBitmap snapshot(int bitmap) {
+        if (snapshots[bitmap] == null) {
+            snapshots[bitmap] = bitmaps[bitmap].snapshot();
+        }
+        return snapshots[bitmap];
+    }
+
+    /** Same reduction as {@link LeadingDigitFilter}: negative space, so MIN_VALUE is fine. */
+    private static int leadingDigitOf(int value) {
+        int n = value > 0 ? -value : value;
+        while (n <= -10) {
+            n /= 10;
+        }
+        return -n;
+    }
+
+    public static void main(String[] args) {
+        int[] small = {12, 7, 150, -18, 1, 44, 1000};
+        NumberBitmapIndex index = NumberBitmapIndex.of(small);
+        RowBitmap evenStartingWithOne = index.even().and(index.leadingDigit(1));
+        System.out.println("Even and starting with 1: " + Arrays.toString(index.values(evenStartingWithOne)));
+        System.out.println("Starting with 1 or 4: " + Arrays.toString(
+                index.values(index.leadingDigit(1).or(index.leadingDigit(4)))));
+        System.out.println("Not starting with 1: " + Arrays.toString(
+                index.values(index.leadingDigit(1).not(index.size()))));
+
+        // Appends update the index in place
+        index.append(16);
+        System.out.println("After append(16): " + Arrays.toString(
+                index.values(index.even().and(index.leadingDigit(1)))));
+        System.out.println("Earlier snapshot unchanged: " + evenStartingWithOne.cardinality() + " rows");
+
+        // Ten million values: one build, then queries without a rescan
+        int[] data = new SplittableRandom(42).ints(10_000_000, -1_000_000, 1_000_000).toArray();
+        long start = System.nanoTime();
+        NumberBitmapIndex large = NumberBitmapIndex.of(data);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        long indexed = large.odd().and(large.leadingDigit(1).or(large.leadingDigit(9))).cardinality();
+        long indexMicros = (System.nanoTime() - start) / 1000;
+
+        LeadingDigitFilter nine = LeadingDigitFilter.of(9);
+        start = System.nanoTime();
+        long scanned = Arrays.stream(data)
+                .filter(n -> !ModernEvenNumbers.isEven(n))
+                .filter(n -> LeadingDigitFilter.ONE.test(n) || nine.test(n))
+                .count();
+        long scanMicros = (System.nanoTime() - start) / 1000;
+
+        System.out.printf("Build %d ms; odd and (1 or 9): index %d (%d us), rescan %d (%d us)%n",
+                buildMillis, indexed, indexMicros, scanned, scanMicros);
+        System.out.println("Even rows: " + large.even());
+        System.out.println("Leading 1 rows: " + large.leadingDigit(1));
+    }
+}
@@ -0,0 +1,20 @@
+package com.interview.streamcoding;
+
+/**
+ * One change to a {@link LiveFilteredView}, as delivered to its subscribers.
+ *
+ * @param type Whether the value entered or left the view
+ * @param id Id returned by {@link LiveNumbers#append(int)} for this element
+ * @param value The element's value
+ */
+public record NumberDelta(Type type, long id, int value) {
+
+    /** Kind of change. */
+    public enum Type {
+        /** The value was appended and passes the view's predicate (or was already there on subscribe). */
+        ADDED,
+        /** The value was removed from the source. */
+        REMOVED
+    }
+
+}
@@ -0,0 +1,490 @@
+package com.interview.streamcoding;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterators that split evenly for parallel streams.
+ *
+ * <p>A parallel stream is only as good as its source's {@code trySplit()}:
+ * <ul>
+ *   <li>Iterator-backed sources ({@code Spliterators.spliteratorUnknownSize}) hand
+ *       out batches of 1024, 2048, 3072... elements copied into arrays, so the first
+ *       cores get tiny tasks, one core gets most of the work, and without an exact
+ *       size {@code toArray()}/{@code toList()} buffer and copy their output.</li>
+ *   <li>The stream framework splits any sized source down to about
+ *       {@code size / (4 * parallelism)} elements, however small that is; tasks of a
+ *       few hundred elements cost more to fork than to run.</li>
+ * </ul>
+ * The spliterators here are {@code SIZED}, {@code SUBSIZED} and {@code IMMUTABLE}.
+ * They split at the midpoint, rounded to a cache line, and stop splitting once a
+ * chunk would go below a minimum size ({@link #DEFAULT_MIN_CHUNK} unless given).
+ * Exact sizes let {@code toArray()} allocate its result once and fill it in place.
+ *
+ * <p>File-backed sources with the same properties are in {@link MappedNumberSource}.
+ */
+public final class NumberSpliterators {
+
+    /** 16K elements: 64 KB of ints, small enough to stay in a core's L2 cache. */
+    public static final int DEFAULT_MIN_CHUNK = 1 << 14;
+
+    // Split points are multiples of this many elements: 64 bytes of ints, so two
+    // tasks writing neighbouring output regions do not share a cache line
+    private static final int ALIGNMENT = 16;
+
+    private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.SIZED
+            | Spliterator.SUBSIZED | Spliterator.IMMUTABLE;
+
+    private NumberSpliterators() {
+    }
+
+    // =====================================================================
+    // Public factory methods
+    // =====================================================================
+
+    /**
+     * @param from First value (inclusive)
+     * @param to Last value (exclusive)
+     * @return Sequential stream over the range; call {@code .parallel()} to split it
+     */
+    public static IntStream range(int from, int to) {
+        return StreamSupport.intStream(rangeSpliterator(from, to, DEFAULT_MIN_CHUNK), false);
+    }
+
+    /**
+     * @param from First value (inclusive)
+     * @param to Last value (exclusive)
+     * @param minChunk Ranges are not split below this many values
+     * @return Spliterator over {@code [from, to)}
+     */
+    public static Spliterator.OfInt rangeSpliterator(int from, int to, int minChunk) {
+        checkChunk(minChunk);
+        return new IntRangeSpliterator(from, Math.max(from, (long) to), minChunk);
+    }
+
+    /**
+     * @param from First value (inclusive)
+     * @param to Last value (exclusive)
+     * @return Sequential stream over the range; call {@code .parallel()} to split it
+     */
+    public static LongStream range(long from, long to) {
+        return StreamSupport.longStream(rangeSpliterator(from, to, DEFAULT_MIN_CHUNK), false);
+    }
+
+    /**
+     * @param from First value (inclusive)
+     * @param to Last value (exclusive); {@code to - from} must fit in a long
+     * @param minChunk Ranges are not split below this many values
+     * @return Spliterator over {@code [from, to)}
+     */
+    public static Spliterator.OfLong rangeSpliterator(long from, long to, int minChunk) {
+        checkChunk(minChunk);
+        if (to > from && to - from < 0) {
+            throw new IllegalArgumentException("Range too large: " + from + ".." + to);
+        }
+        return new LongRangeSpliterator(from, Math.max(from, to), minChunk);
+    }
+
+    /**
+     * @param values Values to stream; must not be modified while the stream runs
+     * @return Sequential stream over the array; call {@code .parallel()} to split it
+     */
+    public static IntStream stream(int[] values) {
+        return StreamSupport.intStream(spliterator(values, 0, values.length, DEFAULT_MIN_CHUNK), false);
+    }
+
+    /**
+     * @param values Values to stream; must not be modified while the stream runs
+     * @param minChunk Chunks are not split below this many elements
+     * @return Sequential stream over the array; call {@code .parallel()} to split it
+     */
+    public static IntStream stream(int[] values, int minChunk) {
+        return StreamSupport.intStream(spliterator(values, 0, values.length, minChunk), false);
+    }
+
+    /**
+     * @param values Source array
+     * @param from First index (inclusive)
+     * @param to Last index (exclusive)
+     * @param minChunk Chunks are not split below this many elements
+     * @return Spliterator over {@code values[from..to)}
+     */
+    public static Spliterator.OfInt spliterator(int[] values, int from, int to, int minChunk) {
+        checkChunk(minChunk);
+        checkRange(values.length, from, to);
+        return new IntArraySpliterator(values, from, to, minChunk);
+    }
+
+    /**
+     * @param values Values to stream; must not be modified while the stream runs
+     * @return Sequential stream over the array; call {@code .parallel()} to split it
+     */
+    public static LongStream stream(long[] values) {
+        return StreamSupport.longStream(spliterator(values, 0, values.length, DEFAULT_MIN_CHUNK), false);
+    }
+
+    /**
+     * @param values Source array
+     * @param from First index (inclusive)
+     * @param to Last index (exclusive)
+     * @param minChunk Chunks are not split below this many elements
+     * @return Spliterator over {@code values[from..to)}
+     */
+    public static Spliterator.OfLong spliterator(long[] values, int from, int to, int minChunk) {
+        checkChunk(minChunk);
+        checkRange(values.length, from, to);
+        return new LongArraySpliterator(values, from, to, minChunk);
+    }
+
+    /**
+     * For the {@code Arrays.asList}/{@code List.of} inputs of the examples.
+     * @param list Random-access list; must not be modified while the stream runs
+     * @return Sequential stream over the list; call {@code .parallel()} to split it
+     */
+    public static <T> Stream<T> stream(List<T> list) {
+        return stream(list, DEFAULT_MIN_CHUNK);
+    }
+
+    /**
+     * @param list Random-access list; must not be modified while the stream runs
+     * @param minChunk Chunks are not split below this many elements
+     * @return Sequential stream over the list; call {@code .parallel()} to split it
+     */
+    public static <T> Stream<T> stream(List<T> list, int minChunk) {
+        checkChunk(minChunk);
+        if (!(list instanceof RandomAccess)) {
+            throw new IllegalArgumentException("List must be RandomAccess, got " + list.getClass().getName());
+        }
+        return StreamSupport.stream(new ListSpliterator<>(list, 0, list.size(), minChunk), false);
+    }
+
+    // =====================================================================
+    // Splitting shared by all sources (and MappedNumberSource)
+    // =====================================================================
+
+    /**
+     * Midpoint of {@code [index, end)} rounded down to a multiple of {@code alignment},
+     * or -1 if either half would be smaller than {@code minChunk}.
+     */
+    static long splitPoint(long index, long end, long minChunk, long alignment) {
+        long remaining = end - index;
+        if (remaining < 2 * minChunk) {
+            return -1;
+        }
+        long middle = index + remaining / 2;
+        long aligned = middle - Math.floorMod(middle, alignment);
+        // Fall back to the exact midpoint when alignment would leave a half too small
+        return aligned - index >= minChunk ? aligned : middle;
+    }
+
+    private static void checkChunk(int minChunk) {
+        if (minChunk <= 0) {
+            throw new IllegalArgumentException("Minimum chunk must be positive: " + minChunk);
+        }
+    }
+
+    private static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("Range " + from + ".." + to + " outside 0.." + length);
+        }
+    }
+
+    /**
+     * Index range [index, end) that splits at aligned midpoints.
+     * Subclasses create the prefix and consume elements.
+     */
+    private abstract static class IndexRange {
+
+        long index;
+        final long end;
+        final int minChunk;
+
+        IndexRange(long index, long end, int minChunk) {
+            this.index = index;
+            this.end = end;
+            this.minChunk = minChunk;
+        }
+
+        /** @return Start of the prefix after moving {@link #index} to the split point, or -1 */
+        final long split() {
+            long middle = splitPoint(index, end, minChunk, ALIGNMENT);
+            if (middle < 0) {
+                return -1;
+            }
+            long prefixStart = index;
+            index = middle;
+            return prefixStart;
+        }
+
+        public long estimateSize() {
+            return end - index;
+        }
+
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    // =====================================================================
+    // Ranges
+    // =====================================================================
+
+    private static final class IntRangeSpliterator extends IndexRange implements Spliterator.OfInt {
+
+        IntRangeSpliterator(long from, long to, int minChunk) {
+            super(from, to, minChunk);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept((int) index++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            long i = index;
+            long last = end;
+            index = last;
+            for (; i < last; i++) {
+                action.accept((int) i);
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            long prefixStart = split();
+            return prefixStart < 0 ? null : new IntRangeSpliterator(prefixStart, index, minChunk);
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS | Spliterator.NONNULL | Spliterator.DISTINCT | Spliterator.SORTED;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return null;
+        }
+    }
+
+    private static final class LongRangeSpliterator extends IndexRange implements Spliterator.OfLong {
+
+        LongRangeSpliterator(long from, long to, int minChunk) {
+            super(from, to, minChunk);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(index++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            long i = index;
+            long last = end;
+            index = last;
+            for (; i < last; i++) {
+                action.accept(i);
+            }
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            long prefixStart = split();
+            return prefixStart < 0 ? null : new LongRangeSpliterator(prefixStart, index, minChunk);
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS | Spliterator.NONNULL | Spliterator.DISTINCT | Spliterator.SORTED;
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return null;
+        }
+    }
+
+    // =====================================================================
+    // Arrays and random-access lists
+    // =====================================================================
+
+    private static final class IntArraySpliterator extends IndexRange implements Spliterator.OfInt {
+
+        private final int[] values;
+
+        IntArraySpliterator(int[] values, long from, long to, int minChunk) {
+            super(from, to, minChunk);
+            this.values = values;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(values[(int) index++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int[] local = values;
+            int i = (int) index;
+            int last = (int) end;
+            index = last;
+            for (; i < last; i++) {
+                action.accept(local[i]);
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            long prefixStart = split();
+            return prefixStart < 0 ? null : new IntArraySpliterator(values, prefixStart, index, minChunk);
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS | Spliterator.NONNULL;
+        }
+    }
+
+    private static final class LongArraySpliterator extends IndexRange implements Spliterator.OfLong {
+
+        private final long[] values;
+
+        LongArraySpliterator(long[] values, long from, long to, int minChunk) {
+            super(from, to, minChunk);
+            this.values = values;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(values[(int) index++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            long[] local = values;
+            int i = (int) index;
+            int last = (int) end;
+            index = last;
+            for (; i < last; i++) {
+                action.accept(local[i]);
+            }
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            long prefixStart = split();
+            return prefixStart < 0 ? null : new LongArraySpliterator(values, prefixStart, index, minChunk);
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS | Spliterator.NONNULL;
+        }
+    }
+
+    private static final class ListSpliterator<T> extends IndexRange implements Spliterator<T> {
+
+        private final List<T> list;
+
+        ListSpliterator(List<T> list, long from, long to, int minChunk) {
+            super(from, to, minChunk);
+            this.list = list;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(list.get((int) index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            List<T> local = list;
+            int i = (int) index;
+            int last = (int) end;
+            index = last;
+            for (; i < last; i++) {
+                action.accept(local.get(i));
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            long prefixStart = split();
+            return prefixStart < 0 ? null : new ListSpliterator<>(list, prefixStart, index, minChunk);
+        }
+    }
+
+    /** Sizes of the first chunks split off {@code spliterator}, as a parallel traversal would get them. */
+    private static String firstSplits(Spliterator<?> spliterator, int count) {
+        StringBuilder sizes = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            Spliterator<?> prefix = spliterator.trySplit();
+            if (prefix == null) {
+                break;
+            }
+            long[] elements = {0};
+            prefix.forEachRemaining(element -> elements[0]++);
+            sizes.append(elements[0]).append(' ');
+        }
+        return sizes + "(exact size of the rest: " + spliterator.getExactSizeIfKnown() + ")";
+    }
+
+    public static void main(String[] args) {
+        int[] data = new SplittableRandom(42).ints(20_000_000, -1_000_000, 1_000_000).toArray();
+        List<Integer> boxed = Arrays.stream(data).boxed().toList();
+
+        // How the sources split
+        System.out.println("First splits of 20M elements:");
+        System.out.println("  iterator-backed:    " + firstSplits(
+                Spliterators.spliteratorUnknownSize(boxed.iterator(), Spliterator.ORDERED), 5));
+        System.out.println("  NumberSpliterators: " + firstSplits(spliterator(data, 0, data.length, DEFAULT_MIN_CHUNK), 5));
+
+        // Same results as the sequential filters
+        long start = System.nanoTime();
+        int[] evens = stream(data).parallel().filter(ModernEvenNumbers::isEven).toArray();
+        long evenMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        List<Integer> ones = stream(boxed).parallel().filter(n -> LeadingDigitFilter.ONE.test(n)).toList();
+        long onesMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("Parallel even filter: %d values in %d ms, same as sequential: %b%n", evens.length,
+                evenMillis, Arrays.equals(evens, Arrays.stream(data).filter(ModernEvenNumbers::isEven).toArray()));
+        System.out.printf("Parallel leading-digit filter: %d values in %d ms, same as sequential: %b%n", ones.size(),
+                onesMillis, ones.equals(StreamApproachMethodCalling.findNumbersStartingWithOne(boxed)));
+        System.out.println("Even numbers in [0, 10^9): " + range(0, 1_000_000_000).parallel()
+                .filter(ModernEvenNumbers::isEven).count());
+        System.out.println("(see ParallelScalingBenchmark in Java_8_Benchmarks for scaling by core count)");
+    }
+}
@@ -0,0 +1,194 @@
+package com.interview.streamcoding;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Filters even numbers out of large {@code int[]} arrays using all cores.
+ *
+ * <p>{@link ModernEvenNumbers} boxes every value ({@code List<Integer>} in,
+ * {@code toList()} out). This class keeps everything primitive:
+ * <ul>
+ *   <li>The input is split into fixed-size chunks handled by fork/join tasks</li>
+ *   <li>Inside a chunk, parity is tested with Vector API lane masks and the matches
+ *       are compressed together ({@link VectorEvenKernel}), or with a scalar loop
+ *       when {@code jdk.incubator.vector} is not available</li>
+ *   <li>Results go into a caller supplied {@code int[]} buffer, so repeated batch
+ *       jobs can reuse one output array</li>
+ * </ul>
+ *
+ * <p>The result is exactly the values for which {@link ModernEvenNumbers#isEven(int)}
+ * is true, in their original order.
+ */
+public final class ParallelEvenFilter {
+
+    /** 64K ints = 256 KB per chunk, small enough to stay in a core's L2 cache. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    private static final boolean VECTOR_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private ParallelEvenFilter() {
+    }
+
+    /**
+     * @return true if the SIMD kernel is used, false if the scalar fallback is used
+     */
+    public static boolean isVectorized() {
+        return VECTOR_AVAILABLE;
+    }
+
+    /**
+     * Filters on the common fork/join pool with the default chunk size.
+     * @param numbers Values to filter
+     * @param out Output buffer, at least {@code numbers.length} long (may be {@code numbers} itself)
+     * @return Number of even values written to the start of {@code out}
+     */
+    public static int filter(int[] numbers, int[] out) {
+        return filter(numbers, out, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Filters even values into {@code out}.
+     *
+     * <p>Phase 1 (parallel): every chunk writes its matches to the start of its own
+     * region of {@code out} and remembers how many it wrote.
+     * Phase 2 (sequential): the chunk results are moved left so they are contiguous.
+     * Because every write lands at or before the position it was read from,
+     * {@code out} may be the same array as {@code numbers} (in-place filtering).
+     *
+     * @param numbers Values to filter
+     * @param out Output buffer, at least {@code numbers.length} long (may be {@code numbers} itself)
+     * @param pool Pool running the chunk tasks
+     * @param chunkSize Number of elements handled by one task
+     * @return Number of even values written to the start of {@code out}
+     */
+    public static int filter(int[] numbers, int[] out, ForkJoinPool pool, int chunkSize) {
+        if (out.length < numbers.length) {
+            throw new IllegalArgumentException("Output buffer is smaller than the input");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        if (numbers.length <= chunkSize) {
+            // Not worth forking for a single chunk
+            return filterRange(numbers, 0, numbers.length, out, 0);
+        }
+
+        int chunks = (numbers.length + chunkSize - 1) / chunkSize;
+        int[] counts = new int[chunks];
+        pool.invoke(new ChunkTask(numbers, out, counts, chunkSize, 0, chunks));
+
+        int size = counts[0];
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            System.arraycopy(out, chunk * chunkSize, out, size, counts[chunk]);
+            size += counts[chunk];
+        }
+        return size;
+    }
+
+    /**
+     * Convenience variant that allocates the result.
+     * @param numbers Values to filter
+     * @return New array with only the even values
+     */
+    public static int[] filter(int[] numbers) {
+        int[] out = new int[numbers.length];
+        int size = filter(numbers, out);
+        return Arrays.copyOf(out, size);
+    }
+
+    /**
+     * Like {@link #filter(int[])}, but the output buffer becomes the result without a
+     * final copy. Call {@link IntList#trimToSize()} before keeping it for long.
+     * @param numbers Values to filter
+     * @return The even values
+     */
+    public static IntList filterToList(int[] numbers) {
+        int[] out = new int[numbers.length];
+        return IntList.wrap(out, filter(numbers, out));
+    }
+
+    private static int filterRange(int[] numbers, int from, int to, int[] out, int outPos) {
+        if (VECTOR_AVAILABLE) {
+            return VectorEvenKernel.filterRange(numbers, from, to, out, outPos);
+        }
+        int write = outPos;
+        for (int i = from; i < to; i++) {
+            if (ModernEvenNumbers.isEven(numbers[i])) {
+                out[write++] = numbers[i];
+            }
+        }
+        return write - outPos;
+    }
+
+    /**
+     * Splits a range of chunk indexes in half until a single chunk is left,
+     * then filters that chunk into its own region of the output.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] numbers;
+        private final int[] out;
+        private final int[] counts;
+        private final int chunkSize;
+        private final int fromChunk;
+        private final int toChunk;
+
+        ChunkTask(int[] numbers, int[] out, int[] counts, int chunkSize, int fromChunk, int toChunk) {
+            this.numbers = numbers;
+            this.out = out;
+            this.counts = counts;
+            this.chunkSize = chunkSize;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk == 1) {
+                int from = fromChunk * chunkSize;
+                int to = Math.min(numbers.length, from + chunkSize);
+                counts[fromChunk] = filterRange(numbers, from, to, out, from);
+                return;
+            }
+            int middle = (fromChunk + toChunk) >>> 1;
+            invokeAll(new ChunkTask(numbers, out, counts, chunkSize, fromChunk, middle),
+                    new ChunkTask(numbers, out, counts, chunkSize, middle, toChunk));
+        }
+    }
+
+    public static void main(String[] args) {
+        // Run with --add-modules jdk.incubator.vector to enable the SIMD kernel
+        System.out.println("Vector API available: " + isVectorized());
+
+        int[] numbers = new SplittableRandom(7).ints(20_000_000).toArray();
+        List<Integer> boxed = Arrays.stream(numbers).boxed().toList();
+
+        // Current pipeline from ModernEvenNumbers
+        long start = System.nanoTime();
+        List<Integer> expected = boxed.stream()
+                .filter(ModernEvenNumbers::isEven)
+                .toList();
+        long streamMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Preallocated buffer, reused across runs
+        int[] out = new int[numbers.length];
+        start = System.nanoTime();
+        int size = filter(numbers, out);
+        long parallelMillis = (System.nanoTime() - start) / 1_000_000;
+
+        boolean same = expected.size() == size;
+        for (int i = 0; same && i < size; i++) {
+            same = expected.get(i) == out[i];
+        }
+        System.out.println("Even values: " + size + ", identical to isEven stream: " + same);
+        System.out.println("Boxed stream: " + streamMillis + " ms, parallel filter: " + parallelMillis + " ms");
+        System.out.println("(single cold run; see EvenFilterBenchmark in Java_8_Benchmarks for measured numbers)");
+    }
+}
@@ -0,0 +1,170 @@
+package com.interview.streamcoding;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Sampling, ordering and explain output shared by {@link FusedIntFilter} and
+ * {@link FusedFilter}.
+ *
+ * <p>For a conjunction {@code p1 && p2 && ...} with cost {@code c} per evaluation
+ * and pass rate {@code s}, the expected cost is lowest when predicates run in
+ * ascending order of {@code c / (1 - s)}: cheap predicates that reject a lot come
+ * first. A predicate that never rejects goes last.
+ */
+final class PlanStatistics {
+
+    /** Evaluates predicate {@code predicate} (declaration order) on data row {@code row}. */
+    @FunctionalInterface
+    interface Probe {
+        boolean test(int predicate, int row);
+    }
+
+    // Rows probed per predicate; enough for ~3% error on the pass rate
+    static final int DEFAULT_SAMPLE_SIZE = 1024;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int TIMED_ROUNDS = 5;
+
+    private final String[] names;
+    // Declaration index of each plan step
+    private final int[] order;
+    private final double[] estimatedCostNanos;
+    // Estimated pass rate of each step among the rows that reach it
+    private final double[] estimatedPass;
+    private final int sampleSize;
+    private final long dataSize;
+
+    // Rows that reached each step, plus rows that passed all steps, over all runs
+    private final long[] reached;
+    private long runs;
+
+    private PlanStatistics(String[] names, int[] order, double[] estimatedCostNanos, double[] estimatedPass,
+            int sampleSize, long dataSize) {
+        this.names = names;
+        this.order = order;
+        this.estimatedCostNanos = estimatedCostNanos;
+        this.estimatedPass = estimatedPass;
+        this.sampleSize = sampleSize;
+        this.dataSize = dataSize;
+        this.reached = new long[order.length + 1];
+    }
+
+    /**
+     * Probes evenly spaced rows with every predicate and picks the cheapest order.
+     * @param names Predicate names in declaration order
+     * @param dataSize Number of rows in the data
+     * @param sampleSize Maximum rows to probe
+     * @param probe Runs one predicate on one row
+     */
+    static PlanStatistics sample(String[] names, int dataSize, int sampleSize, Probe probe) {
+        int count = names.length;
+        int rows = Math.min(dataSize, sampleSize);
+        int[] sampleRows = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            sampleRows[i] = (int) ((long) i * dataSize / rows);
+        }
+
+        boolean[][] passes = new boolean[count][rows];
+        double[] cost = new double[count];
+        double[] passRate = new double[count];
+        Arrays.fill(cost, Double.MAX_VALUE);
+        // Warm-up rounds let the JIT compile the predicates; timed rounds go round-robin
+        // and keep each predicate's fastest round, which filters out GC and scheduling noise
+        for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+            for (int p = 0; p < count; p++) {
+                boolean[] pass = passes[p];
+                long start = System.nanoTime();
+                for (int i = 0; i < rows; i++) {
+                    pass[i] = probe.test(p, sampleRows[i]);
+                }
+                long elapsed = System.nanoTime() - start;
+                if (round >= WARMUP_ROUNDS && rows > 0) {
+                    cost[p] = Math.min(cost[p], (double) elapsed / rows);
+                }
+            }
+        }
+        for (int p = 0; p < count; p++) {
+            int passed = 0;
+            for (boolean pass : passes[p]) {
+                passed += pass ? 1 : 0;
+            }
+            cost[p] = rows == 0 ? 0 : cost[p];
+            passRate[p] = rows == 0 ? 1 : (double) passed / rows;
+        }
+
+        int[] order = IntStream.range(0, count)
+                .boxed()
+                .sorted(Comparator.comparingDouble(p -> rank(cost[p], passRate[p])))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        // Pass rate of each step among the sample rows that survive the earlier steps,
+        // so correlated predicates are estimated correctly too
+        double[] stepCost = new double[count];
+        double[] stepPass = new double[count];
+        boolean[] alive = new boolean[rows];
+        Arrays.fill(alive, true);
+        for (int step = 0; step < count; step++) {
+            int p = order[step];
+            int reaching = 0;
+            int passing = 0;
+            for (int i = 0; i < rows; i++) {
+                if (alive[i]) {
+                    reaching++;
+                    alive[i] = passes[p][i];
+                    passing += alive[i] ? 1 : 0;
+                }
+            }
+            stepCost[step] = cost[p];
+            stepPass[step] = reaching == 0 ? passRate[p] : (double) passing / reaching;
+        }
+        return new PlanStatistics(names, order, stepCost, stepPass, rows, dataSize);
+    }
+
+    private static double rank(double cost, double passRate) {
+        double rejectRate = 1 - passRate;
+        return rejectRate <= 0 ? Double.POSITIVE_INFINITY : Math.max(cost, Double.MIN_VALUE) / rejectRate;
+    }
+
+    /**
+     * @return Declaration index of each step, in execution order
+     */
+    int[] order() {
+        return order.clone();
+    }
+
+    /**
+     * Adds the counts of one run.
+     * @param runReached Rows that reached each step; the last entry counts the output rows
+     */
+    synchronized void record(long[] runReached) {
+        for (int i = 0; i < reached.length; i++) {
+            reached[i] += runReached[i];
+        }
+        runs++;
+    }
+
+    synchronized String explain() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "Fused filter plan (sampled %d of %d rows, %d run%s)%n",
+                sampleSize, dataSize, runs, runs == 1 ? "" : "s"));
+        text.append(String.format(Locale.ROOT, "  %-2s %-20s %10s %10s %12s %14s%n",
+                "#", "predicate", "est. cost", "est. pass", "actual pass", "rows reached"));
+        double estimatedOutput = 1;
+        for (int step = 0; step < order.length; step++) {
+            estimatedOutput *= estimatedPass[step];
+            String actual = reached[step] == 0 ? "-"
+                    : String.format(Locale.ROOT, "%.1f%%", 100.0 * reached[step + 1] / reached[step]);
+            text.append(String.format(Locale.ROOT, "  %-2d %-20s %7.1f ns %9.1f%% %12s %14d%n",
+                    step + 1, names[order[step]], estimatedCostNanos[step], 100 * estimatedPass[step],
+                    actual, reached[step]));
+        }
+        String actualOutput = reached[0] == 0 ? "-"
+                : String.format(Locale.ROOT, "%.3f%%", 100.0 * reached[order.length] / reached[0]);
+        text.append(String.format(Locale.ROOT, "  output: est. %.3f%%, actual %s", 100 * estimatedOutput, actualOutput));
+        return text.toString();
+    }
+
+}
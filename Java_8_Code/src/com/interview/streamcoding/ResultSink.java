@@ -0,0 +1,401 @@
+package com.interview.streamcoding;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Drop-in replacement for {@code forEach(System.out::println)} in export jobs.
+ *
+ * <p>{@code System.out.println} takes the {@code PrintStream} lock, converts every
+ * value to a String and encodes it separately, and may flush on each line. This
+ * sink writes each line straight into a reusable byte buffer instead:
+ * <ul>
+ *   <li>ints and longs are written as ASCII digits, with no String created</li>
+ *   <li>ASCII Strings are copied char by char into the buffer; other Strings
+ *       are encoded with the sink's charset</li>
+ *   <li>Full buffers are written to a {@link WritableByteChannel} in one call,
+ *       {@value #DEFAULT_BUFFER_SIZE} bytes at a time by default</li>
+ *   <li>Every thread fills its own buffer, so a parallel stream needs no lock
+ *       until a batch is written</li>
+ * </ul>
+ * Lines are {@code String.valueOf(value)} followed by {@link System#lineSeparator()},
+ * in the charset of {@code System.out} unless one is given. The bytes are the same
+ * as {@code println} would produce:
+ * <pre>
+ * try (ResultSink sink = ResultSink.to(Path.of("evens.txt"))) {
+ *     IntStream.of(data).filter(ModernEvenNumbers::isEven).forEach(sink);
+ * }
+ * </pre>
+ *
+ * <p>Ordering: a sequential stream keeps its order. In a parallel stream each line
+ * is written whole, but lines come out in no particular order, as with
+ * {@code forEach(System.out::println)}. Per-thread buffers mean this is true even for
+ * {@code forEachOrdered}: use a sequential stream when order matters.
+ *
+ * <p>{@link #flush()} and {@link #close()} must not run while a stream is still
+ * writing to the sink.
+ */
+// IntConsumer.andThen and Consumer.andThen overload each other; neither is used here
+@SuppressWarnings("overloads")
+public final class ResultSink implements IntConsumer, Consumer<Object>, Flushable, AutoCloseable {
+
+    /** Bytes buffered per thread before a write to the channel. */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    // "-2147483648" and "-9223372036854775808"
+    private static final int MAX_INT_DIGITS = 11;
+    private static final int MAX_LONG_DIGITS = 20;
+
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+    private final Charset charset;
+    private final boolean asciiCompatible;
+    private final byte[] lineSeparator;
+    private final int bufferSize;
+
+    private final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(this::newBuffer);
+    private final List<Buffer> allBuffers = new CopyOnWriteArrayList<>();
+    private final Object writeLock = new Object();
+    private final LongAdder bytesWritten = new LongAdder();
+    private volatile boolean closed;
+
+    private ResultSink(WritableByteChannel channel, boolean closeChannel, Charset charset, int bufferSize) {
+        if (bufferSize < MAX_LONG_DIGITS + 2) {
+            throw new IllegalArgumentException("Buffer size too small: " + bufferSize);
+        }
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.charset = charset;
+        this.asciiCompatible = charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.ISO_8859_1)
+                || charset.equals(StandardCharsets.US_ASCII);
+        this.lineSeparator = System.lineSeparator().getBytes(charset);
+        this.bufferSize = bufferSize;
+    }
+
+    // =====================================================================
+    // Factory methods
+    // =====================================================================
+
+    /**
+     * Writes to standard output, in the same charset as {@code System.out}.
+     * Closing the sink flushes it but leaves standard output open.
+     * @return Sink for the console or a redirected stdout
+     */
+    public static ResultSink stdout() {
+        // Anything already printed must come out before our batches
+        System.out.flush();
+        FileChannel out = new FileOutputStream(FileDescriptor.out).getChannel();
+        return new ResultSink(out, false, System.out.charset(), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param file Target file (created or truncated), written in the charset of {@code System.out}
+     * @return Sink that owns and closes the file
+     */
+    public static ResultSink to(Path file) throws IOException {
+        return to(file, System.out.charset(), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param file Target file (created or truncated)
+     * @param charset Encoding of Strings and the line separator
+     * @param bufferSize Bytes buffered per thread before a write
+     * @return Sink that owns and closes the file
+     */
+    public static ResultSink to(Path file, Charset charset, int bufferSize) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new ResultSink(channel, true, charset, bufferSize);
+    }
+
+    /**
+     * @param channel Destination; closed when the sink is closed
+     * @param charset Encoding of Strings and the line separator
+     * @param bufferSize Bytes buffered per thread before a write
+     * @return Sink writing to {@code channel}
+     */
+    public static ResultSink to(WritableByteChannel channel, Charset charset, int bufferSize) {
+        return new ResultSink(channel, true, charset, bufferSize);
+    }
+
+    // =====================================================================
+    // Writing
+    // =====================================================================
+
+    /**
+     * Same output as {@code System.out.println(value)}.
+     */
+    @Override
+    public void accept(int value) {
+        Buffer buffer = buffers.get();
+        buffer.reserve(MAX_INT_DIGITS + lineSeparator.length);
+        buffer.size = writeDigits(value, buffer.bytes, buffer.size);
+        buffer.appendLineSeparator();
+    }
+
+    /**
+     * Same output as {@code System.out.println(value)}; use {@code forEach(sink::accept)}
+     * on a {@code LongStream}.
+     */
+    public void accept(long value) {
+        Buffer buffer = buffers.get();
+        buffer.reserve(MAX_LONG_DIGITS + lineSeparator.length);
+        buffer.size = writeDigits(value, buffer.bytes, buffer.size);
+        buffer.appendLineSeparator();
+    }
+
+    /**
+     * Same output as {@code System.out.println(value)}; boxed ints and longs take
+     * the digit fast path.
+     */
+    @Override
+    public void accept(Object value) {
+        if (value instanceof Integer number) {
+            accept(number.intValue());
+        } else if (value instanceof Long number) {
+            accept(number.longValue());
+        } else {
+            acceptString(String.valueOf(value));
+        }
+    }
+
+    private void acceptString(String text) {
+        Buffer buffer = buffers.get();
+        int length = text.length();
+        if (asciiCompatible && length + lineSeparator.length <= bufferSize) {
+            buffer.reserve(length + lineSeparator.length);
+            byte[] bytes = buffer.bytes;
+            int position = buffer.size;
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                if (c >= 0x80) {
+                    // Non-ASCII: encode the whole line with the charset instead
+                    buffer.appendEncoded(text);
+                    return;
+                }
+                bytes[position++] = (byte) c;
+            }
+            buffer.size = position;
+            buffer.appendLineSeparator();
+        } else {
+            buffer.appendEncoded(text);
+        }
+    }
+
+    /**
+     * Writes every thread's buffered lines to the channel.
+     */
+    @Override
+    public void flush() {
+        for (Buffer buffer : allBuffers) {
+            buffer.flush();
+        }
+    }
+
+    /**
+     * Flushes, then closes the channel unless the sink writes to standard output.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        allBuffers.clear();
+        if (closeChannel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @return Bytes handed to the channel so far (excluding lines still buffered)
+     */
+    public long bytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    private Buffer newBuffer() {
+        Buffer buffer = new Buffer(bufferSize);
+        allBuffers.add(buffer);
+        return buffer;
+    }
+
+    private void write(byte[] bytes, int length) {
+        synchronized (writeLock) {
+            if (closed) {
+                throw new IllegalStateException("Sink is closed");
+            }
+            ByteBuffer data = ByteBuffer.wrap(bytes, 0, length);
+            try {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        bytesWritten.add(length);
+    }
+
+    // =====================================================================
+    // Digit encoding (same text as Integer.toString / Long.toString)
+    // =====================================================================
+
+    /** @return Position after the last digit written at {@code position} */
+    static int writeDigits(int value, byte[] bytes, int position) {
+        // Work with the negative value so Integer.MIN_VALUE needs no special case
+        int negative = value < 0 ? value : -value;
+        int digits = 1;
+        for (int bound = -10; digits < 10 && negative <= bound; bound *= 10) {
+            digits++;
+        }
+        if (value < 0) {
+            bytes[position++] = '-';
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            bytes[i] = (byte) ('0' - negative % 10);
+            negative /= 10;
+        }
+        return end;
+    }
+
+    /** @return Position after the last digit written at {@code position} */
+    static int writeDigits(long value, byte[] bytes, int position) {
+        if (value == (int) value) {
+            return writeDigits((int) value, bytes, position);
+        }
+        long negative = value < 0 ? value : -value;
+        int digits = 1;
+        for (long bound = -10; digits < 19 && negative <= bound; bound *= 10) {
+            digits++;
+        }
+        if (value < 0) {
+            bytes[position++] = '-';
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            bytes[i] = (byte) ('0' - negative % 10);
+            negative /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * One thread's batch of complete lines.
+     */
+    private final class Buffer {
+
+        final byte[] bytes;
+        int size;
+
+        Buffer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        /** Makes room for {@code length} more bytes (at most the capacity). */
+        void reserve(int length) {
+            if (bytes.length - size < length) {
+                flush();
+            }
+        }
+
+        void appendLineSeparator() {
+            System.arraycopy(lineSeparator, 0, bytes, size, lineSeparator.length);
+            size += lineSeparator.length;
+        }
+
+        void appendEncoded(String text) {
+            byte[] encoded = text.getBytes(charset);
+            int length = encoded.length + lineSeparator.length;
+            if (length > bytes.length) {
+                // Longer than a whole batch: write it on its own, keeping the line intact
+                byte[] line = Arrays.copyOf(encoded, length);
+                System.arraycopy(lineSeparator, 0, line, encoded.length, lineSeparator.length);
+                flush();
+                write(line, length);
+                return;
+            }
+            reserve(length);
+            System.arraycopy(encoded, 0, bytes, size, encoded.length);
+            size += encoded.length;
+            appendLineSeparator();
+        }
+
+        void flush() {
+            if (size > 0) {
+                write(bytes, size);
+                size = 0;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Same as ModernEvenNumbers APPROACH 2, through the sink
+        try (ResultSink sink = stdout()) {
+            List.of(10, 15, 8, 49, 25, 98, 32).stream()
+                    .filter(num -> num % 2 == 0)
+                    .forEach(sink);
+            List.of("Amit", "Rahul", "Atharva", "Ananya").stream()
+                    .filter(name -> name.startsWith("A"))
+                    .forEach(sink);
+        }
+
+        int[] data = new SplittableRandom(42).ints(20_000_000).toArray();
+        Path printed = Files.createTempFile("println", ".txt");
+        Path batched = Files.createTempFile("sink", ".txt");
+
+        // println through a PrintStream, as forEach(System.out::println) does
+        long start = System.nanoTime();
+        try (PrintStream out = new PrintStream(Channels.newOutputStream(FileChannel.open(printed,
+                StandardOpenOption.WRITE)), true, System.out.charset())) {
+            Arrays.stream(data).filter(ModernEvenNumbers::isEven).forEach(out::println);
+        }
+        long printMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        try (ResultSink sink = to(batched)) {
+            Arrays.stream(data).filter(ModernEvenNumbers::isEven).forEach(sink);
+        }
+        long sinkMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%d MB of even numbers: println %d ms, ResultSink %d ms, identical bytes: %b%n",
+                Files.size(batched) >> 20, printMillis, sinkMillis, Files.mismatch(printed, batched) == -1);
+
+        // Parallel: every line intact, order not kept
+        try (ResultSink sink = to(batched)) {
+            Arrays.stream(data).parallel().filter(ModernEvenNumbers::isEven).forEach(sink);
+        }
+        try (var lines = Files.lines(batched)) {
+            System.out.println("Parallel write, even lines: " + lines.mapToInt(Integer::parseInt)
+                    .filter(ModernEvenNumbers::isEven).count());
+        }
+        Files.delete(printed);
+        Files.delete(batched);
+    }
+}
@@ -0,0 +1,760 @@
+package com.interview.streamcoding;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Compressed set of row numbers (non-negative ints), organized like a Roaring bitmap.
+ *
+ * <p>Rows are grouped into chunks of 65536 by their upper 16 bits. Each chunk is stored
+ * in whichever container is smallest for its contents:
+ * <ul>
+ *   <li><b>array</b>: sorted 16-bit values, 2 bytes per row (sparse chunks, up to 4096 rows)</li>
+ *   <li><b>bitmap</b>: 1024 longs, 8 KB no matter how many rows (dense, scattered chunks)</li>
+ *   <li><b>run</b>: (start, length) pairs, 4 bytes per run (chunks with long stretches of rows)</li>
+ * </ul>
+ *
+ * <p>{@link #and}, {@link #or}, {@link #andNot} and {@link #not} return new bitmaps and
+ * never change their inputs. They only visit chunks present in the inputs and work a
+ * word (64 rows) at a time, so combining predicates does not rescan any data.
+ *
+ * <p>Bitmaps handed out by {@link NumberBitmapIndex} are snapshots: later appends to
+ * the index do not change them, and they are safe to read from many threads.
+ */
+public final class RowBitmap {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int WORDS = (1 << CHUNK_BITS) / Long.SIZE;
+    // An array container never holds more values than this; above it a bitmap is smaller
+    private static final int ARRAY_LIMIT = 4096;
+
+    // Chunk keys (upper 16 bits) in ascending order, and their containers
+    private char[] keys;
+    private Container[] containers;
+    private int chunks;
+
+    RowBitmap() {
+        this(new char[4], new Container[4], 0);
+    }
+
+    private RowBitmap(char[] keys, Container[] containers, int chunks) {
+        this.keys = keys;
+        this.containers = containers;
+        this.chunks = chunks;
+    }
+
+    /**
+     * @param rows Rows in any order (duplicates are ignored)
+     * @return Bitmap holding {@code rows}
+     * @throws IllegalArgumentException if a row is negative
+     */
+    public static RowBitmap of(int... rows) {
+        int[] sorted = rows.clone();
+        Arrays.sort(sorted);
+        if (sorted.length > 0 && sorted[0] < 0) {
+            throw new IllegalArgumentException("Negative row: " + sorted[0]);
+        }
+        RowBitmap bitmap = new RowBitmap();
+        int previous = -1;
+        for (int row : sorted) {
+            if (row != previous) {
+                bitmap.append(row);
+                previous = row;
+            }
+        }
+        bitmap.optimize();
+        return bitmap;
+    }
+
+    /**
+     * @param from First row (inclusive)
+     * @param to Last row (exclusive)
+     * @return Bitmap holding every row in {@code [from, to)}, stored as runs
+     */
+    public static RowBitmap range(int from, int to) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("Invalid row range: [" + from + ", " + to + ")");
+        }
+        RowBitmap bitmap = new RowBitmap();
+        for (int start = from; start < to; ) {
+            int key = start >>> CHUNK_BITS;
+            int chunkEnd = (int) Math.min(to, (long) (key + 1) << CHUNK_BITS);
+            RunContainer run = new RunContainer();
+            run.addRun((char) start, chunkEnd - start);
+            bitmap.put((char) key, run);
+            start = chunkEnd;
+        }
+        return bitmap;
+    }
+
+    // =====================================================================
+    // Queries
+    // =====================================================================
+
+    /**
+     * @return Number of rows in the bitmap
+     */
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < chunks; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    /**
+     * @return true if the bitmap holds no rows
+     */
+    public boolean isEmpty() {
+        return chunks == 0;
+    }
+
+    /**
+     * @param row Row to look up
+     * @return true if {@code row} is in the bitmap
+     */
+    public boolean contains(int row) {
+        int index = indexOf((char) (row >>> CHUNK_BITS));
+        return row >= 0 && index >= 0 && containers[index].contains((char) row);
+    }
+
+    /**
+     * @param action Called for every row in ascending order
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < chunks; i++) {
+            containers[i].forEach(keys[i] << CHUNK_BITS, action);
+        }
+    }
+
+    /**
+     * @return Rows in ascending order
+     */
+    public int[] toArray() {
+        long cardinality = cardinality();
+        if (cardinality > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many rows for an array: " + cardinality);
+        }
+        int[] rows = new int[(int) cardinality];
+        int[] position = new int[1];
+        forEach(row -> rows[position[0]++] = row);
+        return rows;
+    }
+
+    /**
+     * @return Rows in ascending order
+     */
+    public IntStream stream() {
+        return IntStream.of(toArray());
+    }
+
+    /**
+     * @return Approximate memory used by the containers
+     */
+    public long sizeInBytes() {
+        long total = 0;
+        for (int i = 0; i < chunks; i++) {
+            total += 2 + containers[i].sizeInBytes();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        int[] byType = new int[3];
+        for (int i = 0; i < chunks; i++) {
+            byType[containers[i].type()]++;
+        }
+        return "RowBitmap[rows=" + cardinality() + ", bytes=" + sizeInBytes()
+                + ", array=" + byType[ArrayContainer.TYPE] + ", bitmap=" + byType[BitmapContainer.TYPE]
+                + ", run=" + byType[RunContainer.TYPE] + "]";
+    }
+
+    // =====================================================================
+    // Set operations
+    // =====================================================================
+
+    /**
+     * @param other Bitmap to intersect with
+     * @return Rows in both bitmaps
+     */
+    public RowBitmap and(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunks && j < other.chunks) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.putIfNotEmpty(keys[i], and(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param other Bitmap to unite with
+     * @return Rows in either bitmap
+     */
+    public RowBitmap or(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunks || j < other.chunks) {
+            if (j == other.chunks || i < chunks && keys[i] < other.keys[j]) {
+                result.put(keys[i], containers[i]);
+                i++;
+            } else if (i == chunks || keys[i] > other.keys[j]) {
+                result.put(other.keys[j], other.containers[j]);
+                j++;
+            } else {
+                result.put(keys[i], or(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param other Bitmap of rows to remove
+     * @return Rows in this bitmap but not in {@code other}
+     */
+    public RowBitmap andNot(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int j = 0;
+        for (int i = 0; i < chunks; i++) {
+            while (j < other.chunks && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.chunks && other.keys[j] == keys[i]) {
+                result.putIfNotEmpty(keys[i], andNot(containers[i], other.containers[j]));
+            } else {
+                result.put(keys[i], containers[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param rowCount Number of rows in the dataset
+     * @return Rows in {@code [0, rowCount)} that are not in this bitmap
+     */
+    public RowBitmap not(int rowCount) {
+        return range(0, rowCount).andNot(this);
+    }
+
+    // Containers are shared between bitmaps, so none of these may modify its inputs
+
+    private static Container and(Container a, Container b) {
+        if (a instanceof ArrayContainer array) {
+            return array.filter(b, true);
+        }
+        if (b instanceof ArrayContainer array) {
+            return array.filter(a, true);
+        }
+        long[] words = a.words();
+        long[] others = b.words();
+        for (int w = 0; w < WORDS; w++) {
+            words[w] &= others[w];
+        }
+        return fromWords(words);
+    }
+
+    private static Container or(Container a, Container b) {
+        if (a instanceof ArrayContainer left && b instanceof ArrayContainer right
+                && left.cardinality() + right.cardinality() <= ARRAY_LIMIT) {
+            return left.merge(right);
+        }
+        long[] words = a.words();
+        long[] others = b.words();
+        for (int w = 0; w < WORDS; w++) {
+            words[w] |= others[w];
+        }
+        return fromWords(words);
+    }
+
+    private static Container andNot(Container a, Container b) {
+        if (a instanceof ArrayContainer array) {
+            return array.filter(b, false);
+        }
+        long[] words = a.words();
+        long[] others = b.words();
+        for (int w = 0; w < WORDS; w++) {
+            words[w] &= ~others[w];
+        }
+        return fromWords(words);
+    }
+
+    /** Picks the smallest container for a 65536-bit chunk; null if it is empty. */
+    private static Container fromWords(long[] words) {
+        int cardinality = 0;
+        int runs = 0;
+        long previousTopBit = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+            // A run starts at every 0 -> 1 transition, including across word boundaries
+            runs += Long.bitCount(word & ~(word << 1 | previousTopBit));
+            previousTopBit = word >>> 63;
+        }
+        if (cardinality == 0) {
+            return null;
+        }
+        int runBytes = 4 * runs;
+        int arrayBytes = cardinality <= ARRAY_LIMIT ? 2 * cardinality : Integer.MAX_VALUE;
+        int bitmapBytes = 8 * WORDS;
+        if (runBytes < arrayBytes && runBytes < bitmapBytes) {
+            return RunContainer.fromWords(words, runs);
+        }
+        if (arrayBytes <= bitmapBytes) {
+            return ArrayContainer.fromWords(words, cardinality);
+        }
+        return new BitmapContainer(words, cardinality);
+    }
+
+    // =====================================================================
+    // Building (used by NumberBitmapIndex)
+    // =====================================================================
+
+    /**
+     * Adds a row greater than every row already present. Only the last container
+     * changes, which is what keeps {@link #snapshot()} cheap.
+     */
+    void append(int row) {
+        if (row < 0) {
+            // Its chunk key would sort after every other key
+            throw new IllegalArgumentException("Negative row: " + row);
+        }
+        char key = (char) (row >>> CHUNK_BITS);
+        if (chunks > 0 && keys[chunks - 1] == key) {
+            containers[chunks - 1] = containers[chunks - 1].append((char) row);
+            return;
+        }
+        if (chunks > 0) {
+            // The previous chunk is complete: store it in its final form
+            containers[chunks - 1] = containers[chunks - 1].optimize();
+        }
+        ArrayContainer container = new ArrayContainer();
+        container.append((char) row);
+        put(key, container);
+    }
+
+    /**
+     * Converts every container to its smallest form.
+     */
+    void optimize() {
+        for (int i = 0; i < chunks; i++) {
+            containers[i] = containers[i].optimize();
+        }
+    }
+
+    /**
+     * Copies the chunk directory and the last container (the only one {@link #append}
+     * can still change); every other container is shared.
+     */
+    RowBitmap snapshot() {
+        Container[] copy = Arrays.copyOf(containers, chunks);
+        if (chunks > 0) {
+            copy[chunks - 1] = copy[chunks - 1].copy();
+        }
+        return new RowBitmap(Arrays.copyOf(keys, chunks), copy, chunks);
+    }
+
+    private void put(char key, Container container) {
+        if (chunks == keys.length) {
+            keys = Arrays.copyOf(keys, chunks * 2);
+            containers = Arrays.copyOf(containers, chunks * 2);
+        }
+        keys[chunks] = key;
+        containers[chunks++] = container;
+    }
+
+    private void putIfNotEmpty(char key, Container container) {
+        if (container != null) {
+            put(key, container);
+        }
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, chunks, key);
+    }
+
+    // =====================================================================
+    // Containers (one 65536-row chunk each, values are the lower 16 bits)
+    // =====================================================================
+
+    private abstract static class Container {
+
+        abstract int type();
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        /** Adds a value above all others; may return a different container type. */
+        abstract Container append(char value);
+
+        /** @return A new 1024-long bitmap of the values (callers may modify it) */
+        abstract long[] words();
+
+        abstract void forEach(int base, IntConsumer action);
+
+        abstract Container copy();
+
+        abstract int sizeInBytes();
+
+        Container optimize() {
+            Container best = fromWords(words());
+            return best.sizeInBytes() < sizeInBytes() ? best : this;
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        static final int TYPE = 0;
+
+        char[] values;
+        int size;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        static ArrayContainer fromWords(long[] words, int cardinality) {
+            char[] values = new char[cardinality];
+            int size = 0;
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    values[size++] = (char) (w * Long.SIZE + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values, size);
+        }
+
+        @Override
+        int type() {
+            return TYPE;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        Container append(char value) {
+            if (size == ARRAY_LIMIT) {
+                BitmapContainer bitmap = new BitmapContainer(words(), size);
+                return bitmap.append(value);
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, size * 2));
+            }
+            values[size++] = value;
+            return this;
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(base | values[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, size), size);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return 2 * size;
+        }
+
+        /** Keeps the values that are (or, with {@code keep} false, are not) in {@code other}. */
+        Container filter(Container other, boolean keep) {
+            char[] result = new char[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i]) == keep) {
+                    result[count++] = values[i];
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(count == size ? result : Arrays.copyOf(result, count), count);
+        }
+
+        Container merge(ArrayContainer other) {
+            char[] result = new char[size + other.size];
+            int i = 0;
+            int j = 0;
+            int count = 0;
+            while (i < size && j < other.size) {
+                char a = values[i];
+                char b = other.values[j];
+                if (a <= b) {
+                    i++;
+                    if (a == b) {
+                        j++;
+                    }
+                    result[count++] = a;
+                } else {
+                    j++;
+                    result[count++] = b;
+                }
+            }
+            while (i < size) {
+                result[count++] = values[i++];
+            }
+            while (j < other.size) {
+                result[count++] = other.values[j++];
+            }
+            return new ArrayContainer(Arrays.copyOf(result, count), count);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        static final int TYPE = 1;
+
+        final long[] bits;
+        int cardinality;
+
+        BitmapContainer(long[] bits, int cardinality) {
+            this.bits = bits;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int type() {
+            return TYPE;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (bits[value >>> 6] & 1L << value) != 0;
+        }
+
+        @Override
+        Container append(char value) {
+            bits[value >>> 6] |= 1L << value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        long[] words() {
+            return bits.clone();
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = bits[w]; word != 0; word &= word - 1) {
+                    action.accept(base | w * Long.SIZE + Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(bits.clone(), cardinality);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return 8 * WORDS;
+        }
+    }
+
+    private static final class RunContainer extends Container {
+
+        static final int TYPE = 2;
+
+        // Pairs of (start, length - 1), sorted and non-adjacent
+        char[] runs;
+        int runCount;
+        int cardinality;
+
+        RunContainer() {
+            this(new char[4], 0, 0);
+        }
+
+        RunContainer(char[] runs, int runCount, int cardinality) {
+            this.runs = runs;
+            this.runCount = runCount;
+            this.cardinality = cardinality;
+        }
+
+        static RunContainer fromWords(long[] words, int runCount) {
+            RunContainer container = new RunContainer(new char[2 * runCount], 0, 0);
+            for (int start = nextSetBit(words, 0); start >= 0; ) {
+                int end = nextClearBit(words, start);
+                container.addRun((char) start, end - start);
+                start = nextSetBit(words, end);
+            }
+            return container;
+        }
+
+        private static int nextSetBit(long[] words, int from) {
+            int w = from >>> 6;
+            if (w >= WORDS) {
+                return -1;
+            }
+            long word = words[w] & -1L << from;
+            while (word == 0) {
+                if (++w == WORDS) {
+                    return -1;
+                }
+                word = words[w];
+            }
+            return w * Long.SIZE + Long.numberOfTrailingZeros(word);
+        }
+
+        private static int nextClearBit(long[] words, int from) {
+            int w = from >>> 6;
+            long word = ~words[w] & -1L << from;
+            while (word == 0) {
+                if (++w == WORDS) {
+                    return WORDS * Long.SIZE;
+                }
+                word = ~words[w];
+            }
+            return w * Long.SIZE + Long.numberOfTrailingZeros(word);
+        }
+
+        void addRun(char start, int length) {
+            if (2 * runCount == runs.length) {
+                runs = Arrays.copyOf(runs, Math.max(4, runs.length * 2));
+            }
+            runs[2 * runCount] = start;
+            runs[2 * runCount + 1] = (char) (length - 1);
+            runCount++;
+            cardinality += length;
+        }
+
+        @Override
+        int type() {
+            return TYPE;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            // Last run starting at or before value
+            int low = 0;
+            int high = runCount - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (runs[2 * middle] <= value) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return high >= 0 && value - runs[2 * high] <= runs[2 * high + 1];
+        }
+
+        @Override
+        Container append(char value) {
+            if (runCount > 0) {
+                int last = runs[2 * runCount - 2] + runs[2 * runCount - 1];
+                if (value == last + 1) {
+                    runs[2 * runCount - 1]++;
+                    cardinality++;
+                    return this;
+                }
+            }
+            if (4 * (runCount + 1) > 8 * WORDS) {
+                return new BitmapContainer(words(), cardinality).append(value);
+            }
+            addRun(value, 1);
+            return this;
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[WORDS];
+            for (int r = 0; r < runCount; r++) {
+                int start = runs[2 * r];
+                int end = start + runs[2 * r + 1] + 1;
+                int firstWord = start >>> 6;
+                int lastWord = (end - 1) >>> 6;
+                long firstMask = -1L << start;
+                long lastMask = -1L >>> -end;
+                if (firstWord == lastWord) {
+                    words[firstWord] |= firstMask & lastMask;
+                } else {
+                    words[firstWord] |= firstMask;
+                    Arrays.fill(words, firstWord + 1, lastWord, -1L);
+                    words[lastWord] |= lastMask;
+                }
+            }
+            return words;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int r = 0; r < runCount; r++) {
+                int start = runs[2 * r];
+                int end = start + runs[2 * r + 1];
+                for (int value = start; value <= end; value++) {
+                    action.accept(base | value);
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(runs, 2 * runCount), runCount, cardinality);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return 4 * runCount;
+        }
+    }
+
+    public static void main(String[] args) {
+        RowBitmap sparse = RowBitmap.of(3, 70_000, 5, 1_000_000, 3);
+        RowBitmap dense = RowBitmap.range(0, 200_000);
+        System.out.println("Sparse: " + Arrays.toString(sparse.toArray()) + " " + sparse);
+        System.out.println("Dense:  " + dense);
+        System.out.println("AND:    " + Arrays.toString(sparse.and(dense).toArray()));
+        System.out.println("OR:     " + sparse.or(dense));
+        System.out.println("ANDNOT: " + dense.andNot(sparse).cardinality());
+        System.out.println("NOT(sparse) in 1,000,001 rows: " + sparse.not(1_000_001));
+    }
+}
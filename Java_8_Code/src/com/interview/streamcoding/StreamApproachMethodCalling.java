@@ -1,6 +1,8 @@
 package com.interview.streamcoding;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 import java.util.stream.Collectors;
 
 /**
@@ -16,12 +18,29 @@ public class StreamApproachMethodCalling {
      */
     public static List<Integer> findNumbersStartingWithOne(List<Integer> numbers) {
         return numbers.stream()
-                // Convert to absolute value to handle negative numbers
-                .filter(num -> String.valueOf(Math.abs(num)).startsWith("1"))
-                // Collect results into a List
+                // Arithmetic digit check: no String per element, sign ignored
+                .filter(num -> LeadingDigitFilter.ONE.test(num.intValue()))
+                // Collect results into a mutable List
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Primitive overload: no {@code Integer} is created for the input or the result.
+     * @param numbers Integers to process
+     * @return Integers that start with '1' (absolute value), in their original order
+     */
+    public static IntList findNumbersStartingWithOne(int[] numbers) {
+        return findNumbersStartingWithOne(Arrays.stream(numbers));
+    }
+
+    /**
+     * @param numbers Integers to process
+     * @return Integers that start with '1' (absolute value), in encounter order
+     */
+    public static IntList findNumbersStartingWithOne(IntStream numbers) {
+        return IntList.collect(numbers.filter(LeadingDigitFilter.ONE::test));
+    }
+
     public static void main(String[] args) {
         // Input list of numbers (both positive and negative)
         List<Integer> numbers = List.of(15, 3, 100, 2, 19, 21, -123, -100, 0);
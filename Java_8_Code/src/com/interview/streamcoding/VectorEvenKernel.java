@@ -0,0 +1,56 @@
+package com.interview.streamcoding;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernel used by {@link ParallelEvenFilter}.
+ *
+ * <p>Only loaded when the {@code jdk.incubator.vector} module is present at runtime
+ * (start the JVM with {@code --add-modules jdk.incubator.vector}); otherwise
+ * {@link ParallelEvenFilter} uses its scalar loop and this class is never touched.
+ */
+final class VectorEvenKernel {
+
+    // Widest vector shape the CPU supports (8 ints with AVX2, 16 with AVX-512)
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorEvenKernel() {
+    }
+
+    /**
+     * Copies the even values of {@code numbers[from, to)} to {@code out}, starting at {@code outPos}.
+     *
+     * <p>Each step loads one vector, builds a lane mask of the even lanes
+     * ({@code (num & 1) == 0}, the same result as {@code num % 2 == 0} for negatives too),
+     * compresses the even lanes to the front and stores only those lanes.
+     *
+     * @return Number of values written
+     */
+    static int filterRange(int[] numbers, int from, int to, int[] out, int outPos) {
+        int i = from;
+        int write = outPos;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector v = IntVector.fromArray(SPECIES, numbers, i);
+            VectorMask<Integer> even = v.lanewise(VectorOperators.AND, 1).compare(VectorOperators.EQ, 0);
+            int matches = even.trueCount();
+            if (matches == 0) {
+                continue;
+            }
+            // compress() moves the selected lanes to the front; the compressed mask
+            // covers exactly those lanes, so nothing past the last match is written
+            v.compress(even).intoArray(out, write, even.compress());
+            write += matches;
+        }
+        // Scalar tail for the last few elements that do not fill a vector
+        for (; i < to; i++) {
+            if (ModernEvenNumbers.isEven(numbers[i])) {
+                out[write++] = numbers[i];
+            }
+        }
+        return write - outPos;
+    }
+}
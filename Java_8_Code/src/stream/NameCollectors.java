@@ -0,0 +1,382 @@
+package stream;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Histogram collectors for name data: counts by first letter, counts by prefix and
+ * the most common prefixes.
+ *
+ * <p>The usual way to write these,
+ * <pre>
+ * names.parallelStream().collect(Collectors.groupingBy(name -&gt; name.charAt(0), Collectors.counting()))
+ * </pre>
+ * boxes the key and the count of every name, builds a {@code HashMap} per stream task and
+ * merges the maps at the end. The collectors here count into primitives instead:
+ * <ul>
+ *   <li>{@link #byFirstLetter()}: one shared table of {@link LongAdder}s indexed
+ *       directly by the first char, in blocks of 256 chars allocated on first use (names
+ *       in one script touch one or two blocks). The collector is {@code CONCURRENT}, so
+ *       every thread adds into the same table; each {@code LongAdder} stripes its count
+ *       per contending thread, so there is no shared hot counter.</li>
+ *   <li>{@link #byPrefix(int)}: one {@link PrefixCounter} per stream task, with
+ *       {@code long} counts; a prefix String is only created when a task first sees it.</li>
+ *   <li>{@link #topPrefixes(int, int)}: the exact prefix counts, reduced to the top k
+ *       with a bounded heap ({@link TopK}) instead of sorting every prefix. Only the
+ *       heap is bounded: the counts take memory per distinct prefix.</li>
+ *   <li>{@link #topPrefixes(int, int, int)}: approximate top k in a fixed number of
+ *       counters ({@link PrefixHeavyHitters}, Space-Saving), for when the distinct
+ *       prefixes do not fit in memory.</li>
+ * </ul>
+ * Names must not be null. An empty name has no first letter and is only counted in
+ * {@link LetterCounts#empty()}.
+ */
+public final class NameCollectors {
+
+    private NameCollectors() {
+    }
+
+    /**
+     * @param prefix Name prefix (the whole name when it is shorter than the prefix length)
+     * @param count Names starting with it
+     */
+    public record PrefixCount(String prefix, long count) {
+
+        /** Higher count first; alphabetical among equal counts. */
+        static final Comparator<PrefixCount> BY_COUNT = Comparator.comparingLong(PrefixCount::count)
+                .thenComparing(PrefixCount::prefix, Comparator.reverseOrder());
+    }
+
+    /**
+     * @return Concurrent collector counting names by their first char
+     */
+    public static Collector<CharSequence, ?, LetterCounts> byFirstLetter() {
+        return Collector.of(LetterCounter::new, LetterCounter::add, LetterCounter::merge, LetterCounter::snapshot,
+                Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * @param length Prefix length in chars
+     * @return Collector counting names by their first {@code length} chars
+     */
+    public static Collector<CharSequence, ?, PrefixCounts> byPrefix(int length) {
+        checkLength(length);
+        return Collector.of(() -> new PrefixCounter(length), PrefixCounter::add,
+                (left, right) -> {
+                    // Merge the smaller table into the larger one
+                    if (left.size() < right.size()) {
+                        right.addAll(left);
+                        return right;
+                    }
+                    left.addAll(right);
+                    return left;
+                },
+                PrefixCounts::new, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Exact: memory grows with the number of distinct prefixes; see
+     * {@link #topPrefixes(int, int, int)} for a fixed bound.
+     * @param length Prefix length in chars
+     * @param k Number of prefixes to return
+     * @return Collector returning the {@code k} most common prefixes, most common first
+     */
+    public static Collector<CharSequence, ?, List<PrefixCount>> topPrefixes(int length, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        return Collectors.collectingAndThen(byPrefix(length), counts -> counts.top(k));
+    }
+
+    /**
+     * Approximate, in O(capacity) memory per stream task. Every prefix making up more
+     * than {@code 1 / capacity} of the names is found; reported counts may be too high
+     * by at most {@code names / capacity}. A capacity of a few times k gives the exact
+     * top k on skewed data.
+     * @param length Prefix length in chars
+     * @param k Number of prefixes to return
+     * @param capacity Counters kept, at least {@code k}
+     * @return Collector returning about the {@code k} most common prefixes, most common first
+     */
+    public static Collector<CharSequence, ?, List<PrefixCount>> topPrefixes(int length, int k, int capacity) {
+        checkLength(length);
+        if (k <= 0 || capacity < k) {
+            throw new IllegalArgumentException("Need 0 < k <= capacity: k=" + k + ", capacity=" + capacity);
+        }
+        return Collector.of(() -> new PrefixHeavyHitters(length, capacity), PrefixHeavyHitters::add,
+                PrefixHeavyHitters::merge, summary -> summary.top(k), Collector.Characteristics.UNORDERED);
+    }
+
+    private static void checkLength(int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Prefix length must be positive: " + length);
+        }
+    }
+
+    // =====================================================================
+    // First-letter counting
+    // =====================================================================
+
+    /**
+     * Shared, lock-free accumulation container of {@link #byFirstLetter()}.
+     */
+    private static final class LetterCounter {
+
+        private static final int BLOCK_BITS = 8;
+        private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+        // Block per 256 chars, then one adder per char; both created on first use
+        private final AtomicReferenceArray<AtomicReferenceArray<LongAdder>> blocks =
+                new AtomicReferenceArray<>((Character.MAX_VALUE + 1) >>> BLOCK_BITS);
+        private final LongAdder empty = new LongAdder();
+
+        void add(CharSequence name) {
+            if (name.length() == 0) {
+                empty.increment();
+            } else {
+                adder(name.charAt(0)).increment();
+            }
+        }
+
+        private LongAdder adder(char letter) {
+            AtomicReferenceArray<LongAdder> block = blocks.get(letter >>> BLOCK_BITS);
+            if (block == null) {
+                AtomicReferenceArray<LongAdder> created = new AtomicReferenceArray<>(BLOCK_SIZE);
+                block = blocks.compareAndExchange(letter >>> BLOCK_BITS, null, created);
+                if (block == null) {
+                    block = created;
+                }
+            }
+            int index = letter & (BLOCK_SIZE - 1);
+            LongAdder adder = block.get(index);
+            if (adder == null) {
+                LongAdder created = new LongAdder();
+                adder = block.compareAndExchange(index, null, created);
+                if (adder == null) {
+                    adder = created;
+                }
+            }
+            return adder;
+        }
+
+        /** Calls {@code action} for every letter seen so far, in ascending order. */
+        private void forEach(LetterAction action) {
+            for (int b = 0; b < blocks.length(); b++) {
+                AtomicReferenceArray<LongAdder> block = blocks.get(b);
+                if (block == null) {
+                    continue;
+                }
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    LongAdder adder = block.get(i);
+                    if (adder != null) {
+                        action.accept((char) (b << BLOCK_BITS | i), adder.sum());
+                    }
+                }
+            }
+        }
+
+        LetterCounter merge(LetterCounter other) {
+            other.forEach((letter, count) -> adder(letter).add(count));
+            empty.add(other.empty.sum());
+            return this;
+        }
+
+        // Finisher: runs once every add has completed
+        LetterCounts snapshot() {
+            int[] used = new int[1];
+            forEach((letter, count) -> used[0]++);
+            char[] letters = new char[used[0]];
+            long[] totals = new long[used[0]];
+            int[] next = new int[1];
+            forEach((letter, count) -> {
+                letters[next[0]] = letter;
+                totals[next[0]++] = count;
+            });
+            return new LetterCounts(letters, totals, empty.sum());
+        }
+    }
+
+    @FunctionalInterface
+    private interface LetterAction {
+        void accept(char letter, long count);
+    }
+
+    /**
+     * Result of {@link #byFirstLetter()}: immutable counts per first char.
+     */
+    public static final class LetterCounts {
+
+        // Letters that occurred, ascending, and their counts
+        private final char[] letters;
+        private final long[] counts;
+        private final long empty;
+
+        private LetterCounts(char[] letters, long[] counts, long empty) {
+            this.letters = letters;
+            this.counts = counts;
+            this.empty = empty;
+        }
+
+        /**
+         * @param letter First char
+         * @return Names starting with {@code letter}
+         */
+        public long count(char letter) {
+            int index = Arrays.binarySearch(letters, letter);
+            return index < 0 ? 0 : counts[index];
+        }
+
+        /**
+         * @return Empty names seen
+         */
+        public long empty() {
+            return empty;
+        }
+
+        /**
+         * @return All names seen, including empty ones
+         */
+        public long total() {
+            long total = empty;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * @return Counts by letter in ascending letter order, as {@code groupingBy} would give them
+         */
+        public Map<Character, Long> asMap() {
+            Map<Character, Long> map = new LinkedHashMap<>();
+            for (int i = 0; i < letters.length; i++) {
+                map.put(letters[i], counts[i]);
+            }
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return asMap().toString();
+        }
+    }
+
+    // =====================================================================
+    // Prefix counting
+    // =====================================================================
+
+    /**
+     * Result of {@link #byPrefix(int)}: counts per prefix. Not thread-safe to build,
+     * safe to read once the stream has finished.
+     */
+    public static final class PrefixCounts {
+
+        private final PrefixCounter counter;
+
+        private PrefixCounts(PrefixCounter counter) {
+            this.counter = counter;
+        }
+
+        /**
+         * @param prefix Prefix of the configured length (or a whole shorter name)
+         * @return Names counted under {@code prefix}
+         */
+        public long count(String prefix) {
+            return counter.count(prefix);
+        }
+
+        /**
+         * @return Number of distinct prefixes
+         */
+        public int size() {
+            return counter.size();
+        }
+
+        /**
+         * O(p log k) for p distinct prefixes, keeping only k entries.
+         * @param k Number of prefixes to return
+         * @return The {@code k} most common prefixes, most common first
+         */
+        public List<PrefixCount> top(int k) {
+            TopK<PrefixCount> top = new TopK<>(k, PrefixCount.BY_COUNT);
+            counter.forEach((prefix, count) -> top.offer(new PrefixCount(prefix, count)));
+            return top.toList();
+        }
+
+        /**
+         * @return Counts by prefix, in alphabetical order
+         */
+        public Map<String, Long> asMap() {
+            Map<String, Long> map = new TreeMap<>();
+            counter.forEach(map::put);
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return asMap().toString();
+        }
+    }
+
+    public static void main(String[] args) {
+        // Names from StreamExample and friends, with random suffixes for variety
+        String[] pool = {"Amit", "Rahul", "Sneha", "Priya", "Atharva", "Pooja", "Ananya", "Vikram", "Arjun", "Riya"};
+        SplittableRandom random = new SplittableRandom(42);
+        String[] suffixes = new String[1000];
+        for (int i = 0; i < suffixes.length; i++) {
+            suffixes[i] = Integer.toString(i);
+        }
+        String[] distinct = new String[pool.length * suffixes.length];
+        for (int i = 0; i < distinct.length; i++) {
+            distinct[i] = pool[i % pool.length] + suffixes[i / pool.length];
+        }
+        // 20M references to 10K distinct strings, skewed towards the first names in the pool
+        List<String> names = Arrays.asList(random.ints(20_000_000, 0, distinct.length)
+                .map(i -> (int) ((long) i * i / distinct.length))
+                .mapToObj(i -> distinct[i])
+                .toArray(String[]::new));
+
+        long start = System.nanoTime();
+        Map<Character, Long> grouped = names.parallelStream()
+                .collect(Collectors.groupingByConcurrent(name -> name.charAt(0), Collectors.counting()));
+        long groupingMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        LetterCounts letters = names.parallelStream().collect(byFirstLetter());
+        long letterMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("By first letter: " + letters);
+        System.out.printf("  groupingByConcurrent %d ms, byFirstLetter %d ms, same counts: %b%n",
+                groupingMillis, letterMillis, new TreeMap<>(grouped).equals(letters.asMap()));
+
+        start = System.nanoTime();
+        Map<String, Long> groupedPrefixes = names.parallelStream()
+                .collect(Collectors.groupingBy(name -> name.substring(0, Math.min(3, name.length())),
+                        Collectors.counting()));
+        groupingMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        PrefixCounts prefixes = names.parallelStream().collect(byPrefix(3));
+        long prefixMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("By 3-char prefix: %d prefixes; groupingBy %d ms, byPrefix %d ms, same counts: %b%n",
+                prefixes.size(), groupingMillis, prefixMillis, new TreeMap<>(groupedPrefixes).equals(prefixes.asMap()));
+
+        System.out.println("Top 5 of 5-char prefixes: " + names.parallelStream().collect(topPrefixes(5, 5)));
+        List<String> expected = names.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(3).map(Map.Entry::getKey).toList();
+        System.out.println("Top 3 names: " + names.parallelStream().collect(topPrefixes(Integer.MAX_VALUE, 3))
+                + ", by sorting all counts: " + expected);
+        System.out.println("Top 3 names in 1024 counters per task: "
+                + names.parallelStream().collect(topPrefixes(Integer.MAX_VALUE, 3, 1024)));
+    }
+}
@@ -0,0 +1,295 @@
+package stream;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prefix index for answering "names starting with X" without scanning every name.
+ *
+ * <p>{@code StreamExample} and {@code Java16StreamExample} run
+ * {@code names.stream().filter(name -> name.startsWith("A"))}, which looks at all
+ * n names on every query. This index sorts the names once; all names sharing a
+ * prefix are then next to each other, and two binary searches find that block.
+ *
+ * <p>Cost per query:
+ * <ul>
+ *   <li>{@link #count(String)}: O(log n), nothing is materialized</li>
+ *   <li>{@link #startsWithSorted(String)}: O(log n) plus a view over the k matches</li>
+ *   <li>{@link #startsWith(String)}: O(log n + min(k log k, n)), same order and form as
+ *       the stream pipeline ({@code toList()}: original order, unmodifiable). Small
+ *       match blocks are sorted back into input order; once sorting would cost more
+ *       than a pass over the names, the names are scanned in input order instead and
+ *       kept if their sorted rank falls inside the block.</li>
+ * </ul>
+ *
+ * <p>The index holds references to the original String objects, so it costs four
+ * int/reference arrays per name: the names, the sorted names, their positions and
+ * ranks (seven when case-insensitive lookups add folded names, positions and ranks).
+ * It is immutable and safe to query from many threads.
+ */
+public final class NamePrefixIndex {
+
+    // Names in their original order (what the stream pipeline would iterate)
+    private final String[] names;
+    // Same names sorted, and the original position of each sorted entry
+    private final String[] sortedNames;
+    private final int[] sortedPositions;
+    // Inverse of sortedPositions: sorted rank of each original position
+    private final int[] sortedRanks;
+    // Lower-cased keys for case-insensitive queries (null when disabled)
+    private final String[] foldedNames;
+    private final int[] foldedPositions;
+    private final int[] foldedRanks;
+
+    private NamePrefixIndex(Collection<String> source, boolean caseInsensitive) {
+        this.names = source.toArray(new String[0]);
+        for (String name : names) {
+            if (name == null) {
+                throw new NullPointerException("Names must not be null");
+            }
+        }
+        // Stable sort: equal names keep their original relative order
+        this.sortedPositions = sortPositions(names);
+        this.sortedNames = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            sortedNames[i] = names[sortedPositions[i]];
+        }
+        this.sortedRanks = invert(sortedPositions);
+
+        if (caseInsensitive) {
+            String[] folded = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                folded[i] = fold(names[i]);
+            }
+            this.foldedPositions = sortPositions(folded);
+            this.foldedNames = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                foldedNames[i] = folded[foldedPositions[i]];
+            }
+            this.foldedRanks = invert(foldedPositions);
+        } else {
+            this.foldedNames = null;
+            this.foldedPositions = null;
+            this.foldedRanks = null;
+        }
+    }
+
+    /**
+     * @param names Names to index (order is remembered for {@link #startsWith(String)})
+     * @return Case-sensitive index
+     */
+    public static NamePrefixIndex of(Collection<String> names) {
+        return new NamePrefixIndex(names, false);
+    }
+
+    /**
+     * @param names Names to index (order is remembered for {@link #startsWith(String)})
+     * @return Index that also answers the *IgnoreCase queries
+     */
+    public static NamePrefixIndex withIgnoreCase(Collection<String> names) {
+        return new NamePrefixIndex(names, true);
+    }
+
+    /**
+     * @return Number of indexed names
+     */
+    public int size() {
+        return names.length;
+    }
+
+    // =====================================================================
+    // Case-sensitive queries (same semantics as String.startsWith)
+    // =====================================================================
+
+    /**
+     * @param prefix Prefix to look for
+     * @return Number of names starting with {@code prefix}
+     */
+    public int count(String prefix) {
+        return upperBound(sortedNames, prefix) - lowerBound(sortedNames, prefix);
+    }
+
+    /**
+     * Equivalent to {@code names.stream().filter(name -> name.startsWith(prefix)).toList()}.
+     * @param prefix Prefix to look for
+     * @return Unmodifiable list of matches in original order
+     */
+    public List<String> startsWith(String prefix) {
+        return inOriginalOrder(sortedNames, sortedPositions, sortedRanks, prefix);
+    }
+
+    /**
+     * Cheapest way to read the matches when order does not matter.
+     * @param prefix Prefix to look for
+     * @return Unmodifiable view of the matches in sorted order
+     */
+    public List<String> startsWithSorted(String prefix) {
+        int from = lowerBound(sortedNames, prefix);
+        int to = upperBound(sortedNames, prefix);
+        return Collections.unmodifiableList(Arrays.asList(sortedNames).subList(from, to));
+    }
+
+    // =====================================================================
+    // Case-insensitive queries (Locale.ROOT lower case)
+    // =====================================================================
+
+    /**
+     * @param prefix Prefix to look for, any case
+     * @return Number of names starting with {@code prefix}, ignoring case
+     */
+    public int countIgnoreCase(String prefix) {
+        String folded = fold(prefix);
+        return upperBound(requireFolded(), folded) - lowerBound(foldedNames, folded);
+    }
+
+    /**
+     * @param prefix Prefix to look for, any case
+     * @return Unmodifiable list of matches in original order (original spelling kept)
+     */
+    public List<String> startsWithIgnoreCase(String prefix) {
+        return inOriginalOrder(requireFolded(), foldedPositions, foldedRanks, fold(prefix));
+    }
+
+    private String[] requireFolded() {
+        if (foldedNames == null) {
+            throw new IllegalStateException("Index was built without case-insensitive support, use withIgnoreCase()");
+        }
+        return foldedNames;
+    }
+
+    // =====================================================================
+    // Helpers
+    // =====================================================================
+
+    private List<String> inOriginalOrder(String[] keys, int[] positions, int[] ranks, String prefix) {
+        int from = lowerBound(keys, prefix);
+        int to = upperBound(keys, prefix);
+        int k = to - from;
+        String[] result = new String[k];
+        if ((long) k * (32 - Integer.numberOfLeadingZeros(k)) <= names.length) {
+            // Original positions of the k matches, sorted back into input order
+            int[] matches = Arrays.copyOfRange(positions, from, to);
+            Arrays.sort(matches);
+            for (int i = 0; i < k; i++) {
+                result[i] = names[matches[i]];
+            }
+        } else {
+            // Large block: one pass in input order is cheaper than the sort
+            int next = 0;
+            for (int i = 0; next < k; i++) {
+                if (ranks[i] >= from && ranks[i] < to) {
+                    result[next++] = names[i];
+                }
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(result));
+    }
+
+    /** Positions 0..n-1 ordered by key; stable, so equal keys keep their input order. */
+    private static int[] sortPositions(String[] keys) {
+        int[] positions = new int[keys.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        mergeSort(keys, positions, positions.clone(), 0, positions.length);
+        return positions;
+    }
+
+    /** Sorts {@code positions[from, to)} by key, using {@code scratch} (same contents) as the other buffer. */
+    private static void mergeSort(String[] keys, int[] positions, int[] scratch, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        // Sort both halves into scratch, then merge them back into positions
+        mergeSort(keys, scratch, positions, from, middle);
+        mergeSort(keys, scratch, positions, middle, to);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right == to || left < middle && keys[scratch[left]].compareTo(keys[scratch[right]]) <= 0) {
+                positions[i] = scratch[left++];
+            } else {
+                positions[i] = scratch[right++];
+            }
+        }
+    }
+
+    private static int[] invert(int[] positions) {
+        int[] ranks = new int[positions.length];
+        for (int rank = 0; rank < positions.length; rank++) {
+            ranks[positions[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Compares only the first {@code prefix.length()} characters of {@code key}.
+     * Returns 0 when {@code key} starts with {@code prefix}; otherwise the result agrees
+     * with {@link String#compareTo}, so it is monotonic over a sorted array.
+     */
+    private static int comparePrefix(String key, String prefix) {
+        int length = Math.min(key.length(), prefix.length());
+        for (int i = 0; i < length; i++) {
+            int diff = key.charAt(i) - prefix.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return key.length() < prefix.length() ? -1 : 0;
+    }
+
+    /** First index whose key is not below the prefix block. */
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparePrefix(keys[middle], prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** First index whose key is above the prefix block. */
+    private static int upperBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparePrefix(keys[middle], prefix) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public static void main(String[] args) {
+        List<String> names = List.of("Amit", "Rahul", "Sneha", "Priya", "Atharva", "amrita", "Pooja");
+
+        // Build once, query many times
+        NamePrefixIndex index = NamePrefixIndex.withIgnoreCase(names);
+
+        // Same result as names.stream().filter(name -> name.startsWith("A")).toList()
+        List<String> result = index.startsWith("A");
+        System.out.println("Stream result: " + names.stream().filter(name -> name.startsWith("A")).toList());
+        System.out.println("Index result:  " + result);
+
+        System.out.println("Count starting with 'P': " + index.count("P"));
+        System.out.println("Sorted view starting with 'P': " + index.startsWithSorted("P"));
+        System.out.println("Starting with 'am' (ignore case): " + index.startsWithIgnoreCase("am"));
+        System.out.println("Count starting with 'a' (ignore case): " + index.countIgnoreCase("a"));
+    }
+}
@@ -0,0 +1,410 @@
+package stream;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Column of names stored off-heap as UTF-8 bytes.
+ *
+ * <p>{@code StreamExample} keeps names in a {@code List<String>}. With millions of
+ * names that is millions of String and byte[] objects, and each one has to be
+ * traced and copied by the GC. This column keeps all names in two direct buffers:
+ * <ul>
+ *   <li>{@code bytes}: every name's UTF-8 encoding, back to back</li>
+ *   <li>{@code offsets}: row {@code i} spans {@code offsets[i]} to {@code offsets[i + 1]}</li>
+ * </ul>
+ * On the heap there is only this object, whatever the number of names.
+ *
+ * <p>{@link #rowsStartingWith(String)} and {@link #rowsContaining(String)} compare the
+ * UTF-8 bytes directly. UTF-8 is self-synchronizing, so a byte match is exactly a
+ * {@link String#startsWith}/{@link String#contains} match. A String is only created
+ * for rows that are returned.
+ *
+ * <p>Existing pipelines keep working through {@link #stream()}:
+ * <pre>
+ * // Decodes every row, like names.stream()
+ * column.stream().filter(name -&gt; name.startsWith("A")).toList();
+ *
+ * // Same result, but only the matching rows are decoded
+ * column.streamStartingWith("A").toList();
+ * </pre>
+ *
+ * <p>Limits: up to 2 GB of UTF-8 per column. Unpaired surrogates, in names and in
+ * queries, are encoded as {@code '?'}, the same as {@code name.getBytes(UTF_8)}.
+ * The buffers are released when the column is garbage collected. The column is immutable and safe to read
+ * from many threads.
+ */
+public final class OffHeapNameColumn {
+
+    private final ByteBuffer bytes;
+    private final IntBuffer offsets;
+    private final int size;
+
+    private OffHeapNameColumn(ByteBuffer bytes, IntBuffer offsets, int size) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * @param names Names to store, in order
+     * @return Column holding a copy of the names
+     */
+    public static OffHeapNameColumn of(Iterable<String> names) {
+        Builder builder = builder();
+        for (String name : names) {
+            builder.add(name);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return Builder for adding names one at a time (e.g. while reading a file)
+     */
+    public static Builder builder() {
+        return new Builder(1024, 16 * 1024);
+    }
+
+    /**
+     * @return Number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Off-heap bytes used by the UTF-8 data and the offsets
+     */
+    public long memoryBytes() {
+        return bytes.capacity() + 4L * offsets.capacity();
+    }
+
+    /**
+     * @param row Row number
+     * @return The name in that row (a new String)
+     */
+    public String get(int row) {
+        int start = offsets.get(row);
+        byte[] utf8 = new byte[offsets.get(row + 1) - start];
+        bytes.get(start, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // =====================================================================
+    // Byte-level filters (no Strings created)
+    // =====================================================================
+
+    /**
+     * @param row Row number
+     * @param prefix UTF-8 encoded prefix
+     * @return true if the row starts with {@code prefix}
+     */
+    private boolean startsWith(int row, byte[] prefix) {
+        int start = offsets.get(row);
+        if (offsets.get(row + 1) - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes.get(start + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param row Row number
+     * @param part UTF-8 encoded substring
+     * @return true if the row contains {@code part}
+     */
+    private boolean contains(int row, byte[] part) {
+        int start = offsets.get(row);
+        int last = offsets.get(row + 1) - part.length;
+        if (part.length == 0) {
+            return true;
+        }
+        byte first = part[0];
+        for (int from = start; from <= last; from++) {
+            if (bytes.get(from) != first) {
+                continue;
+            }
+            int i = 1;
+            while (i < part.length && bytes.get(from + i) == part[i]) {
+                i++;
+            }
+            if (i == part.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param prefix Prefix to look for
+     * @return Rows (in order) whose name starts with {@code prefix}
+     */
+    public IntStream rowsStartingWith(String prefix) {
+        byte[] utf8 = prefix.getBytes(StandardCharsets.UTF_8);
+        return IntStream.range(0, size).filter(row -> startsWith(row, utf8));
+    }
+
+    /**
+     * @param part Substring to look for
+     * @return Rows (in order) whose name contains {@code part}
+     */
+    public IntStream rowsContaining(String part) {
+        byte[] utf8 = part.getBytes(StandardCharsets.UTF_8);
+        return IntStream.range(0, size).filter(row -> contains(row, utf8));
+    }
+
+    /**
+     * @param prefix Prefix to look for
+     * @return Number of names starting with {@code prefix}; no Strings are created
+     */
+    public long countStartingWith(String prefix) {
+        return rowsStartingWith(prefix).count();
+    }
+
+    /**
+     * Equivalent to {@code names.stream().filter(name -> name.startsWith(prefix)).toList()}.
+     * @param prefix Prefix to look for
+     * @return Matching names in row order
+     */
+    public List<String> startsWith(String prefix) {
+        return streamStartingWith(prefix).toList();
+    }
+
+    /**
+     * Equivalent to {@code names.stream().filter(name -> name.contains(part)).toList()}.
+     * @param part Substring to look for
+     * @return Matching names in row order
+     */
+    public List<String> contains(String part) {
+        return streamContaining(part).toList();
+    }
+
+    // =====================================================================
+    // Stream adapters
+    // =====================================================================
+
+    /**
+     * Decodes every row; use for pipelines that need arbitrary String predicates.
+     * The stream is SIZED and splits evenly for parallel use.
+     * @return Stream of all names in row order
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(new RowSpliterator(0, size), false);
+    }
+
+    /**
+     * @param prefix Prefix to look for
+     * @return Stream of the names starting with {@code prefix}; only these are decoded
+     */
+    public Stream<String> streamStartingWith(String prefix) {
+        return rowsStartingWith(prefix).mapToObj(this::get);
+    }
+
+    /**
+     * @param part Substring to look for
+     * @return Stream of the names containing {@code part}; only these are decoded
+     */
+    public Stream<String> streamContaining(String part) {
+        return rowsContaining(part).mapToObj(this::get);
+    }
+
+    /**
+     * Rows {@code [from, to)}, decoded on demand.
+     */
+    private final class RowSpliterator implements Spliterator<String> {
+
+        private int from;
+        private final int to;
+
+        RowSpliterator(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(get(from++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super String> action) {
+            int end = to;
+            for (int row = from; row < end; row++) {
+                action.accept(get(row));
+            }
+            from = end;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            int middle = (from + to) >>> 1;
+            if (middle - from < 1024) {
+                return null;
+            }
+            RowSpliterator prefix = new RowSpliterator(from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    // =====================================================================
+    // Builder
+    // =====================================================================
+
+    /**
+     * Appends names to growing direct buffers. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private ByteBuffer bytes;
+        private IntBuffer offsets;
+        private int size;
+
+        Builder(int expectedNames, int expectedBytes) {
+            this.bytes = ByteBuffer.allocateDirect(expectedBytes);
+            this.offsets = allocateInts(expectedNames + 1);
+            offsets.put(0, 0);
+        }
+
+        /**
+         * @param name Name to append as the next row
+         * @return this builder
+         */
+        public Builder add(String name) {
+            if (name == null) {
+                throw new NullPointerException("Names must not be null");
+            }
+            // At most 3 bytes per char (a surrogate pair is 2 chars for 4 bytes)
+            long worstCase = 3L * name.length();
+            if (bytes.position() + worstCase > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Column is limited to 2 GB of UTF-8 data");
+            }
+            ensureBytes((int) worstCase);
+            if (size + 2 > offsets.capacity()) {
+                offsets = copyInts(offsets, size + 1, offsets.capacity() * 2);
+            }
+            encode(name, bytes);
+            offsets.put(++size, bytes.position());
+            return this;
+        }
+
+        /**
+         * Copies the data into exactly sized buffers. The builder can keep being used.
+         * @return Immutable column of the names added so far
+         */
+        public OffHeapNameColumn build() {
+            ByteBuffer exactBytes = ByteBuffer.allocateDirect(bytes.position());
+            exactBytes.put(0, bytes, 0, bytes.position());
+            return new OffHeapNameColumn(exactBytes.asReadOnlyBuffer(),
+                    copyInts(offsets, size + 1, size + 1).asReadOnlyBuffer(), size);
+        }
+
+        private void ensureBytes(int extra) {
+            if (bytes.remaining() >= extra) {
+                return;
+            }
+            long wanted = Math.max((long) bytes.capacity() * 2, (long) bytes.position() + extra);
+            ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(wanted, Integer.MAX_VALUE));
+            grown.put(bytes.flip());
+            bytes = grown;
+        }
+
+        private static IntBuffer allocateInts(int count) {
+            return ByteBuffer.allocateDirect(4 * count).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+
+        private static IntBuffer copyInts(IntBuffer source, int count, int capacity) {
+            IntBuffer copy = allocateInts(capacity);
+            copy.put(0, source, 0, count);
+            return copy;
+        }
+
+        /** UTF-8 encodes straight into the buffer, without a temporary byte[]. */
+        private static void encode(String name, ByteBuffer out) {
+            int length = name.length();
+            for (int i = 0; i < length; i++) {
+                char c = name.charAt(i);
+                if (c < 0x80) {
+                    out.put((byte) c);
+                } else if (c < 0x800) {
+                    out.put((byte) (0xC0 | c >> 6));
+                    out.put((byte) (0x80 | c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(name.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, name.charAt(++i));
+                    out.put((byte) (0xF0 | codePoint >> 18));
+                    out.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                    out.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                    out.put((byte) (0x80 | codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    out.put((byte) '?');
+                } else {
+                    out.put((byte) (0xE0 | c >> 12));
+                    out.put((byte) (0x80 | c >> 6 & 0x3F));
+                    out.put((byte) (0x80 | c & 0x3F));
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        List<String> names = List.of("Amit", "Rahul", "Sneha", "Priya", "Atharva", "Ånand", "Pooja");
+        OffHeapNameColumn column = OffHeapNameColumn.of(names);
+
+        // Existing pipeline, unchanged apart from the source
+        System.out.println("Stream result: " + column.stream().filter(name -> name.startsWith("A")).toList());
+        // Filtered on the bytes, only matches decoded
+        System.out.println("Column result: " + column.startsWith("A"));
+        System.out.println("Containing 'ha': " + column.contains("ha"));
+        System.out.println("Rows starting with 'P': " + Arrays.toString(column.rowsStartingWith("P").toArray()));
+
+        // One million generated names: heap vs off-heap
+        Builder builder = OffHeapNameColumn.builder();
+        List<String> heapNames = new ArrayList<>();
+        String[] first = {"Amit", "Rahul", "Sneha", "Priya", "Atharva", "Pooja", "Ananya", "Vikram"};
+        for (int i = 0; i < 1_000_000; i++) {
+            String name = first[i % first.length] + i;
+            builder.add(name);
+            heapNames.add(name);
+        }
+        OffHeapNameColumn large = builder.build();
+        long start = System.nanoTime();
+        long offHeapCount = large.countStartingWith("An");
+        long offHeapMicros = (System.nanoTime() - start) / 1000;
+        start = System.nanoTime();
+        long heapCount = heapNames.stream().filter(name -> name.startsWith("An")).count();
+        long heapMicros = (System.nanoTime() - start) / 1000;
+        System.out.printf("%d names in %d KB off-heap; 'An' count %d (%d us) vs List<String> %d (%d us)%n",
+                large.size(), large.memoryBytes() / 1024, offHeapCount, offHeapMicros, heapCount, heapMicros);
+
+        System.out.println("Containing 'ram99999': " + large.contains("ram99999"));
+    }
+}
@@ -0,0 +1,144 @@
+package stream;
+
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Open-addressing map from name prefix to a primitive {@code long} count.
+ *
+ * <p>Counting a name hashes and compares its first chars in place; a prefix String
+ * is only created the first time that prefix is seen, and counts are never boxed.
+ * One instance per stream task (see {@link NameCollectors#byPrefix(int)}), so no
+ * synchronization is needed; tasks are merged with {@link #addAll(PrefixCounter)}.
+ */
+final class PrefixCounter {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int length;
+    private String[] keys;
+    private int[] hashes;
+    private long[] counts;
+    private int size;
+
+    /**
+     * @param length Prefix length; shorter names are counted under the whole name
+     */
+    PrefixCounter(int length) {
+        this.length = length;
+        this.keys = new String[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.counts = new long[INITIAL_CAPACITY];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(CharSequence name) {
+        int n = Math.min(length, name.length());
+        int hash = hash(name, n);
+        int mask = keys.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            String key = keys[slot];
+            if (key == null) {
+                insert(slot, name.subSequence(0, n).toString(), hash, 1);
+                return;
+            }
+            if (hashes[slot] == hash && matches(key, name, n)) {
+                counts[slot]++;
+                return;
+            }
+        }
+    }
+
+    void add(String prefix, long count) {
+        int hash = hash(prefix, prefix.length());
+        int mask = keys.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            String key = keys[slot];
+            if (key == null) {
+                insert(slot, prefix, hash, count);
+                return;
+            }
+            if (hashes[slot] == hash && key.equals(prefix)) {
+                counts[slot] += count;
+                return;
+            }
+        }
+    }
+
+    void addAll(PrefixCounter other) {
+        other.forEach(this::add);
+    }
+
+    long count(String prefix) {
+        int hash = hash(prefix, prefix.length());
+        int mask = keys.length - 1;
+        for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && keys[slot].equals(prefix)) {
+                return counts[slot];
+            }
+        }
+        return 0;
+    }
+
+    void forEach(ObjLongConsumer<String> action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null) {
+                action.accept(keys[slot], counts[slot]);
+            }
+        }
+    }
+
+    private void insert(int slot, String key, int hash, long count) {
+        keys[slot] = key;
+        hashes[slot] = hash;
+        counts[slot] = count;
+        // Keep the load factor at or below 1/2 so probe sequences stay short
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        long[] oldCounts = counts;
+        keys = new String[oldKeys.length * 2];
+        hashes = new int[oldKeys.length * 2];
+        counts = new long[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldKeys[old] != null) {
+                int slot = oldHashes[old] & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[old];
+                hashes[slot] = oldHashes[old];
+                counts[slot] = oldCounts[old];
+            }
+        }
+    }
+
+    static boolean matches(String key, CharSequence name, int n) {
+        if (key.length() != n) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            if (key.charAt(i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** String.hashCode of the first {@code n} chars, with the high bits mixed in. */
+    static int hash(CharSequence text, int n) {
+        int hash = 0;
+        for (int i = 0; i < n; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return (hash ^ hash >>> 16) * 0x45D9F3B;
+    }
+}
@@ -0,0 +1,287 @@
+package stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Space-Saving summary of the most common name prefixes, in a fixed number of counters.
+ *
+ * <p>{@link PrefixCounter} keeps an exact count for every distinct prefix. This keeps
+ * at most {@code capacity} prefixes: when a new prefix arrives and all counters are
+ * taken, it replaces the prefix with the smallest count and inherits that count as its
+ * possible error. After n names:
+ * <ul>
+ *   <li>every reported count is at least the true count and overestimates it by at
+ *       most {@code n / capacity}</li>
+ *   <li>every prefix seen more than {@code n / capacity} times is still in the summary</li>
+ * </ul>
+ * Merging the summaries of parallel stream tasks keeps both properties, with n the
+ * total over the merged tasks.
+ * Lookups hash the first chars in place, like {@link PrefixCounter}; a prefix String is
+ * only created when a prefix enters the summary. Counters live in a min-heap by count,
+ * linked both ways with an open-addressing index, so every name costs O(log capacity).
+ *
+ * <p>Not thread-safe: one instance per stream task, combined with {@link #merge}.
+ */
+final class PrefixHeavyHitters {
+
+    private final int length;
+    private final int capacity;
+
+    // Min-heap by count; entry i is indexed at table slot slots[i]
+    private final String[] keys;
+    private final int[] hashes;
+    private final long[] counts;
+    private final long[] errors;
+    private final int[] slots;
+    private int size;
+
+    // Open addressing index, load factor at most 1/2; tablePositions[s] is a heap position
+    private final String[] tableKeys;
+    private final int[] tableHashes;
+    private final int[] tablePositions;
+    private final int mask;
+
+    private long total;
+    // Largest count a prefix absent from the summary may have had in merged-in summaries
+    private long missing;
+
+    /**
+     * @param length Prefix length; shorter names are counted under the whole name
+     * @param capacity Number of counters
+     */
+    PrefixHeavyHitters(int length, int capacity) {
+        this.length = length;
+        this.capacity = capacity;
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.slots = new int[capacity];
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity) * 4 - 1);
+        this.tableKeys = new String[tableSize];
+        this.tableHashes = new int[tableSize];
+        this.tablePositions = new int[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    void add(CharSequence name) {
+        int n = Math.min(length, name.length());
+        int hash = PrefixCounter.hash(name, n);
+        total++;
+        int slot = hash & mask;
+        for (String key = tableKeys[slot]; key != null; key = tableKeys[slot = (slot + 1) & mask]) {
+            if (tableHashes[slot] == hash && PrefixCounter.matches(key, name, n)) {
+                int position = tablePositions[slot];
+                counts[position]++;
+                siftDown(position);
+                return;
+            }
+        }
+        // A prefix not in the summary may already have been counted up to absentBound() times
+        long absent = absentBound();
+        offer(name.subSequence(0, n).toString(), hash, 1 + absent, absent, slot);
+    }
+
+    /**
+     * Adds a counter for a prefix known not to be in the summary.
+     * @param emptySlot Free table slot at the end of the prefix's probe sequence
+     */
+    private void offer(String prefix, int hash, long count, long error, int emptySlot) {
+        int position;
+        if (size < capacity) {
+            position = size++;
+        } else {
+            // Space-Saving: take over the smallest counter (the count was already raised to cover it)
+            position = 0;
+            unlink(slots[0]);
+            emptySlot = freeSlot(hash);
+        }
+        keys[position] = prefix;
+        hashes[position] = hash;
+        counts[position] = count;
+        errors[position] = error;
+        link(emptySlot, position);
+        siftDown(position);
+        siftUp(position);
+    }
+
+    /**
+     * Combines two summaries: counts of prefixes present in both are added, the m
+     * largest of the union are kept. Error bounds add up as well.
+     */
+    PrefixHeavyHitters merge(PrefixHeavyHitters other) {
+        // Union into temporary exact tables, then keep the largest counts
+        PrefixCounter countsByPrefix = new PrefixCounter(Integer.MAX_VALUE);
+        PrefixCounter errorsByPrefix = new PrefixCounter(Integer.MAX_VALUE);
+        for (PrefixHeavyHitters summary : List.of(this, other)) {
+            for (int i = 0; i < summary.size; i++) {
+                countsByPrefix.add(summary.keys[i], summary.counts[i]);
+                errorsByPrefix.add(summary.keys[i], summary.errors[i]);
+            }
+        }
+        List<String> prefixes = new ArrayList<>(countsByPrefix.size());
+        countsByPrefix.forEach((prefix, count) -> prefixes.add(prefix));
+        for (String prefix : prefixes) {
+            // Missing from a full summary: it may have been counted there up to that summary's minimum
+            for (PrefixHeavyHitters summary : List.of(this, other)) {
+                long missed = summary.absentBound();
+                if (missed > 0 && summary.find(prefix) < 0) {
+                    countsByPrefix.add(prefix, missed);
+                    errorsByPrefix.add(prefix, missed);
+                }
+            }
+        }
+        prefixes.sort(Comparator.comparingLong(countsByPrefix::count).reversed());
+
+        PrefixHeavyHitters merged = new PrefixHeavyHitters(length, capacity);
+        merged.total = total + other.total;
+        for (int i = 0; i < Math.min(capacity, prefixes.size()); i++) {
+            String prefix = prefixes.get(i);
+            int hash = PrefixCounter.hash(prefix, prefix.length());
+            merged.offer(prefix, hash, countsByPrefix.count(prefix), errorsByPrefix.count(prefix), merged.freeSlot(hash));
+        }
+        merged.missing = absentBound() + other.absentBound();
+        return merged;
+    }
+
+    /**
+     * @param k Number of prefixes to return
+     * @return The {@code k} largest counts, most common first; counts may overestimate
+     *         by up to {@link #maxError()}
+     */
+    List<NameCollectors.PrefixCount> top(int k) {
+        NameCollectors.PrefixCount[] entries = new NameCollectors.PrefixCount[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = new NameCollectors.PrefixCount(keys[i], counts[i]);
+        }
+        Arrays.sort(entries, NameCollectors.PrefixCount.BY_COUNT.reversed());
+        return List.of(Arrays.copyOf(entries, Math.min(k, entries.length)));
+    }
+
+    /**
+     * @return Upper bound on how much any reported count exceeds the true count
+     */
+    long maxError() {
+        long max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, errors[i]);
+        }
+        return max;
+    }
+
+    /**
+     * @return Names counted, over all merged summaries
+     */
+    long total() {
+        return total;
+    }
+
+    /**
+     * Upper bound on the count of any prefix not in the summary: the smallest count once
+     * every counter is taken (an evicted or dropped prefix had at most that), and what
+     * absent prefixes may have had in merged-in summaries.
+     */
+    private long absentBound() {
+        return Math.max(missing, size < capacity ? 0 : counts[0]);
+    }
+
+    // =====================================================================
+    // Index
+    // =====================================================================
+
+    /** Table slot of {@code prefix}, or -1 if it is not in the summary. */
+    private int find(String prefix) {
+        int hash = PrefixCounter.hash(prefix, prefix.length());
+        for (int slot = hash & mask; tableKeys[slot] != null; slot = (slot + 1) & mask) {
+            if (tableHashes[slot] == hash && tableKeys[slot].equals(prefix)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int freeSlot(int hash) {
+        int slot = hash & mask;
+        while (tableKeys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void link(int slot, int position) {
+        tableKeys[slot] = keys[position];
+        tableHashes[slot] = hashes[position];
+        tablePositions[slot] = position;
+        slots[position] = slot;
+    }
+
+    /** Linear-probing delete: shifts later entries of the cluster back into the hole. */
+    private void unlink(int slot) {
+        int hole = slot;
+        for (int i = (hole + 1) & mask; tableKeys[i] != null; i = (i + 1) & mask) {
+            int home = tableHashes[i] & mask;
+            // Entry i may move to the hole unless its home lies cyclically in (hole, i]
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                tableKeys[hole] = tableKeys[i];
+                tableHashes[hole] = tableHashes[i];
+                tablePositions[hole] = tablePositions[i];
+                slots[tablePositions[hole]] = hole;
+                hole = i;
+            }
+        }
+        tableKeys[hole] = null;
+    }
+
+    // =====================================================================
+    // Heap
+    // =====================================================================
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && counts[child + 1] < counts[child]) {
+                child++;
+            }
+            if (counts[position] <= counts[child]) {
+                return;
+            }
+            swap(position, child);
+            position = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        int hash = hashes[a];
+        hashes[a] = hashes[b];
+        hashes[b] = hash;
+        long count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        long error = errors[a];
+        errors[a] = errors[b];
+        errors[b] = error;
+        int slot = slots[a];
+        slots[a] = slots[b];
+        slots[b] = slot;
+        tablePositions[slots[a]] = a;
+        tablePositions[slots[b]] = b;
+    }
+}
@@ -0,0 +1,149 @@
+package stream;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * The {@code k} greatest elements of a stream, in O(k) memory.
+ *
+ * <p>Sorting everything and taking the first k costs O(n log n) time and keeps all
+ * n elements. This keeps a min-heap of the best k seen so far: each new element is
+ * compared with the smallest of them (the root) and only enters the heap if it is
+ * greater, so the cost is O(n log k) and memory never grows past k elements.
+ *
+ * <p>Not thread-safe; {@link #collector(int, Comparator)} gives every stream task its
+ * own instance and merges them.
+ *
+ * @param <T> Element type
+ */
+public final class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    // Min-heap: heap[0] is the smallest of the kept elements
+    private Object[] heap;
+    private int size;
+
+    /**
+     * @param k Number of elements to keep
+     * @param order Ordering in which "top" means greatest
+     */
+    public TopK(int k, Comparator<? super T> order) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.k = k;
+        this.order = order;
+        // Grows up to k, so a huge k with few elements does not allocate k slots
+        this.heap = new Object[Math.min(k, 1024)];
+    }
+
+    /**
+     * @param k Number of elements to keep
+     * @param order Ordering in which "top" means greatest
+     * @return Collector whose result is the top {@code k} elements, greatest first
+     */
+    public static <T> Collector<T, ?, List<T>> collector(int k, Comparator<? super T> order) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        return Collector.of(() -> new TopK<T>(k, order), TopK::offer, TopK::merge, TopK::toList,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * @param element Candidate, not null
+     * @return true if it is (for now) among the top k
+     */
+    public boolean offer(T element) {
+        if (size < k) {
+            if (size == heap.length) {
+                grow();
+            }
+            heap()[size] = element;
+            siftUp(size++);
+            return true;
+        }
+        if (order.compare(element, root()) <= 0) {
+            return false;
+        }
+        heap()[0] = element;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * @return Number of elements kept, at most k
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Kept elements, greatest first
+     */
+    public List<T> toList() {
+        T[] sorted = Arrays.copyOf(heap(), size);
+        Arrays.sort(sorted, order.reversed());
+        return List.of(sorted);
+    }
+
+    private TopK<T> merge(TopK<T> other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.heap()[i]);
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] heap() {
+        return (T[]) heap;
+    }
+
+    private T root() {
+        return heap()[0];
+    }
+
+    private void grow() {
+        heap = Arrays.copyOf(heap, (int) Math.min(k, 2L * heap.length));
+    }
+
+    private void siftUp(int index) {
+        T[] items = heap();
+        T item = items[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(item, items[parent]) >= 0) {
+                break;
+            }
+            items[index] = items[parent];
+            index = parent;
+        }
+        items[index] = item;
+    }
+
+    private void siftDown(int index) {
+        T[] items = heap();
+        T item = items[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && order.compare(items[child + 1], items[child]) < 0) {
+                child++;
+            }
+            if (order.compare(item, items[child]) <= 0) {
+                break;
+            }
+            items[index] = items[child];
+            index = child;
+        }
+        items[index] = item;
+    }
+
+    @Override
+    public String toString() {
+        return "TopK" + toList();
+    }
+}
@@ -0,0 +1,14 @@
+package asyncnotification;
+
+/**
+ * Delivery channels, one per existing example:
+ * EMAIL ({@code EmailNotification}), SMS ({@code AnonymousNotificationSystem})
+ * and PUSH ({@code LambdaNotificationSystem}).
+ */
+public enum Channel {
+
+	EMAIL,
+	SMS,
+	PUSH
+
+}
@@ -0,0 +1,235 @@
+package asyncnotification;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import lambdaExpression.Notification;
+
+/**
+ * Sends notifications asynchronously, in batches, on virtual threads.
+ *
+ * <p>The example systems call {@code notifyUser()} on the caller's thread, so the
+ * caller waits for every send. Here the caller only enqueues:
+ * <ul>
+ *   <li>Each {@link Channel} has its own bounded queue and its own collector thread</li>
+ *   <li>The collector takes up to {@code maxBatchSize} queued notifications and hands
+ *       them to the {@link NotificationSink} as one batch, on a new virtual thread</li>
+ *   <li>A per-channel {@link Semaphore} caps how many batches are in flight</li>
+ *   <li>When a queue is full, {@link #dispatch(Channel, Notification)} rejects right away
+ *       and {@link #dispatch(Channel, Notification, long, TimeUnit)} waits: that is the
+ *       backpressure signal to the producer</li>
+ * </ul>
+ *
+ * <p>Any of the three {@code Notification} interfaces can be dispatched, since they
+ * all have the same {@code notifyUser()} shape:
+ * {@code dispatcher.dispatch(Channel.EMAIL, emailNotification::notifyUser)}.
+ */
+public class NotificationDispatcher implements AutoCloseable {
+
+	/** Default queue capacity per channel. */
+	public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+	/** Default maximum number of notifications per sink call. */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+	/** Default number of batches in flight per channel. */
+	public static final int DEFAULT_CONCURRENCY = 64;
+
+	private final NotificationSink sink;
+	private final int maxBatchSize;
+	private final Map<Channel, Lane> lanes = new EnumMap<>(Channel.class);
+	private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+	private volatile boolean closed;
+
+	/**
+	 * Creates a dispatcher with default queue, batch and concurrency settings.
+	 * @param sink Where batches are sent
+	 */
+	public NotificationDispatcher(NotificationSink sink) {
+		this(sink, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH_SIZE, Map.of());
+	}
+
+	/**
+	 * @param sink Where batches are sent
+	 * @param queueCapacity Maximum queued notifications per channel before backpressure
+	 * @param maxBatchSize Maximum notifications per sink call
+	 * @param concurrency Batches in flight per channel; channels not listed use {@link #DEFAULT_CONCURRENCY}
+	 */
+	public NotificationDispatcher(NotificationSink sink, int queueCapacity, int maxBatchSize,
+			Map<Channel, Integer> concurrency) {
+		if (queueCapacity <= 0 || maxBatchSize <= 0) {
+			throw new IllegalArgumentException("Queue capacity and batch size must be positive");
+		}
+		this.sink = sink;
+		this.maxBatchSize = maxBatchSize;
+		for (Channel channel : Channel.values()) {
+			int limit = concurrency.getOrDefault(channel, DEFAULT_CONCURRENCY);
+			if (limit <= 0) {
+				throw new IllegalArgumentException("Concurrency for " + channel + " must be positive: " + limit);
+			}
+			lanes.put(channel, new Lane(channel, queueCapacity, limit));
+		}
+	}
+
+	/**
+	 * Enqueues without blocking.
+	 * @param channel Channel to send on
+	 * @param notification Notification to deliver
+	 * @return Future completed when the notification's batch was sent; failed with
+	 *         {@link RejectedExecutionException} if the channel queue is full or the dispatcher is closed
+	 */
+	public CompletableFuture<Void> dispatch(Channel channel, Notification notification) {
+		Delivery delivery = new Delivery(notification, new CompletableFuture<>());
+		Lane lane = lanes.get(channel);
+		if (closed || !lane.queue.offer(delivery)) {
+			delivery.result.completeExceptionally(rejected(channel));
+		} else {
+			withdrawIfClosed(lane, delivery);
+		}
+		return delivery.result;
+	}
+
+	/**
+	 * Enqueues, waiting up to {@code timeout} for queue space (backpressure).
+	 * @param channel Channel to send on
+	 * @param notification Notification to deliver
+	 * @param timeout Maximum time to wait for space
+	 * @param unit Unit of {@code timeout}
+	 * @return Future completed when the notification's batch was sent; failed with
+	 *         {@link RejectedExecutionException} if no space became available in time
+	 */
+	public CompletableFuture<Void> dispatch(Channel channel, Notification notification, long timeout, TimeUnit unit)
+			throws InterruptedException {
+		Delivery delivery = new Delivery(notification, new CompletableFuture<>());
+		Lane lane = lanes.get(channel);
+		// A closing collector keeps draining until its queue is empty, so this wait ends
+		if (closed || !lane.queue.offer(delivery, timeout, unit)) {
+			delivery.result.completeExceptionally(rejected(channel));
+		} else {
+			withdrawIfClosed(lane, delivery);
+		}
+		return delivery.result;
+	}
+
+	/**
+	 * The closed check and the offer are not atomic: close() may have stopped the
+	 * collector and done its final drain in between, leaving the delivery queued
+	 * with nobody to complete it. If it can still be taken back it is rejected here;
+	 * otherwise a collector or close() already took it and will complete it.
+	 */
+	private void withdrawIfClosed(Lane lane, Delivery delivery) {
+		if (closed && lane.queue.remove(delivery)) {
+			delivery.result.completeExceptionally(rejected(lane.channel));
+		}
+	}
+
+	/**
+	 * @param channel Channel to inspect
+	 * @return Notifications waiting in the channel queue (not yet handed to the sink)
+	 */
+	public int pending(Channel channel) {
+		return lanes.get(channel).queue.size();
+	}
+
+	/**
+	 * Stops accepting notifications, sends everything already queued and waits
+	 * for all in-flight batches to finish.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		try {
+			for (Lane lane : lanes.values()) {
+				lane.collector.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		senders.close();
+		// A dispatch racing with close() may have slipped in after its collector stopped;
+		// whichever of this drain and withdrawIfClosed() removes it rejects it
+		for (Lane lane : lanes.values()) {
+			Delivery delivery;
+			while ((delivery = lane.queue.poll()) != null) {
+				delivery.result.completeExceptionally(rejected(lane.channel));
+			}
+		}
+	}
+
+	private RejectedExecutionException rejected(Channel channel) {
+		return new RejectedExecutionException(closed
+				? "Dispatcher is closed"
+				: channel + " queue is full");
+	}
+
+	private record Delivery(Notification notification, CompletableFuture<Void> result) {
+	}
+
+	/**
+	 * Queue, concurrency limit and collector thread of one channel.
+	 */
+	private final class Lane implements Runnable {
+
+		private final Channel channel;
+		private final BlockingQueue<Delivery> queue;
+		private final Semaphore permits;
+		private final Thread collector;
+
+		Lane(Channel channel, int queueCapacity, int concurrency) {
+			this.channel = channel;
+			this.queue = new ArrayBlockingQueue<>(queueCapacity);
+			this.permits = new Semaphore(concurrency);
+			this.collector = Thread.ofVirtual().name("dispatcher-" + channel).start(this);
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (!closed || !queue.isEmpty()) {
+					Delivery first = queue.poll(50, TimeUnit.MILLISECONDS);
+					if (first == null) {
+						continue;
+					}
+					List<Delivery> batch = new ArrayList<>(maxBatchSize);
+					batch.add(first);
+					queue.drainTo(batch, maxBatchSize - 1);
+					// Blocks the collector (not the producers) while the channel is saturated
+					permits.acquire();
+					senders.execute(() -> send(batch));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private void send(List<Delivery> batch) {
+			try {
+				List<Notification> notifications = new ArrayList<>(batch.size());
+				for (Delivery delivery : batch) {
+					notifications.add(delivery.notification);
+				}
+				sink.send(channel, notifications);
+				for (Delivery delivery : batch) {
+					delivery.result.complete(null);
+				}
+			} catch (Throwable t) {
+				for (Delivery delivery : batch) {
+					delivery.result.completeExceptionally(t);
+				}
+			} finally {
+				permits.release();
+			}
+		}
+	}
+
+}
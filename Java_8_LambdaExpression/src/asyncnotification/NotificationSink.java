@@ -0,0 +1,29 @@
+package asyncnotification;
+
+import java.util.List;
+
+import lambdaExpression.Notification;
+
+/**
+ * Where the dispatcher hands off a batch of notifications for one channel.
+ *
+ * <p>A batch either succeeds as a whole or fails as a whole; every delivery
+ * future of the batch is completed accordingly.
+ */
+@FunctionalInterface
+public interface NotificationSink {
+
+	void send(Channel channel, List<Notification> batch) throws Exception;
+
+	/**
+	 * @return Sink that simply calls {@code notifyUser()} on every notification of the batch
+	 */
+	static NotificationSink direct() {
+		return (channel, batch) -> {
+			for (Notification notification : batch) {
+				notification.notifyUser();
+			}
+		};
+	}
+
+}
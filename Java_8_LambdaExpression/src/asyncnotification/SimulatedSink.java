@@ -0,0 +1,61 @@
+package asyncnotification;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import lambdaExpression.Notification;
+
+/**
+ * In-process stand-in for a real email/SMS/push provider, for offline load tests.
+ *
+ * <p>Every batch sleeps for {@code batchLatency + batch.size() * perItemLatency}
+ * (cheap on a virtual thread) and is counted. Notifications are only executed
+ * when {@code invokeNotifications} is true, so load tests are not flooded with console output.
+ */
+public class SimulatedSink implements NotificationSink {
+
+	private final Duration batchLatency;
+	private final Duration perItemLatency;
+	private final boolean invokeNotifications;
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder delivered = new LongAdder();
+
+	/**
+	 * @param batchLatency Fixed cost of one provider call
+	 * @param perItemLatency Extra cost for every notification in the call
+	 * @param invokeNotifications true to also run {@code notifyUser()}
+	 */
+	public SimulatedSink(Duration batchLatency, Duration perItemLatency, boolean invokeNotifications) {
+		this.batchLatency = batchLatency;
+		this.perItemLatency = perItemLatency;
+		this.invokeNotifications = invokeNotifications;
+	}
+
+	@Override
+	public void send(Channel channel, List<Notification> batch) throws InterruptedException {
+		Thread.sleep(batchLatency.plus(perItemLatency.multipliedBy(batch.size())));
+		if (invokeNotifications) {
+			for (Notification notification : batch) {
+				notification.notifyUser();
+			}
+		}
+		batches.increment();
+		delivered.add(batch.size());
+	}
+
+	/**
+	 * @return Number of provider calls made so far
+	 */
+	public long batches() {
+		return batches.sum();
+	}
+
+	/**
+	 * @return Number of notifications delivered so far
+	 */
+	public long delivered() {
+		return delivered.sum();
+	}
+
+}
@@ -0,0 +1,26 @@
+package channelregistry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Name under which a {@code Notification} provider is registered in
+ * {@link NotificationChannelRegistry}.
+ *
+ * <p>Read from the provider class without creating an instance, so the registry can
+ * list channels before any of them is used.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ChannelName {
+
+	/**
+	 * @return Channel name, e.g. "email"
+	 */
+	String value();
+
+}
@@ -0,0 +1,16 @@
+package channelregistry;
+
+import lambdaExpression.Notification;
+
+/**
+ * Email channel, a plain class as in {@code withoutanonymous.EmailNotification}.
+ */
+@ChannelName("email")
+public class EmailChannel implements Notification {
+
+	@Override
+	public void notifyUser() {
+		System.out.println("Sending Email Notification 📧 ");
+	}
+
+}
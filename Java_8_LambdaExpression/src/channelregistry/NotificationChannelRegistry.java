@@ -0,0 +1,176 @@
+package channelregistry;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import asyncnotification.Channel;
+import lambdaExpression.Notification;
+
+/**
+ * Finds {@link Notification} channels with {@link ServiceLoader} and creates each one
+ * on first use.
+ *
+ * <p>The example systems wire their single channel by hand in {@code main}. Here every
+ * channel is a provider listed in {@code META-INF/services/lambdaExpression.Notification}
+ * and named with {@link ChannelName}:
+ * <ul>
+ *   <li><b>Discovery</b> ({@link #lazy()}): provider classes are loaded to read their
+ *       names, but not initialized or instantiated</li>
+ *   <li><b>First use</b> ({@link #handler(String)}): the provider is instantiated once;
+ *       {@link ConcurrentHashMap#computeIfAbsent} makes concurrent first calls share it</li>
+ *   <li><b>Later use</b>: one lock-free {@link ConcurrentHashMap#get} per call</li>
+ * </ul>
+ * {@link #eager()} instantiates every channel up front instead, as hand wiring does.
+ * With dozens of channels, lazy registration keeps instantiation, and each channel's own
+ * initialization, proportional to the channels actually used; discovery still loads
+ * every provider class.
+ *
+ * <p>Thread-safe.
+ */
+public final class NotificationChannelRegistry {
+
+	// Name -> provider, fixed after discovery
+	private final Map<String, ServiceLoader.Provider<Notification>> providers;
+	private final Set<String> channels;
+	// Name -> instance, filled on first use
+	private final ConcurrentHashMap<String, Notification> handlers = new ConcurrentHashMap<>();
+
+	private NotificationChannelRegistry(Map<String, ServiceLoader.Provider<Notification>> providers) {
+		this.providers = Map.copyOf(providers);
+		this.channels = Collections.unmodifiableSet(new TreeMap<>(providers).keySet());
+	}
+
+	/**
+	 * Discovers the channels visible to the context class loader.
+	 * @return Registry that creates each channel on first use
+	 */
+	public static NotificationChannelRegistry lazy() {
+		return lazy(Thread.currentThread().getContextClassLoader());
+	}
+
+	/**
+	 * @param loader Class loader to search for providers
+	 * @return Registry that creates each channel on first use
+	 */
+	public static NotificationChannelRegistry lazy(ClassLoader loader) {
+		Map<String, ServiceLoader.Provider<Notification>> found = new TreeMap<>();
+		ServiceLoader.load(Notification.class, loader).stream().forEach(provider -> {
+			String name = nameOf(provider.type());
+			ServiceLoader.Provider<Notification> previous = found.putIfAbsent(name, provider);
+			if (previous != null) {
+				throw new IllegalStateException("Channel '" + name + "' is provided by both "
+						+ previous.type().getName() + " and " + provider.type().getName());
+			}
+		});
+		return new NotificationChannelRegistry(found);
+	}
+
+	/**
+	 * @return Registry with every channel already created
+	 */
+	public static NotificationChannelRegistry eager() {
+		return eager(Thread.currentThread().getContextClassLoader());
+	}
+
+	/**
+	 * @param loader Class loader to search for providers
+	 * @return Registry with every channel already created
+	 */
+	public static NotificationChannelRegistry eager(ClassLoader loader) {
+		NotificationChannelRegistry registry = lazy(loader);
+		for (String channel : registry.channels) {
+			registry.handler(channel);
+		}
+		return registry;
+	}
+
+	/**
+	 * @param channel Channel name, e.g. "email"
+	 * @return The channel's single instance, created now if this is its first use
+	 * @throws IllegalArgumentException if no provider has that name
+	 */
+	public Notification handler(String channel) {
+		Notification handler = handlers.get(channel);
+		if (handler != null) {
+			return handler;
+		}
+		ServiceLoader.Provider<Notification> provider = providers.get(channel);
+		if (provider == null) {
+			throw new IllegalArgumentException("Unknown channel '" + channel + "', available: " + channels);
+		}
+		return handlers.computeIfAbsent(channel, name -> provider.get());
+	}
+
+	/**
+	 * @param channel Channel of the dispatcher examples; looked up by its lower-case name
+	 * @return The channel's single instance
+	 */
+	public Notification handler(Channel channel) {
+		return handler(channel.name().toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * @param channel Channel name
+	 */
+	public void notifyUser(String channel) {
+		handler(channel).notifyUser();
+	}
+
+	/**
+	 * @return Names of all discovered channels, sorted
+	 */
+	public Set<String> channels() {
+		return channels;
+	}
+
+	/**
+	 * @param channel Channel name
+	 * @return true if the channel has been instantiated
+	 */
+	public boolean isLoaded(String channel) {
+		return handlers.containsKey(channel);
+	}
+
+	/** {@link ChannelName} of the provider, or its simple name without "Channel", lower case. */
+	private static String nameOf(Class<?> type) {
+		ChannelName name = type.getAnnotation(ChannelName.class);
+		if (name != null) {
+			return name.value();
+		}
+		String simpleName = type.getSimpleName();
+		if (simpleName.endsWith("Channel") && simpleName.length() > "Channel".length()) {
+			simpleName = simpleName.substring(0, simpleName.length() - "Channel".length());
+		}
+		return simpleName.toLowerCase(Locale.ROOT);
+	}
+
+	public static void main(String[] args) {
+		long start = System.nanoTime();
+		NotificationChannelRegistry registry = lazy();
+		long discoveryMicros = (System.nanoTime() - start) / 1_000;
+		System.out.println("Discovered " + registry.channels() + " in " + discoveryMicros + " us, none created yet: "
+				+ registry.channels().stream().noneMatch(registry::isLoaded));
+
+		start = System.nanoTime();
+		registry.notifyUser("push");
+		long firstMicros = (System.nanoTime() - start) / 1_000;
+		start = System.nanoTime();
+		registry.notifyUser("push");
+		long secondMicros = (System.nanoTime() - start) / 1_000;
+		System.out.println("First push: " + firstMicros + " us (creates the channel), second: " + secondMicros + " us");
+
+		registry.handler(Channel.EMAIL).notifyUser();
+		System.out.println("Created so far: " + registry.channels().stream().filter(registry::isLoaded).toList());
+
+		start = System.nanoTime();
+		NotificationChannelRegistry all = eager();
+		System.out.println("Eager registry (all channels created) in " + (System.nanoTime() - start) / 1_000 + " us");
+		all.notifyUser("sms");
+		System.out.println("(single cold run; see ChannelStartupBenchmark in Java_8_Benchmarks for measured numbers)");
+	}
+}
@@ -0,0 +1,19 @@
+package channelregistry;
+
+import lambdaExpression.Notification;
+
+/**
+ * Push channel, built around the lambda of {@code LambdaNotificationSystem}. The
+ * lambda is bootstrapped (LambdaMetafactory) when the channel is first created.
+ */
+@ChannelName("push")
+public class PushChannel implements Notification {
+
+	private final Notification delegate = () -> System.out.println("Sending Push Notification 🔔");
+
+	@Override
+	public void notifyUser() {
+		delegate.notifyUser();
+	}
+
+}
@@ -0,0 +1,24 @@
+package channelregistry;
+
+import lambdaExpression.Notification;
+
+/**
+ * SMS channel, built around the anonymous class of {@code AnonymousNotificationSystem}.
+ */
+@ChannelName("sms")
+public class SmsChannel implements Notification {
+
+	private final Notification delegate = new Notification() {
+
+		@Override
+		public void notifyUser() {
+			System.out.println("Sending SMS Notification 📱");
+		}
+	};
+
+	@Override
+	public void notifyUser() {
+		delegate.notifyUser();
+	}
+
+}
@@ -0,0 +1,59 @@
+package coalescing;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import asyncnotification.Channel;
+
+/**
+ * Demonstrates {@link NotificationCoalescer} on a burst of events, using a
+ * simulated clock so the windows can be stepped through instantly.
+ */
+public class CoalescingNotificationSystem {
+
+	public static void main(String[] args) {
+		AtomicLong clock = new AtomicLong();
+		NotificationCoalescer.Policy policy = new NotificationCoalescer.Policy(
+				Duration.ofMinutes(1), Duration.ofSeconds(1), 5, 1, Duration.ofSeconds(30), 100_000, 400_000, 100_000);
+		NotificationCoalescer coalescer = new NotificationCoalescer(policy, DigestFormatter.simple(),
+				(channel, notification) -> notification.notifyUser(), clock::get);
+
+		// A burst: 50 identical push notifications and 8 different ones
+		for (int i = 0; i < 50; i++) {
+			coalescer.submit("alice", Channel.PUSH, "Sending Push Notification 🔔");
+		}
+		for (int i = 1; i <= 8; i++) {
+			coalescer.submit("bob", Channel.PUSH, "Order " + i + " shipped");
+		}
+		clock.addAndGet(1_000);
+		System.out.println("Sent " + coalescer.flush() + " digests for 58 submissions");
+
+		// Bob has used his only token: the next digest waits for a refill
+		coalescer.submit("bob", Channel.PUSH, "Order 9 shipped");
+		clock.addAndGet(1_000);
+		System.out.println("Sent while rate limited: " + coalescer.flush());
+		clock.addAndGet(30_000);
+		System.out.println("Sent after refill: " + coalescer.flush());
+		System.out.println(coalescer.stats());
+
+		// Scale: 2M distinct recipients against caps of 100K digests and buckets; memory is
+		// released once the buckets refill
+		LongAdder delivered = new LongAdder();
+		NotificationCoalescer large = new NotificationCoalescer(policy, DigestFormatter.simple(),
+				(channel, notification) -> delivered.increment(), clock::get);
+		for (int i = 0; i < 2_000_000; i++) {
+			large.submit("user-" + i, Channel.EMAIL, "Welcome!");
+		}
+		clock.addAndGet(1_000);
+		large.flush();
+		System.out.println("Delivered: " + delivered.sum() + ", tracked after flush: " + large.stats().trackedRecipients());
+		clock.addAndGet(60_000);
+		large.flush();
+		System.out.println("Tracked after idle sweep: " + large.stats().trackedRecipients());
+		NotificationCoalescer.Stats stats = large.stats();
+		System.out.println("Dedup entries: " + stats.dedupEntries() + " (evicted " + stats.dedupEvicted()
+				+ "), digests dropped at the pending cap: " + stats.dropped());
+	}
+
+}
@@ -0,0 +1,37 @@
+package coalescing;
+
+import java.util.List;
+
+import asyncnotification.Channel;
+import lambdaExpression.Notification;
+
+/**
+ * Turns all messages collected for one recipient into the single notification that is sent.
+ */
+@FunctionalInterface
+public interface DigestFormatter {
+
+	/**
+	 * @param recipient Who receives the digest
+	 * @param channel Channel it is sent on
+	 * @param messages Distinct messages, oldest first
+	 * @param omitted Messages left out because the digest was full
+	 * @return Notification to send
+	 */
+	Notification format(String recipient, Channel channel, List<String> messages, int omitted);
+
+	/**
+	 * @return Formatter that prints a single message as is, and several as one summary line
+	 */
+	static DigestFormatter simple() {
+		return (recipient, channel, messages, omitted) -> {
+			if (messages.size() == 1 && omitted == 0) {
+				String message = messages.get(0);
+				return () -> System.out.println(message + " -> " + recipient);
+			}
+			String more = omitted > 0 ? " (+" + omitted + " more)" : "";
+			return () -> System.out.println(channel + " digest -> " + recipient + ": " + messages + more);
+		};
+	}
+
+}
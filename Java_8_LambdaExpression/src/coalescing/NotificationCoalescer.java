@@ -0,0 +1,345 @@
+package coalescing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+import asyncnotification.Channel;
+import lambdaExpression.Notification;
+
+/**
+ * Stage in front of the {@code Notification} implementations that turns a burst of
+ * messages into as few sends as possible.
+ *
+ * <p>A burst of events used to produce dozens of identical
+ * "Sending Push Notification" sends. Every submitted message now goes through three steps:
+ * <ol>
+ *   <li><b>Deduplicate</b>: the same message for the same recipient and channel is
+ *       dropped if it was already seen within {@code dedupWindow}</li>
+ *   <li><b>Coalesce</b>: messages for the same recipient and channel are collected for
+ *       {@code digestWindow} and sent as one digest built by the {@link DigestFormatter}</li>
+ *   <li><b>Rate limit</b>: every digest costs one token from the recipient's
+ *       {@link TokenBucket}; without a token the digest waits and keeps absorbing
+ *       messages (up to {@code maxDigestMessages}) until a token is available</li>
+ * </ol>
+ *
+ * <p>Memory stays bounded with millions of recipients; each of the three maps has a cap:
+ * <ul>
+ *   <li>Dedup entries expire after the window. Past {@code maxDedupEntries}, the oldest
+ *       entries are evicted early (that message may then be sent once more)</li>
+ *   <li>Past {@code maxPendingDigests} waiting digests, a message that would start a new
+ *       digest is dropped ({@link Outcome#DROPPED}); existing digests still absorb messages</li>
+ *   <li>Token buckets that are full again are dropped (a full bucket is identical to a
+ *       new one). If more than {@code maxTrackedRecipients} buckets are still needed,
+ *       the ones closest to full are evicted first</li>
+ * </ul>
+ * Every eviction and drop is counted in {@link Stats}. Counters are striped {@link LongAdder}s.
+ *
+ * <p>{@link #submit} can be called from any thread; {@link #flush()} is normally driven
+ * by {@link #scheduleFlush}.
+ */
+public final class NotificationCoalescer {
+
+	/** What happened to a submitted message. */
+	public enum Outcome {
+		/** Started a new digest for the recipient. */
+		QUEUED,
+		/** Added to a digest that was already waiting. */
+		MERGED,
+		/** Identical message seen within the dedup window; dropped. */
+		DUPLICATE,
+		/** Would have started a digest while {@code maxPendingDigests} were waiting; dropped. */
+		DROPPED
+	}
+
+	/**
+	 * Tuning knobs of the coalescer.
+	 * @param dedupWindow How long an identical message is suppressed
+	 * @param digestWindow How long messages are collected before a digest is sent
+	 * @param maxDigestMessages Messages kept per digest; extra ones are only counted
+	 * @param burst Digests a recipient may receive back to back
+	 * @param refillInterval Time to earn one more digest
+	 * @param maxTrackedRecipients Upper bound on token buckets kept in memory
+	 * @param maxDedupEntries Upper bound on remembered messages for deduplication
+	 * @param maxPendingDigests Upper bound on digests waiting to be sent
+	 */
+	public record Policy(Duration dedupWindow, Duration digestWindow, int maxDigestMessages,
+			int burst, Duration refillInterval, int maxTrackedRecipients, int maxDedupEntries, int maxPendingDigests) {
+
+		public Policy {
+			if (maxDigestMessages <= 0 || burst <= 0 || maxTrackedRecipients <= 0) {
+				throw new IllegalArgumentException("Digest size, burst and tracked recipients must be positive");
+			}
+			if (maxDedupEntries <= 0 || maxPendingDigests <= 0) {
+				throw new IllegalArgumentException("Dedup entries and pending digests must be positive");
+			}
+			if (refillInterval.toMillis() <= 0) {
+				throw new IllegalArgumentException("Refill interval must be at least 1 ms");
+			}
+		}
+
+		/**
+		 * @return 1 minute dedup, 1 second digests of up to 20 messages,
+		 *         3 digests burst then 1 per minute, 1M tracked recipients,
+		 *         4M dedup entries, 1M pending digests
+		 */
+		public static Policy defaults() {
+			return new Policy(Duration.ofMinutes(1), Duration.ofSeconds(1), 20,
+					3, Duration.ofMinutes(1), 1_000_000, 4_000_000, 1_000_000);
+		}
+	}
+
+	/**
+	 * Snapshot of the counters.
+	 */
+	public record Stats(long submitted, long duplicates, long merged, long digestsSent,
+			long rateLimited, long bucketsEvicted, long dedupEvicted, long dropped,
+			int trackedRecipients, int dedupEntries, int pendingDigests) {
+	}
+
+	private record MessageKey(String recipient, Channel channel, String message) {
+	}
+
+	private record RecipientKey(String recipient, Channel channel) {
+	}
+
+	/**
+	 * Messages waiting for one recipient/channel. Only mutated inside
+	 * {@code pending.compute}, which serializes access per key.
+	 */
+	private static final class Digest {
+
+		final long createdAt;
+		final List<String> messages = new ArrayList<>(2);
+		int omitted;
+
+		Digest(long createdAt) {
+			this.createdAt = createdAt;
+		}
+
+		void add(String message, int max) {
+			if (messages.size() < max) {
+				messages.add(message);
+			} else {
+				omitted++;
+			}
+		}
+	}
+
+	private final Policy policy;
+	private final DigestFormatter formatter;
+	private final BiConsumer<Channel, Notification> downstream;
+	private final LongSupplier clockMillis;
+
+	private final Map<MessageKey, Long> recentlySeen = new ConcurrentHashMap<>();
+	private final Map<RecipientKey, Digest> pending = new ConcurrentHashMap<>();
+	private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+	private final LongAdder submitted = new LongAdder();
+	private final LongAdder duplicates = new LongAdder();
+	private final LongAdder merged = new LongAdder();
+	private final LongAdder digestsSent = new LongAdder();
+	private final LongAdder rateLimited = new LongAdder();
+	private final LongAdder bucketsEvicted = new LongAdder();
+	private final LongAdder dedupEvicted = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private long lastSweep;
+
+	/**
+	 * @param policy Windows and limits
+	 * @param formatter Builds the digest notification
+	 * @param downstream Receives each digest, e.g. {@code dispatcher::dispatch} or
+	 *        {@code (channel, notification) -> notification.notifyUser()}
+	 */
+	public NotificationCoalescer(Policy policy, DigestFormatter formatter, BiConsumer<Channel, Notification> downstream) {
+		this(policy, formatter, downstream, System::currentTimeMillis);
+	}
+
+	/**
+	 * @param policy Windows and limits
+	 * @param formatter Builds the digest notification
+	 * @param downstream Receives each digest
+	 * @param clockMillis Time source in milliseconds (replaceable for simulations)
+	 */
+	public NotificationCoalescer(Policy policy, DigestFormatter formatter, BiConsumer<Channel, Notification> downstream,
+			LongSupplier clockMillis) {
+		this.policy = policy;
+		this.formatter = formatter;
+		this.downstream = downstream;
+		this.clockMillis = clockMillis;
+		this.lastSweep = clockMillis.getAsLong();
+	}
+
+	/**
+	 * @param recipient Who should receive the message
+	 * @param channel Channel to send on
+	 * @param message Message text (identical texts are deduplicated)
+	 * @return What happened to the message
+	 */
+	public Outcome submit(String recipient, Channel channel, String message) {
+		long now = clockMillis.getAsLong();
+		submitted.increment();
+
+		// Step 1: deduplicate within the window
+		MessageKey key = new MessageKey(recipient, channel, message);
+		Long seen = recentlySeen.putIfAbsent(key, now);
+		if (seen != null) {
+			boolean expired = now - seen >= policy.dedupWindow().toMillis();
+			// replace() fails if another thread refreshed the entry first: that thread wins
+			if (!expired || !recentlySeen.replace(key, seen, now)) {
+				duplicates.increment();
+				return Outcome.DUPLICATE;
+			}
+		} else if (recentlySeen.size() > policy.maxDedupEntries()) {
+			trimDedup(now);
+		}
+
+		// Step 2: add to the recipient's digest
+		Outcome[] outcome = new Outcome[1];
+		pending.compute(new RecipientKey(recipient, channel), (recipientKey, digest) -> {
+			if (digest == null) {
+				// Approximate cap: racing submits for different recipients may pass it together
+				if (pending.size() >= policy.maxPendingDigests()) {
+					outcome[0] = Outcome.DROPPED;
+					return null;
+				}
+				digest = new Digest(now);
+				outcome[0] = Outcome.QUEUED;
+			} else {
+				outcome[0] = Outcome.MERGED;
+			}
+			digest.add(message, policy.maxDigestMessages());
+			return digest;
+		});
+		if (outcome[0] == Outcome.MERGED) {
+			merged.increment();
+		} else if (outcome[0] == Outcome.DROPPED) {
+			// Not sent, so a retry must not count as a duplicate
+			recentlySeen.remove(key, now);
+			dropped.increment();
+		}
+		return outcome[0];
+	}
+
+	/**
+	 * Sends every digest older than the digest window whose recipient has a token,
+	 * and periodically drops expired dedup entries and idle token buckets.
+	 * @return Number of digests sent
+	 */
+	public synchronized int flush() {
+		long now = clockMillis.getAsLong();
+		long digestWindow = policy.digestWindow().toMillis();
+		int sent = 0;
+		for (Map.Entry<RecipientKey, Digest> entry : pending.entrySet()) {
+			Digest digest = entry.getValue();
+			if (now - digest.createdAt < digestWindow) {
+				continue;
+			}
+			RecipientKey key = entry.getKey();
+			if (!bucketOf(key.recipient(), now).tryAcquire(now)) {
+				rateLimited.increment();
+				continue;
+			}
+			// flush() is the only remover, so this always succeeds; it also waits for
+			// any compute() still adding to this digest
+			pending.remove(key);
+			downstream.accept(key.channel(),
+					formatter.format(key.recipient(), key.channel(), digest.messages, digest.omitted));
+			digestsSent.increment();
+			sent++;
+		}
+		if (now - lastSweep >= policy.dedupWindow().toMillis() || buckets.size() > policy.maxTrackedRecipients()) {
+			sweep(now);
+			lastSweep = now;
+		}
+		return sent;
+	}
+
+	/**
+	 * Runs {@link #flush()} at a fixed rate.
+	 * @param scheduler Scheduler to run on
+	 * @param period Time between flushes (a fraction of the digest window works well)
+	 * @return Handle to cancel the schedule
+	 */
+	public ScheduledFuture<?> scheduleFlush(ScheduledExecutorService scheduler, Duration period) {
+		long millis = period.toMillis();
+		return scheduler.scheduleAtFixedRate(this::flush, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return Current counters
+	 */
+	public Stats stats() {
+		return new Stats(submitted.sum(), duplicates.sum(), merged.sum(), digestsSent.sum(),
+				rateLimited.sum(), bucketsEvicted.sum(), dedupEvicted.sum(), dropped.sum(),
+				buckets.size(), recentlySeen.size(), pending.size());
+	}
+
+	private TokenBucket bucketOf(String recipient, long now) {
+		return buckets.computeIfAbsent(recipient,
+				r -> new TokenBucket(policy.burst(), policy.refillInterval().toMillis(), now));
+	}
+
+	/**
+	 * Brings the dedup map back under its cap: expired entries first, then the oldest,
+	 * down to 7/8 of the cap so that the next trim is many submissions away.
+	 */
+	private void trimDedup(long now) {
+		synchronized (recentlySeen) {
+			int limit = policy.maxDedupEntries();
+			if (recentlySeen.size() <= limit) {
+				// Another thread trimmed while this one waited
+				return;
+			}
+			long dedupWindow = policy.dedupWindow().toMillis();
+			recentlySeen.values().removeIf(seen -> now - seen >= dedupWindow);
+			int target = limit - limit / 8;
+			int excess = recentlySeen.size() - target;
+			if (excess > 0) {
+				long[] seenAt = recentlySeen.values().stream().mapToLong(Long::longValue).toArray();
+				Arrays.sort(seenAt);
+				long threshold = seenAt[Math.min(excess, seenAt.length) - 1];
+				int before = recentlySeen.size();
+				recentlySeen.values().removeIf(seen -> seen <= threshold);
+				dedupEvicted.add(before - recentlySeen.size());
+			}
+		}
+	}
+
+	private void sweep(long now) {
+		long dedupWindow = policy.dedupWindow().toMillis();
+		recentlySeen.values().removeIf(seen -> now - seen >= dedupWindow);
+
+		// Full buckets carry no state: dropping them changes nothing
+		int before = buckets.size();
+		buckets.values().removeIf(bucket -> bucket.isFull(now));
+
+		// Still too many: evict the buckets that will be full soonest
+		int excess = buckets.size() - policy.maxTrackedRecipients();
+		if (excess > 0) {
+			long[] fullAt = buckets.values().stream().mapToLong(TokenBucket::fullAt).toArray();
+			Arrays.sort(fullAt);
+			long threshold = fullAt[excess - 1];
+			// Strictly closer to full first, then ties only until the excess is gone
+			buckets.values().removeIf(bucket -> bucket.fullAt() < threshold);
+			Iterator<TokenBucket> ties = buckets.values().iterator();
+			while (buckets.size() > policy.maxTrackedRecipients() && ties.hasNext()) {
+				if (ties.next().fullAt() == threshold) {
+					ties.remove();
+				}
+			}
+		}
+		bucketsEvicted.add(before - buckets.size());
+	}
+
+}
@@ -0,0 +1,66 @@
+package coalescing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, stored as a single {@code long}.
+ *
+ * <p>Uses the "virtual scheduling" form of the token bucket (GCRA): instead of a
+ * token count and a refill timestamp, it keeps the theoretical time at which the
+ * bucket will be full again. Taking a token pushes that time forward by one
+ * refill interval; the request is refused if the time would move more than
+ * {@code burst} intervals into the future. One CAS per call, no lock, no refill thread.
+ */
+final class TokenBucket {
+
+	private final long intervalMillis;
+	private final long burstMillis;
+	// Time (ms) at which the bucket is completely full again
+	private final AtomicLong fullAt;
+
+	/**
+	 * @param burst Tokens available to a fresh/idle recipient
+	 * @param intervalMillis Time to refill one token
+	 * @param nowMillis Current time
+	 */
+	TokenBucket(int burst, long intervalMillis, long nowMillis) {
+		this.intervalMillis = intervalMillis;
+		this.burstMillis = burst * intervalMillis;
+		this.fullAt = new AtomicLong(nowMillis);
+	}
+
+	/**
+	 * @param nowMillis Current time
+	 * @return true if a token was taken
+	 */
+	boolean tryAcquire(long nowMillis) {
+		while (true) {
+			long current = fullAt.get();
+			long next = Math.max(current, nowMillis) + intervalMillis;
+			if (next - nowMillis > burstMillis) {
+				return false;
+			}
+			if (fullAt.compareAndSet(current, next)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * A full bucket behaves exactly like a new one, so it can be dropped without
+	 * changing any future decision.
+	 * @param nowMillis Current time
+	 * @return true if the bucket is full
+	 */
+	boolean isFull(long nowMillis) {
+		return fullAt.get() <= nowMillis;
+	}
+
+	/**
+	 * @return Time at which the bucket is full again (for picking eviction victims)
+	 */
+	long fullAt() {
+		return fullAt.get();
+	}
+
+}
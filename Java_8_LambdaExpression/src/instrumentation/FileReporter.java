@@ -0,0 +1,54 @@
+package instrumentation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends every snapshot to a text file, one line per channel
+ * (same format as {@link MetricsReporter#console()}).
+ */
+public final class FileReporter implements MetricsReporter, AutoCloseable {
+
+	private final BufferedWriter writer;
+
+	/**
+	 * @param file File to append to (created if missing)
+	 */
+	public FileReporter(Path file) {
+		try {
+			this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public synchronized void report(NotificationMetrics.Snapshot snapshot) {
+		try {
+			for (NotificationMetrics.ChannelSnapshot channel : snapshot.channels()) {
+				writer.write(MetricsReporter.format(snapshot, channel));
+				writer.newLine();
+			}
+			// One flush per snapshot, not per line
+			writer.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		try {
+			writer.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
@@ -0,0 +1,48 @@
+package instrumentation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent snapshots in memory, e.g. for a status page or a test.
+ */
+public final class InMemoryReporter implements MetricsReporter {
+
+	private final int capacity;
+	private final Deque<NotificationMetrics.Snapshot> snapshots = new ArrayDeque<>();
+
+	/**
+	 * @param capacity Number of snapshots kept; older ones are dropped
+	 */
+	public InMemoryReporter(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+	}
+
+	@Override
+	public synchronized void report(NotificationMetrics.Snapshot snapshot) {
+		if (snapshots.size() == capacity) {
+			snapshots.removeFirst();
+		}
+		snapshots.addLast(snapshot);
+	}
+
+	/**
+	 * @return Kept snapshots, oldest first
+	 */
+	public synchronized List<NotificationMetrics.Snapshot> snapshots() {
+		return new ArrayList<>(snapshots);
+	}
+
+	/**
+	 * @return Most recent snapshot, or null if nothing was reported yet
+	 */
+	public synchronized NotificationMetrics.Snapshot latest() {
+		return snapshots.peekLast();
+	}
+
+}
@@ -0,0 +1,95 @@
+package instrumentation;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import asyncnotification.Channel;
+import asyncnotification.NotificationDispatcher;
+import asyncnotification.NotificationSink;
+import lambdaExpression.Notification;
+
+/**
+ * Measures notification delivery through {@link NotificationDispatcher}: every
+ * notification is wrapped by {@link NotificationMetrics#instrument}, the dispatcher
+ * queues are registered as gauges, and snapshots are exported to the console, to
+ * memory and to a file.
+ */
+public class InstrumentedNotificationSystem {
+
+	public static void main(String[] args) throws Exception {
+		NotificationMetrics metrics = new NotificationMetrics();
+
+		// Each send takes 20-200 us; SMS fails 1% of the time
+		Notification[] notifications = new Notification[Channel.values().length];
+		for (Channel channel : Channel.values()) {
+			notifications[channel.ordinal()] = metrics.instrument(channel, () -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				long end = System.nanoTime() + random.nextLong(20_000, 200_000);
+				while (System.nanoTime() < end) {
+					Thread.onSpinWait();
+				}
+				if (channel == Channel.SMS && random.nextInt(100) == 0) {
+					throw new IllegalStateException("SMS gateway timeout");
+				}
+			});
+		}
+
+		Path file = Files.createTempFile("notification-metrics", ".log");
+		InMemoryReporter memory = new InMemoryReporter(60);
+		MetricsReporter console = MetricsReporter.console();
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		// A failed send must not abort the rest of its batch
+		NotificationSink sink = (channel, batch) -> {
+			for (Notification notification : batch) {
+				try {
+					notification.notifyUser();
+				} catch (RuntimeException e) {
+					// Already counted as a failure by the instrumented wrapper
+				}
+			}
+		};
+
+		int total = 60_000;
+		List<CompletableFuture<Void>> results = new ArrayList<>(total);
+		try (NotificationDispatcher dispatcher = new NotificationDispatcher(sink);
+				FileReporter fileReporter = new FileReporter(file)) {
+			for (Channel channel : Channel.values()) {
+				metrics.registerQueueDepth(channel, () -> dispatcher.pending(channel));
+			}
+			metrics.exportEvery(scheduler, Duration.ofMillis(250), snapshot -> {
+				console.report(snapshot);
+				memory.report(snapshot);
+				fileReporter.report(snapshot);
+			});
+
+			Channel[] channels = Channel.values();
+			for (int i = 0; i < total; i++) {
+				Channel channel = channels[i % channels.length];
+				results.add(dispatcher.dispatch(channel, notifications[channel.ordinal()], 1, TimeUnit.MINUTES));
+			}
+			CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+			scheduler.shutdown();
+			scheduler.awaitTermination(1, TimeUnit.SECONDS);
+		}
+
+		// Final cumulative view (histograms since the last export)
+		NotificationMetrics.Snapshot last = metrics.snapshot(false);
+		for (NotificationMetrics.ChannelSnapshot channel : last.channels()) {
+			System.out.println("Total " + channel.channel() + ": " + channel.successes() + " ok, "
+					+ channel.failures() + " failed");
+		}
+		System.out.println("Snapshots kept in memory: " + memory.snapshots().size()
+				+ ", failed exports: " + last.exportFailures());
+		System.out.println("Snapshot lines written to " + file + ": " + Files.readAllLines(file).size());
+		Files.delete(file);
+	}
+
+}
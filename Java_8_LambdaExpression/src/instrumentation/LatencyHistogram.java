@@ -0,0 +1,165 @@
+package instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory latency histogram in the style of HdrHistogram.
+ *
+ * <p>Buckets are log-linear: values below 64 get their own bucket, and every power
+ * of two above that is split into 32 equal sub-buckets. Any {@code long} value fits,
+ * the relative error is at most 1/32 (about 3%), and the histogram always has
+ * 1888 buckets (about 15 KB per stripe), no matter how many values are recorded.
+ *
+ * <p>Recording is allocation-free. To keep threads from fighting over the same
+ * counters, the buckets are striped like a {@code LongAdder}: each thread writes
+ * to the stripe picked by its thread id, and snapshots add the stripes together.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+	// Largest index is for exponent 62 (Long.MAX_VALUE)
+	static final int BUCKETS = (62 - SUB_BUCKET_BITS) * SUB_BUCKETS + SUB_BUCKETS * 2;
+	private static final int MAX_STRIPES = 16;
+
+	private final AtomicLongArray[] stripes;
+	private final int stripeMask;
+	private final AtomicLong max = new AtomicLong();
+
+	public LatencyHistogram() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		int stripeCount = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, processors * 2 - 1)));
+		this.stripes = new AtomicLongArray[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			stripes[i] = new AtomicLongArray(BUCKETS);
+		}
+		this.stripeMask = stripeCount - 1;
+	}
+
+	/**
+	 * @param value Value to record, e.g. a latency in nanoseconds (negative values count as 0)
+	 */
+	public void record(long value) {
+		long v = Math.max(0, value);
+		stripes[(int) Thread.currentThread().threadId() & stripeMask].incrementAndGet(indexOf(v));
+		long currentMax = max.get();
+		while (v > currentMax && !max.compareAndSet(currentMax, v)) {
+			currentMax = max.get();
+		}
+	}
+
+	/**
+	 * Adds the stripes together.
+	 * @param reset true to clear the histogram while reading it (interval histograms)
+	 * @return Immutable copy of the bucket counts
+	 */
+	public Snapshot snapshot(boolean reset) {
+		long[] counts = new long[BUCKETS];
+		for (AtomicLongArray stripe : stripes) {
+			for (int i = 0; i < BUCKETS; i++) {
+				counts[i] += reset ? stripe.getAndSet(i, 0) : stripe.get(i);
+			}
+		}
+		long maxValue = reset ? max.getAndSet(0) : max.get();
+		return new Snapshot(counts, maxValue);
+	}
+
+	static int indexOf(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		// Top SUB_BUCKET_BITS + 1 bits of the value, in [SUB_BUCKETS, 2 * SUB_BUCKETS)
+		return shift * SUB_BUCKETS + (int) (value >>> shift);
+	}
+
+	static long lowestValueAt(int index) {
+		if (index < LINEAR_LIMIT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long top = index % SUB_BUCKETS + SUB_BUCKETS;
+		return top << shift;
+	}
+
+	static long highestValueAt(int index) {
+		if (index < LINEAR_LIMIT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		return lowestValueAt(index) + (1L << shift) - 1;
+	}
+
+	/**
+	 * Point-in-time copy of a {@link LatencyHistogram}.
+	 */
+	public static final class Snapshot {
+
+		private final long[] counts;
+		private final long totalCount;
+		private final long max;
+
+		Snapshot(long[] counts, long max) {
+			this.counts = counts;
+			long total = 0;
+			for (long count : counts) {
+				total += count;
+			}
+			this.totalCount = total;
+			this.max = max;
+		}
+
+		/**
+		 * @return Number of recorded values
+		 */
+		public long count() {
+			return totalCount;
+		}
+
+		/**
+		 * @return Largest recorded value (exact)
+		 */
+		public long max() {
+			return max;
+		}
+
+		/**
+		 * @return Average of the recorded values (bucket midpoints)
+		 */
+		public double mean() {
+			if (totalCount == 0) {
+				return 0;
+			}
+			double sum = 0;
+			for (int i = 0; i < counts.length; i++) {
+				if (counts[i] != 0) {
+					sum += counts[i] * ((lowestValueAt(i) + highestValueAt(i)) / 2.0);
+				}
+			}
+			return sum / totalCount;
+		}
+
+		/**
+		 * @param percentile Between 0 and 100, e.g. 99.9
+		 * @return Upper bound of the bucket holding that percentile (0 if empty)
+		 */
+		public long percentile(double percentile) {
+			if (totalCount == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return Math.min(highestValueAt(i), max);
+				}
+			}
+			return max;
+		}
+	}
+
+}
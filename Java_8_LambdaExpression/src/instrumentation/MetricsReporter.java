@@ -0,0 +1,52 @@
+package instrumentation;
+
+import java.util.Locale;
+
+/**
+ * Receives the snapshots exported by {@link NotificationMetrics#exportEvery}.
+ */
+@FunctionalInterface
+public interface MetricsReporter {
+
+	void report(NotificationMetrics.Snapshot snapshot);
+
+	/**
+	 * Called on the export thread when {@link #report} threw; the next export still runs.
+	 * The failure is counted in {@link NotificationMetrics.Snapshot#exportFailures()} either way.
+	 * @param snapshot Snapshot that was not reported (its latency interval is lost)
+	 * @param error What {@link #report} threw
+	 */
+	default void exportFailed(NotificationMetrics.Snapshot snapshot, RuntimeException error) {
+	}
+
+	/**
+	 * @return Reporter that prints one line per channel to standard output
+	 */
+	static MetricsReporter console() {
+		return snapshot -> {
+			for (NotificationMetrics.ChannelSnapshot channel : snapshot.channels()) {
+				System.out.println(format(snapshot, channel));
+			}
+		};
+	}
+
+	/**
+	 * One line per channel: timestamp, channel, cumulative counts, rate and latency
+	 * percentiles of the interval in microseconds, and the queue depth.
+	 * @param snapshot Snapshot the channel belongs to
+	 * @param channel Channel to format
+	 * @return Formatted line without line separator
+	 */
+	static String format(NotificationMetrics.Snapshot snapshot, NotificationMetrics.ChannelSnapshot channel) {
+		LatencyHistogram.Snapshot latency = channel.latency();
+		double seconds = Math.max(1, snapshot.interval().toMillis()) / 1000.0;
+		return String.format(Locale.ROOT,
+				"%s %-5s ok=%d failed=%d rate=%.0f/s p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus queue=%d",
+				snapshot.timestamp(), channel.channel(), channel.successes(), channel.failures(),
+				latency.count() / seconds,
+				latency.percentile(50) / 1000.0, latency.percentile(90) / 1000.0,
+				latency.percentile(99) / 1000.0, latency.percentile(99.9) / 1000.0,
+				latency.max() / 1000.0, channel.queueDepth());
+	}
+
+}
@@ -0,0 +1,173 @@
+package instrumentation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import asyncnotification.Channel;
+import lambdaExpression.Notification;
+
+/**
+ * Latency and throughput metrics for notification delivery, one set per {@link Channel}.
+ *
+ * <p>Each channel gets:
+ * <ul>
+ *   <li>a {@link LatencyHistogram} of {@code notifyUser()} durations in nanoseconds</li>
+ *   <li>success and failure counters ({@link LongAdder}s, so there is no contention)</li>
+ *   <li>an optional queue depth gauge, e.g. {@code dispatcher::pending} or {@code ringBuffer::size}</li>
+ * </ul>
+ *
+ * <p>{@link #instrument(Channel, Notification)} wraps any {@code Notification}. The wrapper
+ * is created once; each call only reads {@link System#nanoTime()} twice and increments
+ * counters, so recording allocates nothing. The other two {@code Notification}
+ * interfaces can be wrapped through a method reference:
+ * {@code metrics.instrument(Channel.EMAIL, emailNotification::notifyUser)}.
+ *
+ * <p>{@link #exportEvery} takes an interval snapshot on a timer (histograms are reset,
+ * counters are cumulative) and hands it to a {@link MetricsReporter}. A report that
+ * throws is counted in {@link Snapshot#exportFailures()} and passed back to the
+ * reporter's {@link MetricsReporter#exportFailed}; the schedule keeps running.
+ */
+public final class NotificationMetrics {
+
+	/**
+	 * Metrics of one channel at one point in time.
+	 * @param latency Latencies recorded since the previous reset, in nanoseconds
+	 * @param queueDepth Current gauge value, -1 if no gauge is registered
+	 */
+	public record ChannelSnapshot(Channel channel, long successes, long failures,
+			LatencyHistogram.Snapshot latency, long queueDepth) {
+	}
+
+	/**
+	 * Metrics of every channel at one point in time.
+	 * @param interval Time covered by the latency histograms
+	 * @param exportFailures Reports that have thrown so far, cumulative
+	 */
+	public record Snapshot(Instant timestamp, Duration interval, List<ChannelSnapshot> channels, long exportFailures) {
+	}
+
+	private static final LongSupplier NO_GAUGE = () -> -1;
+
+	/**
+	 * Counters of one channel.
+	 */
+	private static final class ChannelMetrics {
+
+		final LatencyHistogram latency = new LatencyHistogram();
+		final LongAdder successes = new LongAdder();
+		final LongAdder failures = new LongAdder();
+		volatile LongSupplier queueDepth = NO_GAUGE;
+	}
+
+	private final Map<Channel, ChannelMetrics> channels = new EnumMap<>(Channel.class);
+	private final LongAdder exportFailures = new LongAdder();
+	private Instant lastSnapshot = Instant.now();
+
+	public NotificationMetrics() {
+		for (Channel channel : Channel.values()) {
+			channels.put(channel, new ChannelMetrics());
+		}
+	}
+
+	/**
+	 * @param channel Channel the notification is sent on
+	 * @param notification Notification to measure
+	 * @return Notification that records the latency and outcome of every {@code notifyUser()} call
+	 */
+	public Notification instrument(Channel channel, Notification notification) {
+		ChannelMetrics metrics = channels.get(channel);
+		return () -> {
+			long start = System.nanoTime();
+			boolean success = false;
+			try {
+				notification.notifyUser();
+				success = true;
+			} finally {
+				metrics.latency.record(System.nanoTime() - start);
+				(success ? metrics.successes : metrics.failures).increment();
+			}
+		};
+	}
+
+	/**
+	 * Records a delivery measured elsewhere, e.g. one sink batch.
+	 * @param channel Channel of the delivery
+	 * @param nanos Duration in nanoseconds
+	 * @param success false if the delivery failed
+	 */
+	public void record(Channel channel, long nanos, boolean success) {
+		ChannelMetrics metrics = channels.get(channel);
+		metrics.latency.record(nanos);
+		(success ? metrics.successes : metrics.failures).increment();
+	}
+
+	/**
+	 * @param channel Channel the gauge belongs to
+	 * @param queueDepth Current queue depth, e.g. {@code () -> dispatcher.pending(Channel.SMS)}
+	 */
+	public void registerQueueDepth(Channel channel, LongSupplier queueDepth) {
+		channels.get(channel).queueDepth = queueDepth;
+	}
+
+	/**
+	 * @param reset true to start a new latency interval (counters are never reset)
+	 * @return Current metrics of every channel
+	 */
+	public synchronized Snapshot snapshot(boolean reset) {
+		Instant now = Instant.now();
+		List<ChannelSnapshot> result = new ArrayList<>(channels.size());
+		for (Map.Entry<Channel, ChannelMetrics> entry : channels.entrySet()) {
+			ChannelMetrics metrics = entry.getValue();
+			result.add(new ChannelSnapshot(entry.getKey(), metrics.successes.sum(), metrics.failures.sum(),
+					metrics.latency.snapshot(reset), metrics.queueDepth.getAsLong()));
+		}
+		Snapshot snapshot = new Snapshot(now, Duration.between(lastSnapshot, now), List.copyOf(result),
+				exportFailures.sum());
+		if (reset) {
+			lastSnapshot = now;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Exports an interval snapshot at a fixed rate.
+	 * @param scheduler Scheduler to run on
+	 * @param period Time between snapshots
+	 * @param reporter Receives every snapshot
+	 * @return Handle to cancel the export
+	 */
+	public ScheduledFuture<?> exportEvery(ScheduledExecutorService scheduler, Duration period, MetricsReporter reporter) {
+		long millis = period.toMillis();
+		return scheduler.scheduleAtFixedRate(() -> {
+			Snapshot snapshot = snapshot(true);
+			try {
+				reporter.report(snapshot);
+			} catch (RuntimeException e) {
+				// Keep the schedule alive; a failing reporter must not stop the metrics
+				exportFailures.increment();
+				try {
+					reporter.exportFailed(snapshot, e);
+				} catch (RuntimeException ignored) {
+					// Already counted
+				}
+			}
+		}, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return Scheduled reports that have thrown so far
+	 */
+	public long exportFailures() {
+		return exportFailures.sum();
+	}
+
+}
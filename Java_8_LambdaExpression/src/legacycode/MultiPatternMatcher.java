@@ -0,0 +1,284 @@
+package legacycode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * Matches a string against many substrings at once (Aho-Corasick automaton).
+ *
+ * <p>{@code WithoutLambda} checks one pattern with {@code name.contains("A")}.
+ * With hundreds of patterns that becomes hundreds of scans per record. This class
+ * compiles all patterns into one state machine and reads every character of the
+ * input exactly once, no matter how many patterns there are.
+ *
+ * <p>Semantics are the same as {@link String#contains(CharSequence)}: case-sensitive,
+ * and an empty pattern matches every string. Instances are immutable and thread-safe.
+ *
+ * <p>Usage:
+ * <pre>
+ * MultiPatternMatcher matcher = MultiPatternMatcher.of("A", "an", "ot");
+ *
+ * // Legacy loop
+ * for (String name : list) {
+ *     if (matcher.containsAny(name)) { ... }
+ * }
+ *
+ * // Stream API
+ * list.stream().filter(matcher::containsAny).toList();
+ * </pre>
+ */
+public final class MultiPatternMatcher {
+
+	private static final int[] NO_OUTPUT = new int[0];
+
+	private final String[] patterns;
+
+	// Every character is mapped to a small "class" number; class 0 means
+	// "appears in no pattern" and always leads back to the root state
+	private final int alphabetSize;
+	private final int[] asciiClass;
+	private final char[] otherChars;
+	private final int otherClassBase;
+
+	// Deterministic automaton: transitions[state * alphabetSize + class] = next state
+	private final int[] transitions;
+	// Patterns that end in a state, including those reached through failure links
+	private final int[][] outputs;
+
+	private MultiPatternMatcher(String[] patterns) {
+		this.patterns = patterns;
+
+		// ---------------------------------------------------------------
+		// Step 1: build the character classes
+		// ---------------------------------------------------------------
+		TreeSet<Character> chars = new TreeSet<>();
+		int totalLength = 0;
+		for (String pattern : patterns) {
+			totalLength += pattern.length();
+			for (int i = 0; i < pattern.length(); i++) {
+				chars.add(pattern.charAt(i));
+			}
+		}
+		this.asciiClass = new int[128];
+		List<Character> others = new ArrayList<>();
+		int nextClass = 1;
+		for (char c : chars) {
+			if (c < 128) {
+				asciiClass[c] = nextClass++;
+			} else {
+				others.add(c);
+			}
+		}
+		this.otherClassBase = nextClass;
+		this.otherChars = new char[others.size()];
+		for (int i = 0; i < otherChars.length; i++) {
+			otherChars[i] = others.get(i);
+		}
+		this.alphabetSize = nextClass + otherChars.length;
+
+		// ---------------------------------------------------------------
+		// Step 2: build the trie (-1 = no edge yet)
+		// ---------------------------------------------------------------
+		int maxStates = totalLength + 1;
+		int[] table = new int[maxStates * alphabetSize];
+		Arrays.fill(table, -1);
+		List<List<Integer>> ends = new ArrayList<>();
+		ends.add(new ArrayList<>());
+		int states = 1;
+		for (int p = 0; p < patterns.length; p++) {
+			int state = 0;
+			String pattern = patterns[p];
+			for (int i = 0; i < pattern.length(); i++) {
+				int slot = state * alphabetSize + classOf(pattern.charAt(i));
+				if (table[slot] < 0) {
+					table[slot] = states++;
+					ends.add(new ArrayList<>());
+				}
+				state = table[slot];
+			}
+			ends.get(state).add(p);
+		}
+
+		// ---------------------------------------------------------------
+		// Step 3: failure links (breadth first), turning the trie into a DFA
+		// ---------------------------------------------------------------
+		int[] fail = new int[states];
+		this.outputs = new int[states][];
+		outputs[0] = toArray(ends.get(0));
+		Queue<Integer> queue = new ArrayDeque<>();
+		for (int c = 0; c < alphabetSize; c++) {
+			int next = table[c];
+			if (next < 0) {
+				table[c] = 0;
+			} else {
+				fail[next] = 0;
+				queue.add(next);
+			}
+		}
+		while (!queue.isEmpty()) {
+			int state = queue.poll();
+			outputs[state] = merge(ends.get(state), outputs[fail[state]]);
+			for (int c = 0; c < alphabetSize; c++) {
+				int slot = state * alphabetSize + c;
+				int next = table[slot];
+				int fallback = table[fail[state] * alphabetSize + c];
+				if (next < 0) {
+					// Missing edge: behave like the longest suffix state would
+					table[slot] = fallback;
+				} else {
+					fail[next] = fallback;
+					queue.add(next);
+				}
+			}
+		}
+		this.transitions = Arrays.copyOf(table, states * alphabetSize);
+	}
+
+	/**
+	 * @param patterns Substrings to look for
+	 * @return Matcher for all given patterns
+	 */
+	public static MultiPatternMatcher of(String... patterns) {
+		return of(Arrays.asList(patterns));
+	}
+
+	/**
+	 * @param patterns Substrings to look for (index in iteration order = pattern id)
+	 * @return Matcher for all given patterns
+	 */
+	public static MultiPatternMatcher of(Collection<String> patterns) {
+		String[] copy = patterns.toArray(new String[0]);
+		for (String pattern : copy) {
+			if (pattern == null) {
+				throw new NullPointerException("Patterns must not be null");
+			}
+		}
+		return new MultiPatternMatcher(copy);
+	}
+
+	/**
+	 * @return Number of patterns
+	 */
+	public int patternCount() {
+		return patterns.length;
+	}
+
+	/**
+	 * @param id Pattern id (position in the collection given to {@link #of})
+	 * @return The pattern
+	 */
+	public String pattern(int id) {
+		return patterns[id];
+	}
+
+	/**
+	 * Same as {@code patterns.stream().anyMatch(text::contains)}, in one pass.
+	 * Stops at the first match. Use as {@code stream.filter(matcher::containsAny)}.
+	 * @param text Text to search
+	 * @return true if at least one pattern occurs in {@code text}
+	 */
+	public boolean containsAny(CharSequence text) {
+		if (outputs[0].length > 0) {
+			return true;
+		}
+		int state = 0;
+		for (int i = 0; i < text.length(); i++) {
+			state = transitions[state * alphabetSize + classOf(text.charAt(i))];
+			if (outputs[state].length > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds every pattern that occurs in {@code text}, in one pass.
+	 * @param text Text to search
+	 * @return Ids of the patterns found (each id at most once)
+	 */
+	public BitSet matchingPatterns(CharSequence text) {
+		BitSet found = new BitSet(patterns.length);
+		int state = 0;
+		mark(found, outputs[0]);
+		for (int i = 0; i < text.length(); i++) {
+			state = transitions[state * alphabetSize + classOf(text.charAt(i))];
+			mark(found, outputs[state]);
+		}
+		return found;
+	}
+
+	/**
+	 * @param text Text to search
+	 * @return Patterns found in {@code text}, in pattern id order
+	 */
+	public List<String> matches(CharSequence text) {
+		BitSet found = matchingPatterns(text);
+		List<String> result = new ArrayList<>(found.cardinality());
+		for (int id = found.nextSetBit(0); id >= 0; id = found.nextSetBit(id + 1)) {
+			result.add(patterns[id]);
+		}
+		return result;
+	}
+
+	private int classOf(char c) {
+		if (c < 128) {
+			return asciiClass[c];
+		}
+		int index = Arrays.binarySearch(otherChars, c);
+		return index < 0 ? 0 : otherClassBase + index;
+	}
+
+	private static void mark(BitSet found, int[] ids) {
+		for (int id : ids) {
+			found.set(id);
+		}
+	}
+
+	private static int[] toArray(List<Integer> ids) {
+		if (ids.isEmpty()) {
+			return NO_OUTPUT;
+		}
+		int[] result = new int[ids.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = ids.get(i);
+		}
+		return result;
+	}
+
+	private static int[] merge(List<Integer> own, int[] inherited) {
+		if (own.isEmpty()) {
+			return inherited;
+		}
+		int[] result = Arrays.copyOf(toArray(own), own.size() + inherited.length);
+		System.arraycopy(inherited, 0, result, own.size(), inherited.length);
+		return result;
+	}
+
+	public static void main(String[] args) {
+		List<String> list = Arrays.asList("Apple", "Banana", "Avocado", "Mango", "Apricot");
+		MultiPatternMatcher matcher = MultiPatternMatcher.of("Ap", "cad", "ngo");
+
+		// Legacy loop
+		List<String> elements = new ArrayList<>();
+		for (String name : list) {
+			if (matcher.containsAny(name)) {
+				elements.add(name);
+			}
+		}
+		System.out.println("Legacy Output: " + elements);
+
+		// Stream API
+		System.out.println("Stream Output: " + list.stream().filter(matcher::containsAny).toList());
+
+		// Which patterns matched each name
+		for (String name : list) {
+			System.out.println(name + " -> " + matcher.matches(name));
+		}
+	}
+}
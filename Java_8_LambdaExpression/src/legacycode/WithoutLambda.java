@@ -18,5 +18,15 @@ public class WithoutLambda {
 		}
 		System.out.println("Legacy Output: " + elements);
 
+		// Many patterns: one pass over each name instead of one contains() per pattern
+		MultiPatternMatcher matcher = MultiPatternMatcher.of("A", "ngo", "cad");
+		List<String> multiElements = new ArrayList<>();
+		for (String name : list) {
+			if (matcher.containsAny(name)) {
+				multiElements.add(name);
+			}
+		}
+		System.out.println("Multi-pattern Output: " + multiElements);
+
 	}
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package outbox;
+
+import asyncnotification.Channel;
+
+/**
+ * Sends one outbox entry. Throwing leaves the entry unacknowledged, so it is
+ * delivered again on the next {@link NotificationOutbox#deliver} call or after a restart.
+ */
+@FunctionalInterface
+public interface DeliveryHandler {
+
+	/**
+	 * @param channel Channel the entry was appended for
+	 * @param offset Log offset of the entry (stable across restarts, usable for de-duplication)
+	 * @param payload Bytes given to {@link NotificationOutbox#append}
+	 */
+	void deliver(Channel channel, long offset, byte[] payload) throws Exception;
+
+}
@@ -0,0 +1,561 @@
+package outbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+import asyncnotification.Channel;
+
+/**
+ * Append-only, memory-mapped log of notifications that survives a crash.
+ *
+ * <p>In {@code LegacyNotificationSystem} a notification only exists in memory until
+ * {@code notifyUser()} returns; if the process dies first, it is lost. With the outbox
+ * the notification is appended to a log first and delivered from there:
+ * <ul>
+ *   <li>The log is a series of fixed-size segment files mapped with {@link FileChannel#map};
+ *       an append is a memory copy under a short lock</li>
+ *   <li>Group commit: a background thread forces the dirty pages to disk every
+ *       {@code flushInterval}, so one fsync covers every append since the previous one.
+ *       {@link #awaitDurable(long)} waits for the fsync covering an entry</li>
+ *   <li>Each channel has an acknowledgement offset (kept in the mapped {@code acks} file):
+ *       every entry of that channel before the offset has been delivered. Only entries
+ *       already forced to disk are delivered, and acknowledgements never pass the forced
+ *       end of the log, so the acks file can never get ahead of the entries it covers,
+ *       even when the OS writes the mapped acks page back on its own</li>
+ *   <li>On {@link #open}, torn entries at the end of the log are detected with a CRC and
+ *       dropped; {@link #deliver} then resumes from the stored offsets, replaying
+ *       everything not yet acknowledged (at-least-once delivery)</li>
+ *   <li>Segments whose entries are all acknowledged are deleted by {@link #compact()}</li>
+ * </ul>
+ * A failed fsync or compaction does not stop the background thread: it is counted in
+ * {@link #flushFailures()} or {@link #compactFailures()}, kept in {@link #lastFailure()},
+ * and retried at the next interval. Threads waiting for an fsync get the failure.
+ *
+ * <p>Entry layout: {@code [int entrySize][int crc32c][byte channel][payload]}.
+ * An entry size of 0 marks the unused rest of a segment.
+ *
+ * <p>Any number of threads may append. Call {@link #deliver} for a given channel from
+ * one thread at a time.
+ */
+public final class NotificationOutbox implements AutoCloseable {
+
+	/** Default size of one segment file. */
+	public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+
+	/** Default time between two group-commit fsyncs. */
+	public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(2);
+
+	private static final int HEADER_BYTES = 9;
+	private static final String SEGMENT_SUFFIX = ".segment";
+	private static final Channel[] CHANNELS = Channel.values();
+	private static final long COMPACT_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+	private final Path directory;
+	private final int segmentBytes;
+	private final long flushIntervalNanos;
+	private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+	private final MappedByteBuffer acks;
+
+	private final ReentrantLock appendLock = new ReentrantLock();
+	private final CRC32C appendCrc = new CRC32C();
+	private Segment active;
+	private volatile long writtenOffset;
+
+	private final Object durableMonitor = new Object();
+	private volatile long durableOffset;
+	// Failure of the latest group commit, null once one succeeds; guarded by durableMonitor
+	private RuntimeException flushFailure;
+
+	// Written only by the flusher thread
+	private volatile long flushFailures;
+	private volatile long compactFailures;
+	private volatile RuntimeException lastFailure;
+
+	private final Thread flusher;
+	private volatile boolean closed;
+
+	private NotificationOutbox(Path directory, int segmentBytes, Duration flushInterval) throws IOException {
+		this.directory = directory;
+		this.segmentBytes = segmentBytes;
+		this.flushIntervalNanos = flushInterval.toNanos();
+		Files.createDirectories(directory);
+		this.acks = map(directory.resolve("acks"), (long) CHANNELS.length * Long.BYTES);
+		recover();
+		this.flusher = new Thread(this::flushLoop, "outbox-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Opens (or creates) an outbox with default segment size and flush interval.
+	 * @param directory Directory holding the segment files
+	 * @return Open outbox, with any unacknowledged entries ready to be delivered again
+	 */
+	public static NotificationOutbox open(Path directory) throws IOException {
+		return open(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_FLUSH_INTERVAL);
+	}
+
+	/**
+	 * @param directory Directory holding the segment files
+	 * @param segmentBytes Size of each segment file (must match existing segments)
+	 * @param flushInterval Time between group-commit fsyncs
+	 * @return Open outbox, with any unacknowledged entries ready to be delivered again
+	 */
+	public static NotificationOutbox open(Path directory, int segmentBytes, Duration flushInterval)
+			throws IOException {
+		if (segmentBytes < HEADER_BYTES) {
+			throw new IllegalArgumentException("Segment too small: " + segmentBytes);
+		}
+		return new NotificationOutbox(directory, segmentBytes, flushInterval);
+	}
+
+	// =====================================================================
+	// Appending
+	// =====================================================================
+
+	/**
+	 * Appends an entry. Returns as soon as the bytes are in the mapped file; use
+	 * {@link #awaitDurable(long)} (or {@link #appendDurable}) when the caller must
+	 * know the entry is on disk.
+	 * @param channel Channel to deliver the entry on
+	 * @param payload Notification data (for example the message text)
+	 * @return Offset of the entry in the log
+	 */
+	public long append(Channel channel, byte[] payload) {
+		int size = HEADER_BYTES + payload.length;
+		if (size > segmentBytes) {
+			throw new IllegalArgumentException("Entry of " + size + " bytes does not fit a segment of " + segmentBytes);
+		}
+		appendLock.lock();
+		try {
+			ensureOpen();
+			long offset = writtenOffset;
+			int position = (int) (offset - active.base);
+			if (position + size > segmentBytes) {
+				roll();
+				offset = active.base;
+				position = 0;
+			}
+			MappedByteBuffer buffer = active.buffer;
+			appendCrc.reset();
+			appendCrc.update(channel.ordinal());
+			appendCrc.update(payload);
+			buffer.put(position + HEADER_BYTES, payload);
+			buffer.put(position + 8, (byte) channel.ordinal());
+			buffer.putInt(position + 4, (int) appendCrc.getValue());
+			// Size last: until it is written, readers see the end of the log here
+			buffer.putInt(position, size);
+			active.lastEnd[channel.ordinal()] = offset + size;
+			writtenOffset = offset + size;
+			return offset;
+		} finally {
+			appendLock.unlock();
+		}
+	}
+
+	/**
+	 * Appends an entry and waits until the group commit has written it to disk.
+	 * @param channel Channel to deliver the entry on
+	 * @param payload Notification data
+	 * @return Offset of the entry in the log
+	 * @throws IllegalStateException if the group commit failed before covering the entry;
+	 *         the entry is in the log and may still become durable on a later retry
+	 */
+	public long appendDurable(Channel channel, byte[] payload) throws InterruptedException {
+		long offset = append(channel, payload);
+		awaitDurable(offset);
+		return offset;
+	}
+
+	/**
+	 * Blocks until the entry at {@code offset} has been forced to disk.
+	 * @param offset Offset returned by {@link #append}
+	 * @throws IllegalStateException if the outbox is closed, or the latest group commit
+	 *         failed; the flusher keeps retrying, so a later call may succeed
+	 */
+	public void awaitDurable(long offset) throws InterruptedException {
+		synchronized (durableMonitor) {
+			while (durableOffset <= offset) {
+				ensureOpen();
+				if (flushFailure != null) {
+					throw new IllegalStateException("Group commit failed, entry at " + offset + " may not be on disk",
+							flushFailure);
+				}
+				durableMonitor.wait();
+			}
+		}
+	}
+
+	// Called with appendLock held
+	private void roll() {
+		long base = active.base + segmentBytes;
+		try {
+			active = createSegment(base);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		segments.put(base, active);
+		writtenOffset = base;
+	}
+
+	// =====================================================================
+	// Delivery and acknowledgement
+	// =====================================================================
+
+	/**
+	 * Hands unacknowledged entries of {@code channel} to {@code handler}, oldest first.
+	 * Only entries that the group commit has already forced to disk are delivered, so a
+	 * fresh append becomes deliverable within one flush interval.
+	 * Each entry is acknowledged right after the handler returns; if the handler throws,
+	 * the exception propagates and that entry stays unacknowledged.
+	 * @param channel Channel to deliver
+	 * @param maxEntries Maximum number of entries to deliver in this call
+	 * @param handler Sends the entry
+	 * @return Number of entries delivered
+	 */
+	public int deliver(Channel channel, int maxEntries, DeliveryHandler handler) throws Exception {
+		int ordinal = channel.ordinal();
+		long offset = acknowledged(channel);
+		long end = durableOffset;
+		int delivered = 0;
+		while (delivered < maxEntries && offset < end) {
+			Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+			if (entry == null || offset >= entry.getKey() + segmentBytes) {
+				// Segment already compacted: it held nothing unacknowledged for this channel
+				Long nextBase = segments.ceilingKey(offset);
+				if (nextBase == null) {
+					break;
+				}
+				offset = nextBase;
+				continue;
+			}
+			Segment segment = entry.getValue();
+			int position = (int) (offset - segment.base);
+			int size = position + HEADER_BYTES <= segmentBytes ? segment.buffer.getInt(position) : 0;
+			if (size == 0) {
+				// Unused tail of a segment: continue in the next one
+				offset = segment.base + segmentBytes;
+				continue;
+			}
+			if (segment.buffer.get(position + 8) == ordinal) {
+				byte[] payload = new byte[size - HEADER_BYTES];
+				segment.buffer.get(position + HEADER_BYTES, payload);
+				handler.deliver(channel, offset, payload);
+				delivered++;
+			}
+			offset += size;
+			acknowledge(channel, offset);
+		}
+		return delivered;
+	}
+
+	/**
+	 * Marks every entry of {@code channel} before {@code offset} as delivered.
+	 * Offsets only move forward; a smaller value is ignored. An offset beyond the part
+	 * of the log already on disk is lowered to its end: acknowledging entries that a
+	 * crash could still lose would make recovery skip their replacements.
+	 * @param channel Channel being acknowledged
+	 * @param offset Offset just after the last delivered entry
+	 */
+	public void acknowledge(Channel channel, long offset) {
+		int index = channel.ordinal() * Long.BYTES;
+		offset = Math.min(offset, durableOffset);
+		synchronized (acks) {
+			if (offset > acks.getLong(index)) {
+				acks.putLong(index, offset);
+			}
+		}
+	}
+
+	/**
+	 * @param channel Channel to inspect
+	 * @return Offset up to which {@code channel} has been delivered
+	 */
+	public long acknowledged(Channel channel) {
+		synchronized (acks) {
+			return acks.getLong(channel.ordinal() * Long.BYTES);
+		}
+	}
+
+	/**
+	 * @return Offset just after the last appended entry
+	 */
+	public long endOffset() {
+		return writtenOffset;
+	}
+
+	// =====================================================================
+	// Compaction
+	// =====================================================================
+
+	/**
+	 * Deletes every non-active segment whose entries are acknowledged on all channels.
+	 * Runs automatically about once per second; can also be called directly.
+	 * A segment whose file cannot be deleted stays in the log and is tried again next time.
+	 * @return Number of segment files deleted
+	 * @throws UncheckedIOException if a file could not be deleted (after trying all of them)
+	 */
+	public int compact() {
+		List<Segment> removable = new ArrayList<>();
+		// The lock gives a consistent view of 'active' and of the per-segment channel offsets
+		appendLock.lock();
+		try {
+			for (Segment segment : segments.values()) {
+				if (segment != active && fullyAcknowledged(segment)) {
+					segments.remove(segment.base);
+					removable.add(segment);
+				}
+			}
+		} finally {
+			appendLock.unlock();
+		}
+		UncheckedIOException failure = null;
+		int deleted = 0;
+		for (Segment segment : removable) {
+			try {
+				Files.deleteIfExists(segment.file);
+				deleted++;
+			} catch (IOException e) {
+				// Fully acknowledged, so putting it back cannot cause a redelivery
+				segments.put(segment.base, segment);
+				if (failure == null) {
+					failure = new UncheckedIOException(e);
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		return deleted;
+	}
+
+	private boolean fullyAcknowledged(Segment segment) {
+		for (Channel channel : CHANNELS) {
+			if (segment.lastEnd[channel.ordinal()] > acknowledged(channel)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// =====================================================================
+	// Group commit
+	// =====================================================================
+
+	private void flushLoop() {
+		long lastCompact = System.nanoTime();
+		while (!closed) {
+			LockSupport.parkNanos(flushIntervalNanos);
+			try {
+				flush();
+			} catch (RuntimeException e) {
+				// durableOffset stays where it was: the next flush covers the same entries
+				flushFailures++;
+				lastFailure = e;
+				synchronized (durableMonitor) {
+					flushFailure = e;
+					durableMonitor.notifyAll();
+				}
+			}
+			if (System.nanoTime() - lastCompact > COMPACT_INTERVAL_NANOS) {
+				try {
+					compact();
+				} catch (RuntimeException e) {
+					compactFailures++;
+					lastFailure = e;
+				}
+				lastCompact = System.nanoTime();
+			}
+		}
+	}
+
+	private void flush() {
+		long target = writtenOffset;
+		long from = durableOffset;
+		if (target != from) {
+			Long firstDirty = segments.floorKey(from);
+			for (Segment segment : segments.subMap(firstDirty == null ? 0 : firstDirty, true, target, true).values()) {
+				segment.buffer.force();
+			}
+		}
+		// Acks written so far are at or below the old durableOffset, so their entries are on disk
+		synchronized (acks) {
+			acks.force();
+		}
+		synchronized (durableMonitor) {
+			durableOffset = target;
+			flushFailure = null;
+			durableMonitor.notifyAll();
+		}
+	}
+
+	/**
+	 * @return Background group commits that failed so far (each is retried)
+	 */
+	public long flushFailures() {
+		return flushFailures;
+	}
+
+	/**
+	 * @return Background compactions that failed to delete a segment so far
+	 */
+	public long compactFailures() {
+		return compactFailures;
+	}
+
+	/**
+	 * @return Most recent background flush or compaction failure, or null if none
+	 */
+	public RuntimeException lastFailure() {
+		return lastFailure;
+	}
+
+	/**
+	 * Forces everything to disk and stops the background flusher.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		LockSupport.unpark(flusher);
+		try {
+			flusher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		appendLock.lock();
+		try {
+			flush();
+		} finally {
+			appendLock.unlock();
+			// Wake up anyone still waiting so they see the closed state, also if the flush failed
+			synchronized (durableMonitor) {
+				durableMonitor.notifyAll();
+			}
+		}
+	}
+
+	private void ensureOpen() {
+		if (closed) {
+			throw new IllegalStateException("Outbox is closed");
+		}
+	}
+
+	// =====================================================================
+	// Recovery
+	// =====================================================================
+
+	private void recover() throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				long base = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+				if (Files.size(file) != segmentBytes) {
+					throw new IOException(file + " does not have the configured segment size " + segmentBytes);
+				}
+				segments.put(base, new Segment(file, base, map(file, segmentBytes)));
+			}
+		}
+		if (segments.isEmpty()) {
+			segments.put(0L, createSegment(0));
+		}
+
+		CRC32C crc = new CRC32C();
+		for (Segment segment : segments.values()) {
+			int position = 0;
+			while (position + HEADER_BYTES <= segmentBytes) {
+				int size = segment.buffer.getInt(position);
+				if (size == 0) {
+					break;
+				}
+				if (!validEntry(segment, position, size, crc)) {
+					// Torn write from a crash: drop it and anything after it in this segment
+					for (int i = position; i < segmentBytes; i++) {
+						segment.buffer.put(i, (byte) 0);
+					}
+					break;
+				}
+				int ordinal = segment.buffer.get(position + 8);
+				segment.lastEnd[ordinal] = segment.base + position + size;
+				position += size;
+			}
+			segment.recoveredEnd = segment.base + position;
+		}
+		active = segments.lastEntry().getValue();
+		writtenOffset = active.recoveredEnd;
+		durableOffset = writtenOffset;
+
+		// An ack past the recovered end covers entries lost in the crash; left there, it
+		// would also cover the new entries appended at the recovered end
+		for (Channel channel : CHANNELS) {
+			int index = channel.ordinal() * Long.BYTES;
+			if (acks.getLong(index) > writtenOffset) {
+				acks.putLong(index, writtenOffset);
+			}
+		}
+		acks.force();
+	}
+
+	private boolean validEntry(Segment segment, int position, int size, CRC32C crc) {
+		if (size < HEADER_BYTES || position + size > segmentBytes) {
+			return false;
+		}
+		int ordinal = segment.buffer.get(position + 8);
+		if (ordinal < 0 || ordinal >= CHANNELS.length) {
+			return false;
+		}
+		crc.reset();
+		crc.update(ordinal);
+		crc.update(segment.buffer.slice(position + HEADER_BYTES, size - HEADER_BYTES));
+		return (int) crc.getValue() == segment.buffer.getInt(position + 4);
+	}
+
+	private Segment createSegment(long base) throws IOException {
+		Path file = directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+		return new Segment(file, base, map(file, segmentBytes));
+	}
+
+	private static MappedByteBuffer map(Path file, long size) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// The mapping stays valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+	}
+
+	/**
+	 * One mapped segment file starting at log offset {@code base}.
+	 */
+	private static final class Segment {
+
+		final Path file;
+		final long base;
+		final MappedByteBuffer buffer;
+		// Per channel: offset just after the channel's last entry in this segment (0 = none)
+		final long[] lastEnd = new long[CHANNELS.length];
+		long recoveredEnd;
+
+		Segment(Path file, long base, MappedByteBuffer buffer) {
+			this.file = file;
+			this.base = base;
+			this.buffer = buffer;
+		}
+	}
+
+}
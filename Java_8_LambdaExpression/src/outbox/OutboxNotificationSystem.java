@@ -0,0 +1,75 @@
+package outbox;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import asyncnotification.Channel;
+import lambdaExpression.Notification;
+
+/**
+ * Demonstrates at-least-once notification delivery through {@link NotificationOutbox}:
+ * append, "crash" half way through delivery, reopen and replay.
+ */
+public class OutboxNotificationSystem {
+
+	public static void main(String[] args) throws Exception {
+		Path directory = Files.createTempDirectory("outbox");
+
+		// ---------------------------------------------------------------
+		// 1. Append throughput (group commit, 100-byte payloads)
+		// ---------------------------------------------------------------
+		int total = 2_000_000;
+		byte[] payload = new byte[100];
+		try (NotificationOutbox outbox = NotificationOutbox.open(directory)) {
+			long start = System.nanoTime();
+			long last = 0;
+			for (int i = 0; i < total; i++) {
+				last = outbox.append(Channel.values()[i % 3], payload);
+			}
+			outbox.awaitDurable(last);
+			long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+			System.out.printf("Appended %d entries durably in %d ms (%d per second)%n",
+					total, millis, total * 1000L / millis);
+
+			// Everything delivered: the full segments can be deleted
+			for (Channel channel : Channel.values()) {
+				outbox.deliver(channel, Integer.MAX_VALUE, (c, offset, bytes) -> {
+				});
+			}
+			System.out.println("Segments deleted after delivery: " + outbox.compact());
+		}
+
+		// ---------------------------------------------------------------
+		// 2. Crash in the middle of delivery, then replay
+		// ---------------------------------------------------------------
+		try (NotificationOutbox outbox = NotificationOutbox.open(directory)) {
+			for (int i = 1; i <= 5; i++) {
+				outbox.appendDurable(Channel.EMAIL, ("Email " + i).getBytes(StandardCharsets.UTF_8));
+			}
+			AtomicInteger sent = new AtomicInteger();
+			try {
+				outbox.deliver(Channel.EMAIL, Integer.MAX_VALUE, (channel, offset, bytes) -> {
+					if (sent.incrementAndGet() == 3) {
+						throw new IllegalStateException("Process died while sending");
+					}
+					send(bytes);
+				});
+			} catch (IllegalStateException e) {
+				System.out.println(e.getMessage());
+			}
+		}
+		try (NotificationOutbox outbox = NotificationOutbox.open(directory)) {
+			System.out.println("After restart, replaying unacknowledged entries:");
+			outbox.deliver(Channel.EMAIL, Integer.MAX_VALUE, (channel, offset, bytes) -> send(bytes));
+		}
+	}
+
+	private static void send(byte[] bytes) {
+		String text = new String(bytes, StandardCharsets.UTF_8);
+		Notification notification = () -> System.out.println("Sending Email Notification 📧 " + text);
+		notification.notifyUser();
+	}
+
+}
@@ -0,0 +1,23 @@
+package ringbuffer;
+
+/**
+ * Consumer side of a {@link NotificationRingBuffer}.
+ */
+@FunctionalInterface
+public interface EventHandler {
+
+	/**
+	 * @param event Slot being handled; only valid during this call
+	 * @param sequence Sequence number of the event
+	 * @param endOfBatch true for the last event currently available, a good moment to flush
+	 */
+	void onEvent(NotificationEvent event, long sequence, boolean endOfBatch) throws Exception;
+
+	/**
+	 * @return Handler that calls {@code notifyUser()} for every event
+	 */
+	static EventHandler direct() {
+		return (event, sequence, endOfBatch) -> event.notification().notifyUser();
+	}
+
+}
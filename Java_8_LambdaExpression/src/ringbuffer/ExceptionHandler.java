@@ -0,0 +1,25 @@
+package ringbuffer;
+
+/**
+ * Receives the failures of an {@link EventHandler}, on the consumer thread.
+ */
+@FunctionalInterface
+public interface ExceptionHandler {
+
+	/**
+	 * Called once per failed event; the consumer then moves on to the next event.
+	 * @param error What the event handler threw, exceptions and errors alike
+	 * @param sequence Sequence number of the failed event
+	 * @param event Slot of the failed event; only valid during this call
+	 */
+	void onException(Throwable error, long sequence, NotificationEvent event);
+
+	/**
+	 * @return Handler that drops failures; they are still counted by {@link NotificationRingBuffer#failures()}
+	 */
+	static ExceptionHandler ignore() {
+		return (error, sequence, event) -> {
+		};
+	}
+
+}
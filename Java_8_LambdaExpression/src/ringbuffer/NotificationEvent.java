@@ -0,0 +1,39 @@
+package ringbuffer;
+
+import asyncnotification.Channel;
+import lambdaExpression.Notification;
+
+/**
+ * Reusable slot of a {@link NotificationRingBuffer}.
+ *
+ * <p>Slots are created once when the ring buffer is built; publishing only
+ * overwrites their fields, so no object is allocated per event.
+ */
+public final class NotificationEvent {
+
+	private Channel channel;
+	private Notification notification;
+
+	NotificationEvent() {
+	}
+
+	void set(Channel channel, Notification notification) {
+		this.channel = channel;
+		this.notification = notification;
+	}
+
+	// Drops the reference once handled, so a delivered notification can be collected
+	void clear() {
+		this.channel = null;
+		this.notification = null;
+	}
+
+	public Channel channel() {
+		return channel;
+	}
+
+	public Notification notification() {
+		return notification;
+	}
+
+}
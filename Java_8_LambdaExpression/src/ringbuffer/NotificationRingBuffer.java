@@ -0,0 +1,289 @@
+package ringbuffer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import asyncnotification.Channel;
+import lambdaExpression.Notification;
+
+/**
+ * Pre-allocated, lock-free ring buffer for handing notifications from many
+ * producer threads to one consumer thread (Disruptor style).
+ *
+ * <p>{@code LambdaNotificationSystem} and {@code AnonymousNotificationSystem} call
+ * {@code notifyUser()} on the producer thread, so a slow send slows the producer.
+ * With this buffer the producer only claims a slot, writes two fields and publishes:
+ * <ul>
+ *   <li>Producers claim sequence numbers with one atomic increment (or CAS for
+ *       {@link #tryPublish}); slot {@code sequence & (capacity - 1)} is theirs</li>
+ *   <li>Each slot is a reusable {@link NotificationEvent}; nothing is allocated per event</li>
+ *   <li>A per-slot "round" flag, written with release semantics, tells the consumer
+ *       that the slot is fully written, even when producers finish out of order</li>
+ *   <li>The consumer handles every contiguous published event as one batch and
+ *       then moves its sequence forward, which frees the slots for producers</li>
+ *   <li>A {@link WaitStrategy} decides whether waiting threads spin, yield or park</li>
+ * </ul>
+ *
+ * <p>An event whose handler throws (an {@link Error} such as {@link StackOverflowError}
+ * included) is counted in {@link #failures()} and passed to the {@link ExceptionHandler}
+ * given at construction; the consumer then carries on, so producers never wait on a
+ * consumer that is gone.
+ *
+ * <p>Stop the producers before {@link #close()}: events already published are
+ * still handled, but a producer blocked on a full buffer would wait forever.
+ */
+public final class NotificationRingBuffer implements AutoCloseable {
+
+	private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+	private final NotificationEvent[] slots;
+	// Round (sequence / capacity) last published into each slot, -1 = never
+	private final int[] available;
+	private final int mask;
+	private final int shift;
+	private final WaitStrategy waitStrategy;
+	private final ExceptionHandler exceptionHandler;
+
+	// Highest sequence claimed by a producer
+	private final Sequence claimed = new Sequence(-1);
+	// Highest sequence fully handled by the consumer
+	private final Sequence consumed = new Sequence(-1);
+
+	// Written only by the consumer thread
+	private volatile long failures;
+	private volatile boolean running;
+	private Thread consumer;
+
+	/**
+	 * Creates a buffer that only counts failed events.
+	 * @param capacity Number of slots, must be a power of two
+	 * @param waitStrategy How producers and the consumer wait
+	 */
+	public NotificationRingBuffer(int capacity, WaitStrategy waitStrategy) {
+		this(capacity, waitStrategy, ExceptionHandler.ignore());
+	}
+
+	/**
+	 * @param capacity Number of slots, must be a power of two
+	 * @param waitStrategy How producers and the consumer wait
+	 * @param exceptionHandler Told about every event whose handler throws
+	 */
+	public NotificationRingBuffer(int capacity, WaitStrategy waitStrategy, ExceptionHandler exceptionHandler) {
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+		}
+		this.slots = new NotificationEvent[capacity];
+		this.available = new int[capacity];
+		for (int i = 0; i < capacity; i++) {
+			slots[i] = new NotificationEvent();
+			available[i] = -1;
+		}
+		this.mask = capacity - 1;
+		this.shift = Integer.numberOfTrailingZeros(capacity);
+		this.waitStrategy = waitStrategy;
+		this.exceptionHandler = exceptionHandler;
+	}
+
+	/**
+	 * @return Number of slots
+	 */
+	public int capacity() {
+		return slots.length;
+	}
+
+	/**
+	 * @return Events claimed by producers but not yet handled by the consumer
+	 */
+	public long size() {
+		return claimed.get() - consumed.get();
+	}
+
+	/**
+	 * @return Events whose handler threw so far
+	 */
+	public long failures() {
+		return failures;
+	}
+
+	// =====================================================================
+	// Producer side (any number of threads)
+	// =====================================================================
+
+	/**
+	 * Publishes an event, waiting with the wait strategy while the buffer is full.
+	 * @param channel Channel of the notification
+	 * @param notification Notification to hand off
+	 */
+	public void publish(Channel channel, Notification notification) {
+		long sequence = claimed.getAndIncrement() + 1;
+		long wrapPoint = sequence - slots.length;
+		int attempt = 0;
+		while (wrapPoint > consumed.get()) {
+			waitStrategy.idle(attempt++);
+		}
+		write(sequence, channel, notification);
+	}
+
+	/**
+	 * Publishes an event only if a slot is free right now.
+	 * @param channel Channel of the notification
+	 * @param notification Notification to hand off
+	 * @return false if the buffer was full
+	 */
+	public boolean tryPublish(Channel channel, Notification notification) {
+		long current;
+		long sequence;
+		do {
+			current = claimed.get();
+			sequence = current + 1;
+			if (sequence - slots.length > consumed.get()) {
+				return false;
+			}
+		} while (!claimed.compareAndSet(current, sequence));
+		write(sequence, channel, notification);
+		return true;
+	}
+
+	private void write(long sequence, Channel channel, Notification notification) {
+		int index = (int) sequence & mask;
+		slots[index].set(channel, notification);
+		AVAILABLE.setRelease(available, index, (int) (sequence >>> shift));
+	}
+
+	private boolean isAvailable(long sequence) {
+		int index = (int) sequence & mask;
+		return (int) AVAILABLE.getAcquire(available, index) == (int) (sequence >>> shift);
+	}
+
+	// =====================================================================
+	// Consumer side (one thread)
+	// =====================================================================
+
+	/**
+	 * Starts the single consumer thread.
+	 * @param handler Called for every event, in sequence order
+	 */
+	public synchronized void start(EventHandler handler) {
+		if (consumer != null) {
+			throw new IllegalStateException("Consumer already started");
+		}
+		running = true;
+		consumer = new Thread(() -> consume(handler), "notification-ring-consumer");
+		consumer.start();
+	}
+
+	private void consume(EventHandler handler) {
+		long next = consumed.get() + 1;
+		int attempt = 0;
+		while (true) {
+			if (!isAvailable(next)) {
+				if (!running) {
+					// Nothing left that was published before close()
+					return;
+				}
+				waitStrategy.idle(attempt++);
+				continue;
+			}
+			attempt = 0;
+
+			// Batch = every contiguous published event from 'next' onwards
+			long last = next;
+			long highest = claimed.get();
+			while (last < highest && isAvailable(last + 1)) {
+				last++;
+			}
+			for (long sequence = next; sequence <= last; sequence++) {
+				NotificationEvent event = slots[(int) sequence & mask];
+				try {
+					handler.onEvent(event, sequence, sequence == last);
+				} catch (Throwable e) {
+					// Errors too: a dead consumer would leave producers blocked on a full ring
+					failed(e, sequence, event);
+				} finally {
+					event.clear();
+				}
+			}
+			consumed.set(last);
+			next = last + 1;
+		}
+	}
+
+	private void failed(Throwable error, long sequence, NotificationEvent event) {
+		failures++;
+		try {
+			exceptionHandler.onException(error, sequence, event);
+		} catch (Throwable e) {
+			// Already counted; a throwing exception handler must not stop the consumer
+		}
+	}
+
+	/**
+	 * Handles every event published so far, then stops the consumer thread.
+	 */
+	@Override
+	public synchronized void close() {
+		running = false;
+		if (consumer != null) {
+			try {
+				consumer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	// =====================================================================
+	// Cache-line padded sequence counter
+	// =====================================================================
+
+	/*
+	 * The producer counter and the consumer counter are written by different
+	 * threads; without padding they could share a 64-byte cache line and every
+	 * write would invalidate the other side's cache (false sharing).
+	 */
+	@SuppressWarnings("unused")
+	private abstract static class LeftPadding {
+		long p1, p2, p3, p4, p5, p6, p7;
+	}
+
+	private abstract static class Value extends LeftPadding {
+		volatile long value;
+	}
+
+	@SuppressWarnings("unused")
+	private static final class Sequence extends Value {
+
+		private static final VarHandle VALUE;
+
+		static {
+			try {
+				VALUE = MethodHandles.lookup().findVarHandle(Value.class, "value", long.class);
+			} catch (ReflectiveOperationException e) {
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		long p9, p10, p11, p12, p13, p14, p15;
+
+		Sequence(long initial) {
+			value = initial;
+		}
+
+		long get() {
+			return value;
+		}
+
+		void set(long newValue) {
+			VALUE.setRelease(this, newValue);
+		}
+
+		long getAndIncrement() {
+			return (long) VALUE.getAndAdd(this, 1L);
+		}
+
+		boolean compareAndSet(long expected, long newValue) {
+			return VALUE.compareAndSet(this, expected, newValue);
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+package ringbuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import asyncnotification.Channel;
+import lambdaExpression.Notification;
+
+/**
+ * Demonstrates handing notifications off through {@link NotificationRingBuffer}
+ * instead of calling {@code notifyUser()} on the producer thread.
+ */
+public class RingBufferNotificationSystem {
+
+	public static void main(String[] args) throws InterruptedException {
+		// Simple hand-off: the consumer thread does the sending
+		Notification push = () -> System.out.println("Sending Push Notification 🔔");
+		try (NotificationRingBuffer ring = new NotificationRingBuffer(1024, WaitStrategy.YIELDING)) {
+			ring.start(EventHandler.direct());
+			ring.publish(Channel.PUSH, push);
+		}
+
+		// Failed sends go to the exception handler and are counted
+		Notification broken = () -> {
+			throw new IllegalStateException("SMS gateway unavailable");
+		};
+		NotificationRingBuffer failing = new NotificationRingBuffer(1024, WaitStrategy.YIELDING,
+				(error, sequence, event) -> System.out.println(event.channel() + " event " + sequence + " failed: "
+						+ error.getMessage()));
+		try (failing) {
+			failing.start(EventHandler.direct());
+			failing.publish(Channel.SMS, broken);
+			failing.publish(Channel.PUSH, push);
+		}
+		System.out.println("Failed events: " + failing.failures());
+
+		// Throughput: 4 producers, 5M events each, counted by the consumer
+		int producers = 4;
+		int perProducer = 5_000_000;
+		Notification noop = () -> {
+		};
+		LongAdder handled = new LongAdder();
+		long start = System.nanoTime();
+		try (NotificationRingBuffer ring = new NotificationRingBuffer(1 << 16, WaitStrategy.YIELDING)) {
+			ring.start((event, sequence, endOfBatch) -> {
+				event.notification().notifyUser();
+				handled.increment();
+			});
+			List<Thread> threads = new ArrayList<>();
+			for (int p = 0; p < producers; p++) {
+				threads.add(Thread.ofPlatform().start(() -> {
+					for (int i = 0; i < perProducer; i++) {
+						ring.publish(Channel.PUSH, noop);
+					}
+				}));
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		}
+		long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+		System.out.printf("Handled %d events in %d ms (%d events per second)%n",
+				handled.sum(), millis, handled.sum() * 1000 / millis);
+	}
+
+}
@@ -0,0 +1,51 @@
+package ringbuffer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * What a thread does while the ring buffer has nothing for it (consumer: empty,
+ * producer: full). Trades latency against CPU usage.
+ */
+public enum WaitStrategy {
+
+	/** Lowest latency; burns a full core while waiting. */
+	BUSY_SPIN {
+		@Override
+		void idle(int attempt) {
+			Thread.onSpinWait();
+		}
+	},
+
+	/** Spins briefly, then gives the core to other threads. */
+	YIELDING {
+		@Override
+		void idle(int attempt) {
+			if (attempt < SPIN_TRIES) {
+				Thread.onSpinWait();
+			} else {
+				Thread.yield();
+			}
+		}
+	},
+
+	/** Spins briefly, then sleeps in short parks; nearly idle CPU, highest latency. */
+	PARKING {
+		@Override
+		void idle(int attempt) {
+			if (attempt < SPIN_TRIES) {
+				Thread.onSpinWait();
+			} else {
+				LockSupport.parkNanos(PARK_NANOS);
+			}
+		}
+	};
+
+	private static final int SPIN_TRIES = 100;
+	private static final long PARK_NANOS = 50_000;
+
+	/**
+	 * @param attempt How many times in a row this thread found nothing to do (starts at 0)
+	 */
+	abstract void idle(int attempt);
+
+}